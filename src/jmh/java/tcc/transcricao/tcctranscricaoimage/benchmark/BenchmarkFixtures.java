@@ -0,0 +1,86 @@
+package tcc.transcricao.tcctranscricaoimage.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Dados sintéticos, determinísticos, com tamanhos próximos aos reais.
+ */
+final class BenchmarkFixtures {
+
+    private static final String DESCRIPTION_SENTENCE =
+            "Uma mulher de cabelos cacheados e blusa amarela sorri ao lado de uma mesa de madeira com frutas coloridas. ";
+
+    private BenchmarkFixtures() {} // Utility class
+
+    /**
+     * Converte tamanhos como "100KB" ou "8MB" em bytes.
+     */
+    static int parseSize(String size) {
+        String value = size.trim().toUpperCase(Locale.ROOT);
+        if (value.endsWith("MB")) {
+            return Integer.parseInt(value.substring(0, value.length() - 2)) * 1024 * 1024;
+        }
+        if (value.endsWith("KB")) {
+            return Integer.parseInt(value.substring(0, value.length() - 2)) * 1024;
+        }
+        return Integer.parseInt(value);
+    }
+
+    /**
+     * Bytes aleatórios com cabeçalho JPEG (incompressíveis, como uma foto real).
+     */
+    static byte[] jpegLikeBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        data[0] = (byte) 0xFF;
+        data[1] = (byte) 0xD8;
+        data[2] = (byte) 0xFF;
+        data[3] = (byte) 0xE0;
+        return data;
+    }
+
+    /**
+     * Corpo do webhook enviado pelo bridge, com a imagem em Base64.
+     */
+    static byte[] webhookJson(byte[] image) {
+        return ("{\"id\":\"false_5511999999999@c.us_3EB0C767D26A1D3B\",\"from\":\"5511999999999@c.us\","
+                + "\"type\":\"image\",\"timestamp\":1699564800,"
+                + "\"media\":{\"mimetype\":\"image/jpeg\",\"filename\":null,\"data\":\""
+                + Base64.getEncoder().encodeToString(image) + "\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String description(int chars) {
+        StringBuilder text = new StringBuilder(chars + DESCRIPTION_SENTENCE.length());
+        while (text.length() < chars) {
+            text.append(DESCRIPTION_SENTENCE);
+        }
+        return text.substring(0, chars);
+    }
+
+    /**
+     * Resposta do chat completions com o conteúdo do tamanho informado.
+     */
+    static byte[] chatCompletionJson(int contentChars) {
+        String content = description(contentChars).replace("\"", "\\\"");
+        return ("""
+                {
+                  "id": "chatcmpl-9abc",
+                  "object": "chat.completion",
+                  "created": 1699564800,
+                  "model": "gpt-4o-2024-08-06",
+                  "choices": [
+                    {
+                      "index": 0,
+                      "message": { "role": "assistant", "content": "%s", "refusal": null },
+                      "logprobs": null,
+                      "finish_reason": "stop"
+                    }
+                  ],
+                  "usage": { "prompt_tokens": 1123, "completion_tokens": 187, "total_tokens": 1310 }
+                }
+                """.formatted(content)).getBytes(StandardCharsets.UTF_8);
+    }
+}
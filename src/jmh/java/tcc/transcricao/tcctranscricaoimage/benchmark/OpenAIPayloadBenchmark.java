@@ -0,0 +1,65 @@
+package tcc.transcricao.tcctranscricaoimage.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tcc.transcricao.tcctranscricaoimage.service.openai.OpenAIPayloadBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem do payload de visão: a partir dos bytes (sem regex) e a partir do Base64
+ * (com validação por regex), além da regex isolada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OpenAIPayloadBenchmark {
+
+    @Param({"100KB", "1MB", "8MB"})
+    private String imageSize;
+
+    private final OpenAIPayloadBuilder payloadBuilder = new OpenAIPayloadBuilder();
+    private byte[] imageBytes;
+    private String imageBase64;
+    private MethodHandle validateBase64Image;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        imageBytes = BenchmarkFixtures.jpegLikeBytes(BenchmarkFixtures.parseSize(imageSize));
+        imageBase64 = Base64.getEncoder().encodeToString(imageBytes);
+        validateBase64Image = MethodHandles.privateLookupIn(OpenAIPayloadBuilder.class, MethodHandles.lookup())
+                .findVirtual(OpenAIPayloadBuilder.class, "validateBase64Image",
+                        MethodType.methodType(void.class, String.class));
+    }
+
+    @Benchmark
+    public String buildFromBytes() {
+        return payloadBuilder.buildImageDescriptionPayload(imageBytes);
+    }
+
+    @Benchmark
+    public String buildFromBase64() {
+        return payloadBuilder.buildImageDescriptionPayload(imageBase64);
+    }
+
+    @Benchmark
+    public void validateBase64Regex() throws Throwable {
+        validateBase64Image.invoke(payloadBuilder, imageBase64);
+    }
+}
@@ -0,0 +1,75 @@
+package tcc.transcricao.tcctranscricaoimage.benchmark;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tcc.transcricao.tcctranscricaoimage.constants.OpenAIConstants;
+import tcc.transcricao.tcctranscricaoimage.service.openai.OpenAIResponseProcessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Processamento da resposta do chat completions: descompressão (Brotli ou gzip) em streaming
+ * + parse do JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OpenAIResponseBenchmark {
+
+    // Conteúdo da descrição (respostas reais ficam perto de 1KB; 100KB simula respostas longas)
+    @Param({"1KB", "100KB"})
+    private String contentSize;
+
+    private final OpenAIResponseProcessor openAIResponseProcessor = new OpenAIResponseProcessor();
+    private byte[] brotliBody;
+    private byte[] gzipBody;
+    private byte[] plainBody;
+
+    @Setup
+    public void setup() throws IOException {
+        Brotli4jLoader.ensureAvailability();
+
+        plainBody = BenchmarkFixtures.chatCompletionJson(BenchmarkFixtures.parseSize(contentSize));
+        brotliBody = Encoder.compress(plainBody);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(plainBody);
+        }
+        gzipBody = gzipped.toByteArray();
+    }
+
+    @Benchmark
+    public String brotliDecodeAndParse() {
+        return openAIResponseProcessor.extractDescription(
+                new ByteArrayInputStream(brotliBody), OpenAIConstants.BROTLI_ENCODING);
+    }
+
+    @Benchmark
+    public String gzipDecodeAndParse() {
+        return openAIResponseProcessor.extractDescription(
+                new ByteArrayInputStream(gzipBody), OpenAIConstants.GZIP_ENCODING);
+    }
+
+    @Benchmark
+    public String plainParse() {
+        return openAIResponseProcessor.extractDescription(new ByteArrayInputStream(plainBody), null);
+    }
+}
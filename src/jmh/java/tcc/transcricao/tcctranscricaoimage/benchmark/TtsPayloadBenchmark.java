@@ -0,0 +1,59 @@
+package tcc.transcricao.tcctranscricaoimage.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tcc.transcricao.tcctranscricaoimage.constants.TTSConstants;
+import tcc.transcricao.tcctranscricaoimage.service.tts.AudioFormat;
+import tcc.transcricao.tcctranscricaoimage.service.tts.TTSPayloadBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload do TTS e escape de JSON do texto. O texto é limitado a 4096 caracteres pela API,
+ * por isso os tamanhos vão de uma descrição típica (~600) até o limite.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TtsPayloadBenchmark {
+
+    @Param({"600", "4096"})
+    private int textLength;
+
+    private final TTSPayloadBuilder payloadBuilder = new TTSPayloadBuilder();
+    private String text;
+    private MethodHandle escapeJsonString;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        text = BenchmarkFixtures.description(textLength);
+        escapeJsonString = MethodHandles.privateLookupIn(TTSPayloadBuilder.class, MethodHandles.lookup())
+                .findVirtual(TTSPayloadBuilder.class, "escapeJsonString",
+                        MethodType.methodType(String.class, String.class));
+    }
+
+    @Benchmark
+    public String buildSpeechPayload() {
+        return payloadBuilder.buildSpeechPayload(text, TTSConstants.DEFAULT_VOICE, TTSConstants.TTS_MODEL, AudioFormat.MP3);
+    }
+
+    @Benchmark
+    public String escapeJson() throws Throwable {
+        return (String) escapeJsonString.invoke(payloadBuilder, text);
+    }
+}
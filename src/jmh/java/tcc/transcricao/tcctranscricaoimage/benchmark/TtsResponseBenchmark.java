@@ -0,0 +1,49 @@
+package tcc.transcricao.tcctranscricaoimage.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tcc.transcricao.tcctranscricaoimage.service.tts.TTSResponseProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão do áudio retornado pelo TTS para Base64.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TtsResponseBenchmark {
+
+    @Param({"100KB", "1MB", "8MB"})
+    private String audioSize;
+
+    private final TTSResponseProcessor responseProcessor = new TTSResponseProcessor();
+    private byte[] audioBytes;
+
+    @Setup
+    public void setup() {
+        // Frame MPEG1 Layer III no início para passar na validação de formato
+        audioBytes = BenchmarkFixtures.jpegLikeBytes(BenchmarkFixtures.parseSize(audioSize));
+        audioBytes[0] = (byte) 0xFF;
+        audioBytes[1] = (byte) 0xFB;
+        audioBytes[2] = (byte) 0x90;
+        audioBytes[3] = (byte) 0x64;
+    }
+
+    @Benchmark
+    public String audioToBase64() {
+        return responseProcessor.convertToBase64(audioBytes);
+    }
+}
@@ -0,0 +1,78 @@
+package tcc.transcricao.tcctranscricaoimage.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.processor.whatsapp.WhatsAppWebhookProcessor;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.PhoneRateLimiter;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WebhookDeduplicator;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse em streaming do webhook: leitura do JSON e decodificação do Base64 da imagem.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebhookParseBenchmark {
+
+    @Param({"100KB", "1MB", "8MB"})
+    private String imageSize;
+
+    private CamelContext camelContext;
+    private WhatsAppWebhookProcessor processor;
+    private byte[] webhookBody;
+
+    @Setup
+    public void setup() {
+        camelContext = new DefaultCamelContext();
+        camelContext.start();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Limite por telefone e deduplicação desligados: todas as iterações repetem o mesmo webhook
+        processor = new WhatsAppWebhookProcessor(new PipelineMetrics(meterRegistry),
+                new PhoneRateLimiter(false, 1, Duration.ofSeconds(1), meterRegistry),
+                new WebhookDeduplicator(false, Duration.ofMinutes(1), meterRegistry));
+        ReflectionTestUtils.setField(processor, "maxImageBytes", 16 * 1024 * 1024);
+
+        webhookBody = BenchmarkFixtures.webhookJson(
+                BenchmarkFixtures.jpegLikeBytes(BenchmarkFixtures.parseSize(imageSize)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        camelContext.stop();
+    }
+
+    @Benchmark
+    public byte[] parseWebhook() throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody(new ByteArrayInputStream(webhookBody));
+        processor.process(exchange);
+        return exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, byte[].class);
+    }
+}
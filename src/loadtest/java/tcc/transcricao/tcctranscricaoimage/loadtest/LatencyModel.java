@@ -0,0 +1,37 @@
+package tcc.transcricao.tcctranscricaoimage.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latência simulada com distribuição log-normal (mediana + dispersão) e taxa de erro.
+ */
+record LatencyModel(long medianMillis, double sigma, double errorRate) {
+
+    long sampleMillis() {
+        if (medianMillis <= 0) {
+            return 0;
+        }
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Math.round(medianMillis * Math.exp(sigma * gaussian));
+    }
+
+    boolean shouldFail() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    void sleep() {
+        long millis = sampleMillis();
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "mediana=%dms sigma=%.2f erros=%.1f%%".formatted(medianMillis, sigma, errorRate * 100);
+    }
+}
@@ -0,0 +1,257 @@
+package tcc.transcricao.tcctranscricaoimage.loadtest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gerador de carga do webhook. Em modo taxa (loop aberto) dispara requisições no ritmo fixo
+ * independentemente das respostas; em modo concorrência (loop fechado) mantém N clientes
+ * enviando em sequência. Cada requisição usa um telefone único, para que a chegada do
+ * áudio no bridge feche a medição fim a fim.
+ */
+class LoadTestDriver {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    record Settings(String targetUrl, double ratePerSecond, int concurrency, Duration duration,
+                    Duration warmup, int imageEdge, int imagePool, Duration endToEndTimeout) {}
+
+    private final Settings settings;
+    private final HttpClient httpClient;
+    private final List<String> imagePayloads;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> awaitingVoice = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> webhookLatencies = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> endToEndLatencies = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Double> heapSamples = new ConcurrentLinkedQueue<>();
+    private final AtomicLong transportErrors = new AtomicLong();
+    private volatile long measureFromNanos;
+
+    LoadTestDriver(Settings settings) {
+        this.settings = settings;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.imagePayloads = generateImages(settings.imagePool(), settings.imageEdge());
+    }
+
+    /**
+     * Chamado pelo stub do bridge quando o áudio de um telefone é entregue.
+     */
+    void onVoiceDelivered(String phone) {
+        Long sentAt = awaitingVoice.remove(phone);
+        if (sentAt != null && sentAt >= measureFromNanos) {
+            endToEndLatencies.add(System.nanoTime() - sentAt);
+        }
+    }
+
+    String run() throws InterruptedException {
+        long start = System.nanoTime();
+        measureFromNanos = start + settings.warmup().toNanos();
+        long end = measureFromNanos + settings.duration().toNanos();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+             var sampler = Executors.newSingleThreadScheduledExecutor()) {
+            sampler.scheduleAtFixedRate(this::sampleHeap, 1, 1, TimeUnit.SECONDS);
+
+            if (settings.ratePerSecond() > 0) {
+                runOpenLoop(workers, end);
+            } else {
+                runClosedLoop(workers, end);
+            }
+            workers.shutdown();
+            workers.awaitTermination(settings.endToEndTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+            // Aguarda os áudios ainda em trânsito
+            long deadline = System.nanoTime() + settings.endToEndTimeout().toNanos();
+            while (!awaitingVoice.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            sampler.shutdownNow();
+        }
+        return report(Duration.ofNanos(end - measureFromNanos));
+    }
+
+    private void runOpenLoop(ExecutorService workers, long end) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond());
+        long next = System.nanoTime();
+        while (next < end) {
+            // Agenda pelo horário planejado, não pelo término da anterior: evita omissão coordenada
+            long plannedAt = next;
+            workers.submit(() -> sendWebhook(plannedAt));
+            next += intervalNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleep);
+            }
+        }
+    }
+
+    private void runClosedLoop(ExecutorService workers, long end) throws InterruptedException {
+        Semaphore done = new Semaphore(0);
+        for (int i = 0; i < settings.concurrency(); i++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < end) {
+                    sendWebhook(System.nanoTime());
+                }
+                done.release();
+            });
+        }
+        done.acquire(settings.concurrency());
+    }
+
+    private void sendWebhook(long plannedAtNanos) {
+        long id = sequence.incrementAndGet();
+        String phone = "5500" + String.format("%09d", id);
+        String image = imagePayloads.get((int) (id % imagePayloads.size()));
+        String body = """
+                {"id":"loadtest-%d","from":"%s","type":"image","media":{"mimetype":"image/jpeg","filename":"loadtest-%d.jpg","data":"%s"}}"""
+                .formatted(id, phone, id, image);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(settings.targetUrl() + "/api/whatsapp-webhook"))
+                .timeout(settings.endToEndTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        awaitingVoice.put(phone, plannedAtNanos);
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            long elapsed = System.nanoTime() - plannedAtNanos;
+            if (plannedAtNanos >= measureFromNanos) {
+                webhookLatencies.add(elapsed);
+                statusCounts.computeIfAbsent(response.statusCode(), status -> new AtomicLong()).incrementAndGet();
+            }
+            if (response.statusCode() >= 400) {
+                awaitingVoice.remove(phone);
+            }
+        } catch (IOException e) {
+            awaitingVoice.remove(phone);
+            if (plannedAtNanos >= measureFromNanos) {
+                transportErrors.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            awaitingVoice.remove(phone);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sampleHeap() {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(settings.targetUrl() + "/actuator/metrics/jvm.memory.used?tag=area:heap"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = METRIC_VALUE.matcher(response.body());
+            if (response.statusCode() == 200 && matcher.find()) {
+                heapSamples.add(Double.parseDouble(matcher.group(1)));
+            }
+        } catch (IOException e) {
+            // Actuator indisponível: o relatório sai sem a amostra de heap
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String report(Duration measured) {
+        StringBuilder report = new StringBuilder();
+        long[] webhook = sorted(webhookLatencies);
+        long[] endToEnd = sorted(endToEndLatencies);
+        double seconds = Math.max(0.001, measured.toMillis() / 1000.0);
+
+        report.append("=== Resultado do teste de carga ===\n");
+        report.append("Modo: ").append(settings.ratePerSecond() > 0
+                ? "taxa %.1f req/s".formatted(settings.ratePerSecond())
+                : "concorrência " + settings.concurrency()).append('\n');
+        report.append("Janela medida: %ds (aquecimento %ds)\n".formatted(measured.toSeconds(), settings.warmup().toSeconds()));
+        report.append("Webhooks: %d (%.1f req/s), erros de transporte: %d\n"
+                .formatted(webhook.length, webhook.length / seconds, transportErrors.get()));
+        report.append("Status HTTP: ").append(new java.util.TreeMap<>(statusCounts)).append('\n');
+        report.append("Resposta do webhook:  ").append(percentiles(webhook)).append('\n');
+        report.append("Áudios entregues: %d (%.1f/s), sem resposta: %d\n"
+                .formatted(endToEnd.length, endToEnd.length / seconds, awaitingVoice.size()));
+        report.append("Fim a fim (áudio):    ").append(percentiles(endToEnd)).append('\n');
+
+        if (!heapSamples.isEmpty()) {
+            double max = heapSamples.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+            double avg = heapSamples.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            report.append("Heap usado: média %.1f MB, máximo %.1f MB\n".formatted(avg / (1 << 20), max / (1 << 20)));
+        }
+        return report.toString();
+    }
+
+    private static long[] sorted(ConcurrentLinkedQueue<Long> samples) {
+        long[] values = samples.stream().mapToLong(Long::longValue).toArray();
+        java.util.Arrays.sort(values);
+        return values;
+    }
+
+    private static String percentiles(long[] sortedNanos) {
+        if (sortedNanos.length == 0) {
+            return "sem amostras";
+        }
+        return "p50=%dms p90=%dms p99=%dms max=%dms".formatted(
+                percentile(sortedNanos, 0.50), percentile(sortedNanos, 0.90),
+                percentile(sortedNanos, 0.99), sortedNanos[sortedNanos.length - 1] / 1_000_000);
+    }
+
+    private static long percentile(long[] sortedNanos, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000;
+    }
+
+    /**
+     * Imagens JPEG distintas (o cache de descrição usa o hash dos bytes), já em Base64.
+     */
+    private static List<String> generateImages(int count, int edge) {
+        Random random = new Random(42);
+        List<String> images = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BufferedImage image = new BufferedImage(edge, edge * 3 / 4, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            for (int block = 0; block < 64; block++) {
+                graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+                graphics.fillRect(random.nextInt(edge), random.nextInt(edge * 3 / 4),
+                        1 + random.nextInt(edge / 2), 1 + random.nextInt(edge / 2));
+            }
+            graphics.dispose();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try {
+                ImageIO.write(image, "jpg", output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            images.add(Base64.getEncoder().encodeToString(output.toByteArray()));
+        }
+        return images;
+    }
+}
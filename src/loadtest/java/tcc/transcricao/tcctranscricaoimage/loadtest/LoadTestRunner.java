@@ -0,0 +1,112 @@
+package tcc.transcricao.tcctranscricaoimage.loadtest;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import tcc.transcricao.tcctranscricaoimage.TccTranscricaoimageApplication;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Teste de carga fim a fim: sobe os substitutos da OpenAI e do bridge, opcionalmente a própria
+ * aplicação apontando para eles, e dispara o webhook medindo resposta, áudio entregue e heap.
+ *
+ * <p>Opções ({@code --chave=valor}); as não reconhecidas são repassadas à aplicação:
+ * <ul>
+ *   <li>{@code rate} requisições/s (loop aberto) ou {@code concurrency} clientes (loop fechado)</li>
+ *   <li>{@code duration}, {@code warmup}, {@code timeout} (ex.: 60s)</li>
+ *   <li>{@code image-edge}, {@code image-pool}: largura e quantidade de imagens distintas</li>
+ *   <li>{@code vision-latency}, {@code tts-latency}, {@code bridge-latency} (mediana em ms),
+ *       {@code latency-sigma}, {@code error-rate}, {@code brotli}</li>
+ *   <li>{@code target}: URL de uma instância já em execução; sem ela a aplicação sobe embarcada</li>
+ * </ul>
+ */
+public class LoadTestRunner {
+
+    private static final List<String> OPTIONS = List.of("rate", "concurrency", "duration", "warmup", "timeout",
+            "image-edge", "image-pool", "vision-latency", "tts-latency", "bridge-latency", "latency-sigma",
+            "error-rate", "brotli", "target", "openai-port", "bridge-port", "app-port");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            String[] parts = arg.replaceFirst("^--", "").split("=", 2);
+            if (OPTIONS.contains(parts[0])) {
+                options.put(parts[0], parts.length > 1 ? parts[1] : "true");
+            } else {
+                appArgs.add(arg);
+            }
+        }
+
+        double sigma = Double.parseDouble(options.getOrDefault("latency-sigma", "0.3"));
+        double errorRate = Double.parseDouble(options.getOrDefault("error-rate", "0"));
+        LatencyModel visionLatency = new LatencyModel(Long.parseLong(options.getOrDefault("vision-latency", "2500")), sigma, errorRate);
+        LatencyModel ttsLatency = new LatencyModel(Long.parseLong(options.getOrDefault("tts-latency", "800")), sigma, errorRate);
+        LatencyModel bridgeLatency = new LatencyModel(Long.parseLong(options.getOrDefault("bridge-latency", "150")), sigma, 0);
+
+        LoadTestDriver.Settings settings = new LoadTestDriver.Settings(
+                options.getOrDefault("target", "http://127.0.0.1:" + options.getOrDefault("app-port", "8080")),
+                Double.parseDouble(options.getOrDefault("rate", "0")),
+                Integer.parseInt(options.getOrDefault("concurrency", "16")),
+                Duration.parse("PT" + options.getOrDefault("duration", "60s")),
+                Duration.parse("PT" + options.getOrDefault("warmup", "10s")),
+                Integer.parseInt(options.getOrDefault("image-edge", "1600")),
+                Integer.parseInt(options.getOrDefault("image-pool", "200")),
+                Duration.parse("PT" + options.getOrDefault("timeout", "120s")));
+
+        AtomicReference<LoadTestDriver> driverRef = new AtomicReference<>();
+        try (StubOpenAIServer openAi = new StubOpenAIServer(Integer.parseInt(options.getOrDefault("openai-port", "0")),
+                     visionLatency, ttsLatency, Boolean.parseBoolean(options.getOrDefault("brotli", "false")));
+             StubBridgeServer bridge = new StubBridgeServer(Integer.parseInt(options.getOrDefault("bridge-port", "0")),
+                     bridgeLatency, phone -> {
+                         LoadTestDriver driver = driverRef.get();
+                         if (driver != null) {
+                             driver.onVoiceDelivered(phone);
+                         }
+                     })) {
+
+            System.out.printf("Stub OpenAI: %s (visão %s, TTS %s)%n", openAi.baseUrl(), visionLatency, ttsLatency);
+            System.out.printf("Stub bridge: %s (%s)%n", bridge.baseUrl(), bridgeLatency);
+
+            ConfigurableApplicationContext application = null;
+            if (!options.containsKey("target")) {
+                application = startApplication(options.getOrDefault("app-port", "8080"),
+                        openAi.baseUrl(), bridge.baseUrl(), appArgs);
+            }
+
+            try {
+                LoadTestDriver driver = new LoadTestDriver(settings);
+                driverRef.set(driver);
+                String report = driver.run();
+                System.out.print(report);
+                System.out.printf("Stubs: %d chamadas de visão, %d de TTS, %d áudios (%d KB) e %d textos no bridge (%d lotes)%n",
+                        openAi.chatRequests(), openAi.speechRequests(), bridge.voiceMessages(),
+                        bridge.voiceBytes() / 1024, bridge.textMessages(), bridge.batches());
+            } finally {
+                if (application != null) {
+                    application.close();
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String port, String openAiUrl, String bridgeUrl,
+                                                                   List<String> appArgs) {
+        Brotli4jLoader.ensureAvailability();
+
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=" + port,
+                "--openai.api.base-url=" + openAiUrl,
+                "--openai.api.key=loadtest",
+                "--whatsapp.api.url=" + bridgeUrl));
+        // Repassados por último para sobrescrever os padrões acima (ex.: --pipeline.mode=async)
+        args.addAll(appArgs);
+        return SpringApplication.run(TccTranscricaoimageApplication.class, args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,145 @@
+package tcc.transcricao.tcctranscricaoimage.loadtest;
+
+import tcc.transcricao.tcctranscricaoimage.service.tts.AudioFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Áudio válido contendo apenas silêncio, no formato pedido em {@code response_format}:
+ * MP3 (frames MPEG-1 Layer III, 128 kbps, 44,1 kHz), AAC (frames ADTS AAC-LC mono, 44,1 kHz)
+ * ou Opus (pacotes de 20 ms em páginas OGG, precedidos de OpusHead e OpusTags).
+ */
+final class SilentAudio {
+
+    private static final byte[] MP3_FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x64};
+    private static final int MP3_FRAME_LENGTH = 417; // 144 * 128000 / 44100, sem padding
+    private static final double MP3_FRAME_SECONDS = 1152.0 / 44100;
+
+    // Elemento de canal único com espectro zerado
+    private static final byte[] AAC_SILENT_PAYLOAD = {0x21, 0x10, 0x04, 0x60, (byte) 0x8C, 0x1C};
+    private static final double AAC_FRAME_SECONDS = 1024.0 / 44100;
+
+    // Pacote CELT de 20 ms sem energia (o mesmo usado em DTX)
+    private static final byte[] OPUS_SILENT_PACKET = {(byte) 0xF8, (byte) 0xFF, (byte) 0xFE};
+    private static final double OPUS_FRAME_SECONDS = 0.020;
+    private static final int OPUS_SAMPLES_PER_FRAME = 960; // 20 ms a 48 kHz
+    private static final int OPUS_PACKETS_PER_PAGE = 50;
+    private static final int OGG_SERIAL = 0x54434321;
+
+    // Fala em português fica em torno de 15 caracteres por segundo
+    private static final double CHARS_PER_SECOND = 15.0;
+
+    private SilentAudio() {} // Utility class
+
+    /**
+     * Áudio com a duração aproximada da leitura do texto informado.
+     */
+    static byte[] forText(AudioFormat format, int textLength) {
+        double seconds = textLength / CHARS_PER_SECOND;
+        return switch (format) {
+            case MP3 -> mp3(frames(seconds, MP3_FRAME_SECONDS));
+            case AAC -> aac(frames(seconds, AAC_FRAME_SECONDS));
+            case OPUS -> opus(frames(seconds, OPUS_FRAME_SECONDS));
+        };
+    }
+
+    private static int frames(double seconds, double frameSeconds) {
+        return Math.max(10, (int) Math.ceil(seconds / frameSeconds));
+    }
+
+    private static byte[] mp3(int frames) {
+        byte[] audio = new byte[frames * MP3_FRAME_LENGTH];
+        for (int i = 0; i < frames; i++) {
+            System.arraycopy(MP3_FRAME_HEADER, 0, audio, i * MP3_FRAME_LENGTH, MP3_FRAME_HEADER.length);
+        }
+        return audio;
+    }
+
+    private static byte[] aac(int frames) {
+        int frameLength = 7 + AAC_SILENT_PAYLOAD.length;
+        byte[] header = {
+                (byte) 0xFF, (byte) 0xF1,                          // sync, MPEG-4, sem CRC
+                (byte) 0x50,                                        // AAC-LC, 44,1 kHz
+                (byte) (0x40 | (frameLength >> 11)),                // mono
+                (byte) (frameLength >> 3),
+                (byte) (((frameLength & 0x07) << 5) | 0x1F),
+                (byte) 0xFC
+        };
+        ByteArrayOutputStream audio = new ByteArrayOutputStream(frames * frameLength);
+        for (int i = 0; i < frames; i++) {
+            audio.writeBytes(header);
+            audio.writeBytes(AAC_SILENT_PAYLOAD);
+        }
+        return audio.toByteArray();
+    }
+
+    private static byte[] opus(int packets) {
+        ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        int sequence = 0;
+
+        ByteBuffer head = ByteBuffer.allocate(19).order(ByteOrder.LITTLE_ENDIAN)
+                .put("OpusHead".getBytes(StandardCharsets.US_ASCII))
+                .put((byte) 1).put((byte) 1)                        // versão, mono
+                .putShort((short) 312).putInt(48000).putShort((short) 0).put((byte) 0);
+        audio.writeBytes(oggPage(0x02, 0, sequence++, new byte[][]{head.array()}));
+
+        byte[] vendor = "stub".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer tags = ByteBuffer.allocate(8 + 4 + vendor.length + 4).order(ByteOrder.LITTLE_ENDIAN)
+                .put("OpusTags".getBytes(StandardCharsets.US_ASCII))
+                .putInt(vendor.length).put(vendor).putInt(0);
+        audio.writeBytes(oggPage(0x00, 0, sequence++, new byte[][]{tags.array()}));
+
+        long granule = 0;
+        for (int written = 0; written < packets; written += OPUS_PACKETS_PER_PAGE) {
+            int count = Math.min(OPUS_PACKETS_PER_PAGE, packets - written);
+            byte[][] page = new byte[count][];
+            for (int i = 0; i < count; i++) {
+                page[i] = OPUS_SILENT_PACKET;
+            }
+            granule += (long) count * OPUS_SAMPLES_PER_FRAME;
+            int flags = written + count >= packets ? 0x04 : 0x00;
+            audio.writeBytes(oggPage(flags, granule, sequence++, page));
+        }
+        return audio.toByteArray();
+    }
+
+    /**
+     * Página OGG com pacotes menores que 255 bytes (um segmento cada).
+     */
+    private static byte[] oggPage(int flags, long granule, int sequence, byte[][] packets) {
+        int bodyLength = 0;
+        for (byte[] packet : packets) {
+            bodyLength += packet.length;
+        }
+        ByteBuffer page = ByteBuffer.allocate(27 + packets.length + bodyLength).order(ByteOrder.LITTLE_ENDIAN)
+                .put("OggS".getBytes(StandardCharsets.US_ASCII))
+                .put((byte) 0).put((byte) flags)
+                .putLong(granule).putInt(OGG_SERIAL).putInt(sequence)
+                .putInt(0)                                          // CRC, preenchido abaixo
+                .put((byte) packets.length);
+        for (byte[] packet : packets) {
+            page.put((byte) packet.length);
+        }
+        for (byte[] packet : packets) {
+            page.put(packet);
+        }
+        byte[] bytes = page.array();
+        ByteBuffer.wrap(bytes, 22, 4).order(ByteOrder.LITTLE_ENDIAN).putInt(oggCrc(bytes));
+        return bytes;
+    }
+
+    // CRC-32 do OGG: polinômio 0x04C11DB7, sem reflexão, valor inicial 0
+    private static int oggCrc(byte[] bytes) {
+        int crc = 0;
+        for (byte b : bytes) {
+            crc ^= (b & 0xFF) << 24;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04C11DB7 : crc << 1;
+            }
+        }
+        return crc;
+    }
+}
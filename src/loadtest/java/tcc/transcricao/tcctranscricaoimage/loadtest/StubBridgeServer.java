@@ -0,0 +1,180 @@
+package tcc.transcricao.tcctranscricaoimage.loadtest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Substituto local do bridge whatsapp-web.js: aceita {@code /sendText}, {@code /sendVoice} e
+ * {@code /sendBatch} e avisa o driver a cada áudio entregue (pelo campo "to"), para medir a
+ * latência fim a fim.
+ */
+class StubBridgeServer implements AutoCloseable {
+
+    private static final byte[] OK_BODY = "{\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final HttpServer server;
+    private final LatencyModel latency;
+    private final Consumer<String> onVoiceDelivered;
+    private final AtomicLong textMessages = new AtomicLong();
+    private final AtomicLong voiceMessages = new AtomicLong();
+    private final AtomicLong voiceBytes = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    StubBridgeServer(int port, LatencyModel latency, Consumer<String> onVoiceDelivered) throws IOException {
+        this.latency = latency;
+        this.onVoiceDelivered = onVoiceDelivered;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 512);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/sendText", this::handleText);
+        this.server.createContext("/sendVoice", this::handleVoice);
+        this.server.createContext("/sendBatch", this::handleBatch);
+        this.server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long textMessages() {
+        return textMessages.get();
+    }
+
+    long voiceMessages() {
+        return voiceMessages.get();
+    }
+
+    long voiceBytes() {
+        return voiceBytes.get();
+    }
+
+    long batches() {
+        return batches.get();
+    }
+
+    private void handleText(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            textMessages.incrementAndGet();
+            respond(exchange);
+        }
+    }
+
+    private void handleVoice(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String to;
+            try (InputStream body = exchange.getRequestBody()) {
+                to = readRecipient(body);
+                voiceBytes.addAndGet(body.transferTo(OutputStream.nullOutputStream()));
+            }
+            voiceMessages.incrementAndGet();
+            respond(exchange);
+            if (to != null) {
+                onVoiceDelivered.accept(to);
+            }
+        }
+    }
+
+    /**
+     * Lote {"messages": [...]}: conta textos e áudios e responde um resultado OK por mensagem.
+     */
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            List<String> voiceRecipients = new ArrayList<>();
+            int count = 0;
+            try (InputStream body = exchange.getRequestBody(); JsonParser parser = jsonFactory.createParser(body)) {
+                while (parser.nextToken() != null) {
+                    if (parser.currentToken() != JsonToken.START_OBJECT || !parser.getParsingContext().getParent().inArray()) {
+                        continue;
+                    }
+                    count++;
+                    String type = null;
+                    String to = null;
+                    long audioChars = 0;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        parser.nextToken();
+                        switch (field) {
+                            case "type" -> type = parser.getText();
+                            case "to" -> to = parser.getText();
+                            case "audioBase64" -> audioChars = parser.getTextLength();
+                            default -> parser.skipChildren();
+                        }
+                    }
+                    if ("voice".equals(type)) {
+                        voiceBytes.addAndGet(audioChars / 4 * 3);
+                        voiceRecipients.add(to);
+                    } else {
+                        textMessages.incrementAndGet();
+                    }
+                }
+            }
+            batches.incrementAndGet();
+            voiceMessages.addAndGet(voiceRecipients.size());
+
+            latency.sleep();
+            if (latency.shouldFail()) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            StringBuilder results = new StringBuilder("{\"results\":[");
+            for (int i = 0; i < count; i++) {
+                results.append(i == 0 ? "" : ",").append("{\"status\":\"OK\"}");
+            }
+            byte[] response = results.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            voiceRecipients.stream().filter(to -> to != null).forEach(onVoiceDelivered);
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        latency.sleep();
+        if (latency.shouldFail()) {
+            exchange.sendResponseHeaders(500, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, OK_BODY.length);
+        exchange.getResponseBody().write(OK_BODY);
+    }
+
+    /**
+     * Lê apenas o campo "to" do início do JSON, sem carregar o áudio em memória.
+     */
+    private String readRecipient(InputStream body) throws IOException {
+        JsonParser parser = jsonFactory.createParser(body);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("to".equals(field)) {
+                return parser.getText();
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,168 @@
+package tcc.transcricao.tcctranscricaoimage.loadtest;
+
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tcc.transcricao.tcctranscricaoimage.service.tts.AudioFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Substituto local da API da OpenAI: {@code /v1/chat/completions} (JSON, Brotli ou SSE com
+ * {@code "stream": true}) e {@code /v1/audio/speech} (silêncio no {@code response_format} pedido, com
+ * duração proporcional ao texto).
+ */
+class StubOpenAIServer implements AutoCloseable {
+
+    static final String DESCRIPTION = "Uma mulher de cabelos cacheados e blusa amarela sorri ao lado de uma "
+            + "mesa de madeira clara. Sobre a mesa há uma fruteira com bananas, maçãs vermelhas e uvas verdes. "
+            + "Ao fundo, uma janela ampla deixa entrar a luz do fim da tarde, tingindo a parede de laranja. "
+            + "Ela veste calça jeans e segura uma xícara branca com as duas mãos, com expressão tranquila.";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final LatencyModel chatLatency;
+    private final LatencyModel speechLatency;
+    private final boolean forceBrotli;
+    private final AtomicLong chatRequests = new AtomicLong();
+    private final AtomicLong speechRequests = new AtomicLong();
+
+    StubOpenAIServer(int port, LatencyModel chatLatency, LatencyModel speechLatency, boolean forceBrotli)
+            throws IOException {
+        this.chatLatency = chatLatency;
+        this.speechLatency = speechLatency;
+        this.forceBrotli = forceBrotli;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 512);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/v1/chat/completions", this::handleChat);
+        this.server.createContext("/v1/audio/speech", this::handleSpeech);
+        this.server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long chatRequests() {
+        return chatRequests.get();
+    }
+
+    long speechRequests() {
+        return speechRequests.get();
+    }
+
+    private void handleChat(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            chatRequests.incrementAndGet();
+            JsonNode request = readJson(exchange.getRequestBody());
+            chatLatency.sleep();
+
+            if (chatLatency.shouldFail()) {
+                sendError(exchange);
+                return;
+            }
+
+            if (request.path("stream").asBoolean(false)) {
+                sendEventStream(exchange);
+                return;
+            }
+
+            byte[] body = objectMapper.writeValueAsBytes(objectMapper.createObjectNode()
+                    .put("id", "chatcmpl-stub")
+                    .put("object", "chat.completion")
+                    .put("model", "gpt-4o")
+                    .set("choices", objectMapper.createArrayNode().add(objectMapper.createObjectNode()
+                            .put("index", 0)
+                            .put("finish_reason", "stop")
+                            .set("message", objectMapper.createObjectNode()
+                                    .put("role", "assistant")
+                                    .put("content", DESCRIPTION)))));
+
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (forceBrotli || (acceptEncoding != null && acceptEncoding.contains("br"))) {
+                body = Encoder.compress(body);
+                exchange.getResponseHeaders().set("Content-Encoding", "br");
+            } else if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                body = gzip(body);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private void sendEventStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream output = exchange.getResponseBody();
+
+        // Um fragmento por palavra, como os tokens chegam da API
+        for (String word : DESCRIPTION.split("(?<= )")) {
+            String chunk = objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                    .put("object", "chat.completion.chunk")
+                    .set("choices", objectMapper.createArrayNode().add(objectMapper.createObjectNode()
+                            .put("index", 0)
+                            .set("delta", objectMapper.createObjectNode().put("content", word)))));
+            output.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        }
+        output.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handleSpeech(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            speechRequests.incrementAndGet();
+            JsonNode request = readJson(exchange.getRequestBody());
+            speechLatency.sleep();
+
+            if (speechLatency.shouldFail()) {
+                sendError(exchange);
+                return;
+            }
+
+            AudioFormat format = AudioFormat.fromName(request.path("response_format").asText(AudioFormat.MP3.apiName()));
+            byte[] audio = SilentAudio.forText(format, request.path("input").asText("").length());
+            exchange.getResponseHeaders().set("Content-Type", format.mimeType());
+            exchange.sendResponseHeaders(200, audio.length);
+            exchange.getResponseBody().write(audio);
+        }
+    }
+
+    private JsonNode readJson(InputStream body) throws IOException {
+        try (body) {
+            return objectMapper.readTree(body);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private void sendError(HttpExchange exchange) throws IOException {
+        byte[] body = "{\"error\":{\"message\":\"stub: erro simulado\",\"type\":\"server_error\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(500, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
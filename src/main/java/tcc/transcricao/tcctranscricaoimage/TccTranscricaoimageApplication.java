@@ -3,8 +3,10 @@ package tcc.transcricao.tcctranscricaoimage;
 import com.aayushatharva.brotli4j.Brotli4jLoader;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TccTranscricaoimageApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,46 @@
+package tcc.transcricao.tcctranscricaoimage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executores usados para chamadas paralelas às APIs externas.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Pool compartilhado para síntese TTS em blocos paralelos. Com virtual threads, cada bloco
+     * ganha sua própria thread e o limite passa a ser o paralelismo por texto e o pool HTTP.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService ttsExecutor(@Value("${tts.chunking.pool-size:16}") int poolSize,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tts-chunk-", 0).factory());
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), Thread.ofPlatform().name("tts-chunk-", 0).daemon(true).factory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Threads das tentativas com hedge às APIs da OpenAI (a primeira e a de reserva).
+     * Sem fila: as tentativas são limitadas pelo pool de conexões HTTP.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService hedgeExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("openai-hedge-", 0).factory());
+        }
+        return Executors.newCachedThreadPool(Thread.ofPlatform().name("openai-hedge-", 0).daemon(true).factory());
+    }
+}
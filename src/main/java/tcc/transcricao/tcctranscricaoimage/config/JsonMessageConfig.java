@@ -0,0 +1,29 @@
+package tcc.transcricao.tcctranscricaoimage.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tcc.transcricao.tcctranscricaoimage.dto.SurveyAnswer;
+
+/**
+ * Leitor e escritor JSON compartilhados pelos processors: as mensagens circulam pelas rotas
+ * como objetos e são serializadas uma única vez, na chamada HTTP. ObjectWriter e ObjectReader
+ * são imutáveis e seguros entre threads, e reaproveitam os serializadores já resolvidos.
+ */
+@Configuration
+public class JsonMessageConfig {
+
+    @Bean
+    public ObjectWriter messageWriter(ObjectMapper objectMapper) {
+        return objectMapper.writer();
+    }
+
+    @Bean
+    public ObjectReader surveyAnswerReader(ObjectMapper objectMapper) {
+        return objectMapper.readerFor(SurveyAnswer.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
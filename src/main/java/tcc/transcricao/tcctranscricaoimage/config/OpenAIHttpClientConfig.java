@@ -0,0 +1,175 @@
+package tcc.transcricao.tcctranscricaoimage.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Cliente HTTP compartilhado pelas chamadas à OpenAI (visão e TTS).
+ * Mantém conexões TLS reaproveitáveis em pool, com timeouts explícitos, evitando
+ * handshakes a cada requisição e threads presas indefinidamente em sockets travados.
+ */
+@Configuration
+@Slf4j
+public class OpenAIHttpClientConfig {
+
+    public static final String PROTOCOL_HTTP1 = "http1";
+    public static final String PROTOCOL_HTTP2 = "http2";
+
+    private static final String CLIENT_NAME = "openai";
+
+    @Value("${openai.http.protocol:" + PROTOCOL_HTTP1 + "}")
+    private String protocol;
+
+    @Value("${openai.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${openai.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${openai.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${openai.http.read-timeout:60s}")
+    private Duration readTimeout;
+
+    @Value("${openai.http.pool-acquire-timeout:5s}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${openai.http.keep-alive:60s}")
+    private Duration keepAlive;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public RestTemplate openAiRestTemplate(MeterRegistry meterRegistry) {
+        ClientHttpRequestFactory requestFactory = PROTOCOL_HTTP2.equalsIgnoreCase(protocol)
+                ? buildHttp2RequestFactory()
+                : buildPooledRequestFactory(meterRegistry);
+
+        log.info("Cliente HTTP OpenAI configurado - Protocolo: {}, Conexões: {} (por rota: {}), Connect: {}, Read: {}",
+                protocol, maxConnections, maxConnectionsPerRoute, connectTimeout, readTimeout);
+        return new RestTemplate(requestFactory);
+    }
+
+    private ClientHttpRequestFactory buildPooledRequestFactory(MeterRegistry meterRegistry) {
+        TimedConnectionManager connectionManager = new TimedConnectionManager(
+                Timer.builder("http.client.connect")
+                        .description("Tempo para estabelecer novas conexões (TCP + TLS)")
+                        .tag("client", CLIENT_NAME)
+                        .register(meterRegistry));
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(Timeout.of(readTimeout))
+                .setSoKeepAlive(true)
+                .build());
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                .setTimeToLive(TimeValue.of(keepAlive.multipliedBy(5)))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .build());
+
+        registerPoolMetrics(connectionManager, meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                // Accept-Encoding e descompressão ficam com a aplicação, que decodifica br/gzip/deflate
+                // em streaming; a descompressão transparente não conhece br
+                .disableContentCompression()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    /**
+     * HTTP/2 via cliente do JDK: uma conexão multiplexada por host substitui o pool.
+     * Métricas de pool não se aplicam neste modo.
+     */
+    private ClientHttpRequestFactory buildHttp2RequestFactory() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout);
+        if (virtualThreads) {
+            // Tarefas assíncronas do cliente (handshake, entrega das respostas) em virtual threads
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        HttpClient httpClient = builder.build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+
+    private void registerPoolMetrics(PoolingHttpClientConnectionManager connectionManager, MeterRegistry meterRegistry) {
+        Gauge.builder("http.client.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Conexões em uso")
+                .tag("client", CLIENT_NAME)
+                .register(meterRegistry);
+        Gauge.builder("http.client.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Requisições aguardando conexão do pool")
+                .tag("client", CLIENT_NAME)
+                .register(meterRegistry);
+        Gauge.builder("http.client.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Conexões ociosas prontas para reuso")
+                .tag("client", CLIENT_NAME)
+                .register(meterRegistry);
+        Gauge.builder("http.client.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+                .tag("client", CLIENT_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Connection manager que mede o tempo de abertura de cada nova conexão.
+     */
+    private static final class TimedConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private final Timer connectTimer;
+
+        private TimedConnectionManager(Timer connectTimer) {
+            this.connectTimer = connectTimer;
+        }
+
+        @Override
+        public void connect(ConnectionEndpoint endpoint, TimeValue timeout, HttpContext context) throws IOException {
+            long start = System.nanoTime();
+            try {
+                super.connect(endpoint, timeout, context);
+            } finally {
+                connectTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+    }
+}
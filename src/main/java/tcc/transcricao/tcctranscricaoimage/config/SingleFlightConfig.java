@@ -0,0 +1,43 @@
+package tcc.transcricao.tcctranscricaoimage.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tcc.transcricao.tcctranscricaoimage.service.DescriptionSpeechPipeline;
+import tcc.transcricao.tcctranscricaoimage.service.cache.CachedAudio;
+import tcc.transcricao.tcctranscricaoimage.service.cache.SingleFlight;
+
+import java.util.List;
+
+/**
+ * Agrupamento de chamadas idênticas em andamento, pelas mesmas chaves dos caches
+ * (conteúdo da imagem e texto + voz + modelo + formato do áudio).
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<String, String> descriptionFlight(
+            @Value("${pipeline.single-flight.enabled:true}") boolean enabled, MeterRegistry meterRegistry) {
+        return new SingleFlight<>("vision", enabled, meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<String, List<String>> albumFlight(
+            @Value("${pipeline.single-flight.enabled:true}") boolean enabled, MeterRegistry meterRegistry) {
+        return new SingleFlight<>("album", enabled, meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<String, CachedAudio> speechFlight(
+            @Value("${pipeline.single-flight.enabled:true}") boolean enabled, MeterRegistry meterRegistry) {
+        return new SingleFlight<>("tts", enabled, meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<String, DescriptionSpeechPipeline.Result> pipelineFlight(
+            @Value("${pipeline.single-flight.enabled:true}") boolean enabled, MeterRegistry meterRegistry) {
+        return new SingleFlight<>("pipeline", enabled, meterRegistry);
+    }
+}
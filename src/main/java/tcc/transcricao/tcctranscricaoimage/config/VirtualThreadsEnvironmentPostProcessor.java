@@ -0,0 +1,25 @@
+package tcc.transcricao.tcctranscricaoimage.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Repassa {@code spring.threads.virtual.enabled} ao Camel. O Camel decide o tipo de thread
+ * dos seus pools (SEDA, wireTap, threads()) por propriedade de sistema lida uma única vez,
+ * ao carregar a classe, por isso ela precisa estar definida antes do contexto subir.
+ */
+public class VirtualThreadsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String SPRING_VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+    static final String CAMEL_VIRTUAL_THREADS_PROPERTY = "camel.threads.virtual.enabled";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (System.getProperty(CAMEL_VIRTUAL_THREADS_PROPERTY) != null) {
+            return;
+        }
+        boolean enabled = environment.getProperty(SPRING_VIRTUAL_THREADS_PROPERTY, Boolean.class, false);
+        System.setProperty(CAMEL_VIRTUAL_THREADS_PROPERTY, Boolean.toString(enabled));
+    }
+}
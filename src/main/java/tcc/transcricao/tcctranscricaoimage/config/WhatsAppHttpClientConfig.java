@@ -0,0 +1,75 @@
+package tcc.transcricao.tcctranscricaoimage.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cliente HTTP do envio em lote ao bridge do WhatsApp: conexões keep-alive em pool,
+ * reaproveitadas entre os lotes em vez de uma conexão nova por mensagem.
+ */
+@Configuration
+@Slf4j
+public class WhatsAppHttpClientConfig {
+
+    private static final String CLIENT_NAME = "whatsapp";
+
+    @Value("${whatsapp.http.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${whatsapp.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${whatsapp.http.read-timeout:60s}")
+    private Duration readTimeout;
+
+    @Value("${whatsapp.http.keep-alive:60s}")
+    private Duration keepAlive;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient bridgeHttpClient(MeterRegistry meterRegistry) {
+        // O bridge é um único host: todas as conexões do pool ficam na mesma rota
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .build());
+
+        Gauge.builder("http.client.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Conexões em uso")
+                .tag("client", CLIENT_NAME)
+                .register(meterRegistry);
+        Gauge.builder("http.client.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Conexões ociosas prontas para reuso")
+                .tag("client", CLIENT_NAME)
+                .register(meterRegistry);
+
+        log.info("Cliente HTTP do bridge configurado - Conexões: {}, Connect: {}, Read: {}, Keep-alive: {}",
+                maxConnections, connectTimeout, readTimeout, keepAlive);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package tcc.transcricao.tcctranscricaoimage.constants;
+
+public final class MetricsConstants {
+
+    private MetricsConstants() {} // Utility class
+
+    // Endpoints
+    public static final String LATENCY_REPORT_ENDPOINT = "rest:GET:/metrics/latency";
+
+    // Query Parameters
+    public static final String GRANULARITY_PARAM = "granularity";
+    public static final String FROM_PARAM = "from";
+    public static final String TO_PARAM = "to";
+
+    // Defaults
+    public static final String DEFAULT_GRANULARITY = "hour";
+    public static final int DEFAULT_RANGE_HOURS = 24;
+    public static final int MAX_MINUTE_BUCKETS = 1440;
+
+    // Headers
+    public static final String CONTENT_TYPE_HEADER = "Content-Type";
+    public static final String APPLICATION_JSON = "application/json";
+
+    // Log Messages
+    public static final String LATENCY_REPORT_LOG = "Relatório de latência gerado";
+}
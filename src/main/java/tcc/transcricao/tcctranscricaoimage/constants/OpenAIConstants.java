@@ -5,7 +5,8 @@ public final class OpenAIConstants {
     private OpenAIConstants() {} // Utility class
 
     // API Configuration
-    public static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
+    public static final String DEFAULT_OPENAI_BASE_URL = "https://api.openai.com";
+    public static final String CHAT_COMPLETIONS_PATH = "/v1/chat/completions";
     public static final String GPT_4O_MODEL = "gpt-4o";
     public static final int MAX_TOKENS = 200;
     public static final int MAX_DESCRIPTION_WORDS = 100;
@@ -16,16 +17,28 @@ public final class OpenAIConstants {
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String ACCEPT_HEADER = "Accept";
     public static final String APPLICATION_JSON = "application/json";
+    public static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
     public static final String BROTLI_ENCODING = "br";
+    public static final String GZIP_ENCODING = "gzip";
+    public static final String DEFLATE_ENCODING = "deflate";
+    public static final String IDENTITY_ENCODING = "identity";
+    // Codificações aceitas nas respostas, decodificadas em streaming pelo ContentDecoder
+    public static final String ACCEPTED_ENCODINGS = "br, gzip, deflate";
 
     // JSON Paths
     public static final String CHOICES_PATH = "choices";
     public static final String MESSAGE_PATH = "message";
     public static final String CONTENT_PATH = "content";
+    public static final String DELTA_PATH = "delta";
+    public static final String DESCRIPTIONS_PATH = "descricoes";
+
+    // Server-Sent Events (stream: true)
+    public static final String SSE_DATA_PREFIX = "data:";
+    public static final String SSE_DONE_MARKER = "[DONE]";
 
     // Error Messages
     public static final String OPENAI_ERROR_MESSAGE = "Erro ao chamar OpenAI API";
-    public static final String BROTLI_DECOMPRESSION_ERROR = "Erro ao descompactar resposta Brotli";
+    public static final String UNSUPPORTED_ENCODING_ERROR = "Content-Encoding não suportado na resposta da OpenAI: %s";
     public static final String JSON_PARSING_ERROR = "Erro ao processar resposta JSON da OpenAI";
     public static final String INVALID_BASE64_ERROR = "Imagem base64 inválida ou vazia";
     public static final String EMPTY_RESPONSE_ERROR = "Resposta vazia da OpenAI";
@@ -41,6 +54,13 @@ public final class OpenAIConstants {
             aparência de maneira respeitosa e inclusiva. Evite termos vagos como "bonito" ou 
             "agradável" e priorize uma descrição útil, empática e descritiva.""";
 
-    // Image URL Template
-    public static final String IMAGE_URL_TEMPLATE = "data:image/jpeg;base64,%s";
+    // Álbum: várias imagens em uma única chamada, resposta em JSON com uma descrição por imagem
+    public static final String ALBUM_INSTRUCTION = """
+            Você receberá %d imagens, na ordem em que foram enviadas. Descreva cada imagem \
+            separadamente, seguindo as orientações acima para cada uma. Responda apenas com JSON \
+            no formato {"descricoes": ["descrição da imagem 1", "descrição da imagem 2", ...]}, \
+            com exatamente %d descrições, na mesma ordem das imagens.""";
+
+    // Image URL Template (mime type, base64)
+    public static final String IMAGE_URL_TEMPLATE = "data:%s;base64,%s";
 }
\ No newline at end of file
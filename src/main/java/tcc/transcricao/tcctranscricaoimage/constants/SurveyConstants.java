@@ -5,7 +5,7 @@ public final class SurveyConstants {
     private SurveyConstants() {} // Utility class
 
     // Endpoints
-    public static final String WHATSAPP_SEND_TEXT_URL = "http://whatsapp:3000/sendText?bridgeEndpoint=true&throwExceptionOnFailure=false";
+    public static final String WHATSAPP_SEND_TEXT_URL = "{{whatsapp.api.url}}/sendText?bridgeEndpoint=true&throwExceptionOnFailure=false";
     public static final String SURVEY_RESPONSE_ENDPOINT = "rest:POST:/whatsapp-survey";
 
     // Survey Endpoints
@@ -22,6 +22,10 @@ public final class SurveyConstants {
     public static final int MIN_SCORE = 1;
     public static final int MAX_SCORE = 5;
 
+    // Armazenamento das sessões (survey.session.store)
+    public static final String SESSION_STORE_MEMORY = "memory";
+    public static final String SESSION_STORE_POSTGRES = "postgres";
+
     // Log Messages
     public static final String SURVEY_STARTED_LOG = "Primeira pergunta do questionário enviada.";
     public static final String RESPONSE_PROCESSED_LOG = "Resposta processada e próxima pergunta retornada.";
@@ -32,5 +36,6 @@ public final class SurveyConstants {
 
     // Survey Messages
     public static final String SURVEY_COMPLETION_MESSAGE = "✅ Obrigado por responder ao questionário!";
+    public static final String SURVEY_EXPIRED_MESSAGE = "⌛ O questionário expirou. Envie uma nova imagem para participar novamente.";
     public static final String INVALID_SCORE_MESSAGE = "❌ Valor inválido. Digite apenas números de 1 a 5.";
 }
\ No newline at end of file
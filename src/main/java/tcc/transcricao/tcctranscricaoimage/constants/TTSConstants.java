@@ -5,9 +5,10 @@ public final class TTSConstants {
     private TTSConstants() {} // Utility class
 
     // API Configuration
-    public static final String OPENAI_TTS_API_URL = "https://api.openai.com/v1/audio/speech";
+    public static final String SPEECH_PATH = "/v1/audio/speech";
     public static final String TTS_MODEL = "tts-1";
     public static final String DEFAULT_VOICE = "alloy";
+    public static final String DEFAULT_RESPONSE_FORMAT = "mp3";
 
     // Available Voices
     public static final String VOICE_ALLOY = "alloy";
@@ -5,33 +5,77 @@ public final class WhatsAppConstants {
     private WhatsAppConstants() {} // Utility class
 
     // Endpoints WhatsApp
-    public static final String WHATSAPP_SEND_TEXT_URL = "http://whatsapp:3000/sendText?bridgeEndpoint=true&throwExceptionOnFailure=false";
-    public static final String WHATSAPP_SEND_VOICE_URL = "http://whatsapp:3000/sendVoice?bridgeEndpoint=true&throwExceptionOnFailure=false";
+    public static final String WHATSAPP_SEND_TEXT_URL = "{{whatsapp.api.url}}/sendText?bridgeEndpoint=true&throwExceptionOnFailure=false";
+    public static final String WHATSAPP_SEND_VOICE_URL = "{{whatsapp.api.url}}/sendVoice?bridgeEndpoint=true&throwExceptionOnFailure=false";
+    public static final String WHATSAPP_SEND_BATCH_PATH = "/sendBatch";
 
     // Endpoints Internos
     public static final String WEBHOOK_ENDPOINT = "rest:POST:/whatsapp-webhook";
     public static final String SEND_CONFIRMATION_ENDPOINT = "direct:send-confirmation";
+    public static final String SEND_RATE_LIMIT_NOTICE_ENDPOINT = "direct:send-rate-limit-notice";
     public static final String PROCESS_IMAGE_AUDIO_ENDPOINT = "direct:process-image-and-audio";
     public static final String SEND_VOICE_ENDPOINT = "direct:send-whatsapp-voice";
+    public static final String SEND_ALBUM_VOICES_ENDPOINT = "direct:send-album-voices";
+    public static final String WHATSAPP_OUTBOX_ENDPOINT = "direct:whatsapp-outbox";
     public static final String DB_METRICS_ENDPOINT = "direct:detail-db-metrics";
+    public static final String IMAGE_PIPELINE_ENDPOINT = "direct:image-pipeline";
+    public static final String IMAGE_PIPELINE_QUEUE_ENDPOINT = "seda:image-pipeline"
+            + "?size={{pipeline.async.queue-size}}"
+            + "&concurrentConsumers={{pipeline.async.consumers}}"
+            + "&blockWhenFull=false"
+            + "&waitForTaskToComplete=Never";
+    // Álbuns completos (album.window > 0): mesma capacidade e consumidores; o agregador espera por vaga
+    public static final String ALBUM_PIPELINE_QUEUE_ENDPOINT = "seda:album-pipeline"
+            + "?size={{pipeline.async.queue-size}}"
+            + "&concurrentConsumers={{pipeline.async.consumers}}"
+            + "&blockWhenFull=true"
+            + "&waitForTaskToComplete=Never";
+
+    // Fila durável (pipeline.mode=durable): poller reivindica jobs e os entrega aos workers locais
+    public static final String IMAGE_JOB_POLLER_ENDPOINT = "timer:image-job-poller?delay=%d&period=%d";
+    public static final String IMAGE_JOB_WORKER_ENDPOINT = "seda:image-job-worker?size=%d&concurrentConsumers=%d";
+
+    // Modos de voz do álbum
+    public static final String ALBUM_VOICE_COMBINED = "combined";
+    public static final String ALBUM_VOICE_SEPARATE = "separate";
+    public static final String ALBUM_IMAGE_PREFIX = "Imagem %d: ";
+
+    // Modos do pipeline
+    public static final String PIPELINE_MODE_SYNC = "sync";
+    public static final String PIPELINE_MODE_ASYNC = "async";
+    public static final String PIPELINE_MODE_DURABLE = "durable";
 
 
     // Headers
     public static final String CONTENT_TYPE_HEADER = "Content-Type";
     public static final String APPLICATION_JSON = "application/json";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
 
     // Exchange Properties
     public static final String START_TIME_PROPERTY = "startTime";
     public static final String IMAGE_ID_PROPERTY = "imageId";
     public static final String PHONE_PROPERTY = "phone";
-    public static final String IMAGE_BASE64_PROPERTY = "imageBase64";
+    public static final String IMAGE_BYTES_PROPERTY = "imageBytes";
+    public static final String IMAGE_BYTES_LIST_PROPERTY = "imageBytesList";
+    public static final String AUDIO_PARTS_PROPERTY = "audioParts";
     public static final String DESCRIPTION_PROPERTY = "descricao";
     public static final String AUDIO_BASE64_PROPERTY = "audioBase64";
+    public static final String AUDIO_BYTES_PROPERTY = "audioBytes";
     public static final String DESC_TIME_PROPERTY = "descTime";
     public static final String TTS_TIME_PROPERTY = "ttsTime";
+    public static final String RETRY_AFTER_PROPERTY = "retryAfterSeconds";
+    public static final String MESSAGE_ID_PROPERTY = "messageId";
+    public static final String JOB_ID_PROPERTY = "imageJobId";
+    public static final String JOB_DELIVERED_PROPERTY = "imageJobDelivered";
 
     // Messages
     public static final String CONFIRMATION_MESSAGE = "Imagem recebida com sucesso! Estamos processando sua solicitação.";
+    public static final String ACCEPTED_RESPONSE = "ACCEPTED";
+    public static final String QUEUE_FULL_RESPONSE = "Fila de processamento cheia. Tente novamente em instantes.";
+    public static final String DUPLICATE_RESPONSE = "DUPLICATE";
+    public static final String RATE_LIMITED_RESPONSE = "Limite de imagens excedido para o telefone.";
+    public static final String RATE_LIMIT_MESSAGE = "Você enviou muitas imagens em pouco tempo. "
+            + "Aguarde %d segundos antes de enviar a próxima.";
 
 
     // Log Messages
@@ -40,4 +84,8 @@ public final class WhatsAppConstants {
     public static final String DESCRIPTION_GENERATED_LOG = "Descrição gerada!";
     public static final String AUDIO_GENERATED_LOG = "Áudio gerado e disponibilizado!";
     public static final String CONFIRMATION_RECEIVED_LOG = "Imagem recebida com sucesso!";
+    public static final String JOB_ENQUEUED_LOG = "Imagem enfileirada para processamento assíncrono";
+    public static final String QUEUE_FULL_LOG = "Fila de processamento cheia, webhook rejeitado";
+    public static final String JOB_PERSISTED_LOG = "Imagem gravada na fila durável para processamento";
+    public static final String RATE_LIMIT_NOTICE_LOG = "Aviso de limite de imagens enviado";
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package tcc.transcricao.tcctranscricaoimage.dto;
+
+import java.util.List;
+
+/**
+ * Resposta do {@code /sendBatch}: um resultado por mensagem, na ordem do lote.
+ */
+public record BridgeBatchResult(List<Item> results) {
+
+    public static final String STATUS_OK = "OK";
+
+    public record Item(String status, String error) {
+
+        public boolean ok() {
+            return STATUS_OK.equals(status);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package tcc.transcricao.tcctranscricaoimage.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Item do envio em lote ao bridge ({@code /sendBatch}): texto ou voz. O áudio segue em
+ * bytes e é escrito em Base64 pelo Jackson na serialização do lote.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BridgeMessage(String type, String to, String message, String imageId, String mimetype,
+                            byte[] audioBase64) {
+
+    public static final String TYPE_TEXT = "text";
+    public static final String TYPE_VOICE = "voice";
+
+    public static BridgeMessage text(TextMessage text) {
+        return new BridgeMessage(TYPE_TEXT, text.to(), text.message(), text.imageId(), null, null);
+    }
+
+    public static BridgeMessage voice(String to, byte[] audio, String mimetype) {
+        return new BridgeMessage(TYPE_VOICE, to, null, null, mimetype, audio);
+    }
+}
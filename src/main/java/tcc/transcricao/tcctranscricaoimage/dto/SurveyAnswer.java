@@ -0,0 +1,19 @@
+package tcc.transcricao.tcctranscricaoimage.dto;
+
+/**
+ * Resposta do usuário a uma pergunta do questionário, recebida do bridge em {@code /whatsapp-survey}.
+ */
+public record SurveyAnswer(String from, String imageId, Integer score) {
+
+    public void validate() {
+        if (from == null || from.isBlank()) {
+            throw new IllegalArgumentException("Campo 'from' é obrigatório para respostas");
+        }
+        if (imageId == null || imageId.isBlank()) {
+            throw new IllegalArgumentException("Campo 'imageId' é obrigatório para respostas");
+        }
+        if (score == null) {
+            throw new IllegalArgumentException("Campo 'score' é obrigatório para respostas");
+        }
+    }
+}
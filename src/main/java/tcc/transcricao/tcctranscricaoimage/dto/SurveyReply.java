@@ -0,0 +1,22 @@
+package tcc.transcricao.tcctranscricaoimage.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Retorno do {@code /whatsapp-survey} ao bridge: próxima pergunta, encerramento ou erro.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SurveyReply(String message, Boolean finished, Integer nextQuestion, Boolean error) {
+
+    public static SurveyReply next(String message, int nextQuestion) {
+        return new SurveyReply(message, false, nextQuestion, null);
+    }
+
+    public static SurveyReply finished(String message) {
+        return new SurveyReply(message, true, null, null);
+    }
+
+    public static SurveyReply error(String message) {
+        return new SurveyReply(message, null, null, true);
+    }
+}
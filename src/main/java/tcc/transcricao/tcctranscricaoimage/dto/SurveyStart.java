@@ -0,0 +1,7 @@
+package tcc.transcricao.tcctranscricaoimage.dto;
+
+/**
+ * Início do questionário após o envio do áudio, levado no corpo do exchange até o SurveyProcessor.
+ */
+public record SurveyStart(String phone, String imageId) {
+}
@@ -0,0 +1,24 @@
+package tcc.transcricao.tcctranscricaoimage.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Mensagem de texto enviada ao bridge ({@code /sendText}). O {@code imageId} só acompanha
+ * as perguntas do questionário.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TextMessage(String to, String message, String imageId) {
+
+    public static TextMessage of(String to, String message) {
+        return new TextMessage(to, message, null);
+    }
+
+    public void validate() {
+        if (to == null || to.isBlank()) {
+            throw new IllegalArgumentException("Campo 'to' é obrigatório na mensagem");
+        }
+        if (message == null || message.isBlank()) {
+            throw new IllegalArgumentException("Campo 'message' é obrigatório na mensagem");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package tcc.transcricao.tcctranscricaoimage.dto;
+
+/**
+ * Mensagem de voz enviada ao bridge ({@code /sendVoice}) com o áudio já em Base64 e o
+ * mimetype do formato sintetizado.
+ * No envio em streaming o mesmo corpo é gerado pelo VoicePayloadInputStream.
+ */
+public record VoiceMessage(String to, String mimetype, String audioBase64) {
+}
@@ -0,0 +1,11 @@
+package tcc.transcricao.tcctranscricaoimage.exception;
+
+/**
+ * Chamada recusada sem tentativa: o circuito do endpoint está aberto após falhas seguidas.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String endpoint) {
+        super("Circuito aberto para o endpoint " + endpoint + "; chamada recusada");
+    }
+}
@@ -0,0 +1,17 @@
+package tcc.transcricao.tcctranscricaoimage.exception;
+
+import lombok.Getter;
+
+/**
+ * Entrega repetida de uma mensagem já recebida dentro da janela de deduplicação.
+ */
+@Getter
+public class DuplicateWebhookException extends RuntimeException {
+
+    private final String messageId;
+
+    public DuplicateWebhookException(String messageId) {
+        super("Mensagem " + messageId + " já recebida");
+        this.messageId = messageId;
+    }
+}
@@ -0,0 +1,28 @@
+package tcc.transcricao.tcctranscricaoimage.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Telefone acima do limite de imagens. {@code notifyUser} indica se este é o primeiro
+ * bloqueio da janela, para que o aviso ao usuário seja enviado uma única vez.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String phone;
+    private final Duration retryAfter;
+    private final boolean notifyUser;
+
+    public RateLimitExceededException(String phone, Duration retryAfter, boolean notifyUser) {
+        super("Limite de imagens excedido para o telefone " + phone);
+        this.phone = phone;
+        this.retryAfter = retryAfter;
+        this.notifyUser = notifyUser;
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
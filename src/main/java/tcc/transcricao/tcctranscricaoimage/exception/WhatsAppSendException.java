@@ -0,0 +1,11 @@
+package tcc.transcricao.tcctranscricaoimage.exception;
+
+public class WhatsAppSendException extends RuntimeException {
+    public WhatsAppSendException(String message) {
+        super(message);
+    }
+
+    public WhatsAppSendException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
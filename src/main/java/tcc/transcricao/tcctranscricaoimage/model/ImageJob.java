@@ -0,0 +1,68 @@
+package tcc.transcricao.tcctranscricaoimage.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Job durável do pipeline de imagem (pipeline.mode=durable). Qualquer instância da aplicação
+ * reivindica jobs visíveis com FOR UPDATE SKIP LOCKED; um job em execução cuja visibilidade
+ * expirou (instância caiu) volta a ser reivindicado.
+ * O acesso é feito por SQL no ImageJobQueue; a entidade apenas define a tabela.
+ */
+@Data
+@Entity
+@Table(name = "image_job", schema = "public",
+        indexes = @Index(name = "idx_image_job_claim", columnList = "status, visible_at"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_image_job_message_id", columnNames = "message_id"))
+public class ImageJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "image_id", length = 36, nullable = false)
+    private String imageId;
+
+    @Column(name = "message_id")
+    private String messageId;
+
+    @Column(name = "phone", nullable = false)
+    private String phone;
+
+    // Imagens do job com prefixo de tamanho (uma ou mais, no caso de álbum); removidas ao concluir
+    @Column(name = "images")
+    private byte[] images;
+
+    @Column(name = "status", length = 16, nullable = false)
+    private String status; // PENDING, RUNNING, DONE, FAILED
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "locked_by", length = 128)
+    private String lockedBy;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Recebimento do webhook (epoch ms), para o tempo total incluir a espera na fila
+    @Column(name = "start_time", nullable = false)
+    private long startTime;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "visible_at", nullable = false)
+    private LocalDateTime visibleAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 
@@ -12,7 +13,8 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "performance_metric", schema = "public")
+@Table(name = "performance_metric", schema = "public",
+        indexes = @Index(name = "idx_performance_metric_data", columnList = "data"))
 public class PerformanceMetric {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
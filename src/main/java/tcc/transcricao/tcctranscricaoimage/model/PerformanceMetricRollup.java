@@ -0,0 +1,52 @@
+package tcc.transcricao.tcctranscricaoimage.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Agregado de latência por intervalo de tempo: histograma esparso em faixas logarítmicas.
+ * Cada linha guarda quantas medições de um tempo caíram em uma faixa dentro do intervalo.
+ */
+@Data
+@Entity
+@IdClass(PerformanceMetricRollup.Key.class)
+@Table(name = "performance_metric_rollup", schema = "public")
+public class PerformanceMetricRollup {
+    @Id
+    @Column(name = "granularity", length = 8)
+    private String granularity; // minute, hour, day
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(name = "metric", length = 32)
+    private String metric; // tempoDescricao, tempoTts, tempoEnvio, tempoTotal
+
+    @Id
+    @Column(name = "bin")
+    private int bin;
+
+    @Column(name = "count")
+    private long count;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String granularity;
+        private LocalDateTime bucketStart;
+        private String metric;
+        private int bin;
+    }
+}
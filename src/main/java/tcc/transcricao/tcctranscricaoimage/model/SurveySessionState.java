@@ -0,0 +1,46 @@
+package tcc.transcricao.tcctranscricaoimage.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Questionário em andamento compartilhado entre instâncias (survey.session.store=postgres): a resposta
+ * pode chegar a uma instância diferente da que iniciou o questionário.
+ * O acesso é feito por SQL no SharedSurveySessions; a entidade apenas define a tabela.
+ */
+@Data
+@Entity
+@Table(name = "survey_session", schema = "public",
+        indexes = @Index(name = "idx_survey_session_last_activity", columnList = "last_activity"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_survey_session_phone_image",
+                columnNames = {"phone", "image_id"}))
+public class SurveySessionState {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "phone", nullable = false)
+    private String phone;
+
+    @Column(name = "image_id", length = 36, nullable = false)
+    private String imageId;
+
+    // Pontuações na ordem das perguntas (posição 1 = pergunta 1)
+    @Column(name = "scores", columnDefinition = "integer[]", nullable = false)
+    private Integer[] scores;
+
+    @Column(name = "answered_at", columnDefinition = "timestamp[]", nullable = false)
+    private LocalDateTime[] answeredAt;
+
+    @Column(name = "last_activity", nullable = false)
+    private LocalDateTime lastActivity;
+}
@@ -6,6 +6,7 @@ import org.apache.camel.Processor;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.processor.system.ExceptionToHttpResponseProcessor;
 import tcc.transcricao.tcctranscricaoimage.processor.system.ImageAudioProcessor;
+import tcc.transcricao.tcctranscricaoimage.processor.system.LatencyReportProcessor;
 import tcc.transcricao.tcctranscricaoimage.processor.system.PerformanceMetricsProcessor;
 
 /**
@@ -20,6 +21,7 @@ public class SystemProcessorChain {
     private final PerformanceMetricsProcessor performanceMetricsProcessor;
     private final ExceptionToHttpResponseProcessor exceptionToHttpResponseProcessor;
     private final ImageAudioProcessor imageAudioProcessor;
+    private final LatencyReportProcessor latencyReportProcessor;
 
     /**
      * Processor de métricas de performance
@@ -48,6 +50,15 @@ public class SystemProcessorChain {
         return imageAudioProcessor;
     }
 
+    /**
+     * Processor do relatório de percentis de latência
+     * @return LatencyReportProcessor configurado
+     */
+    public Processor getLatencyReportProcessor() {
+        log.debug("Acessando Latency Report Processor");
+        return latencyReportProcessor;
+    }
+
     /**
      * Valida se todos os processors estão disponíveis
      * @return true se todos os processors estão configurados
@@ -55,7 +66,8 @@ public class SystemProcessorChain {
     public boolean isChainReady() {
         boolean ready = performanceMetricsProcessor != null &&
                 exceptionToHttpResponseProcessor != null &&
-                imageAudioProcessor != null;
+                imageAudioProcessor != null &&
+                latencyReportProcessor != null;
 
         log.debug("System Processor Chain ready: {}", ready);
         return ready;
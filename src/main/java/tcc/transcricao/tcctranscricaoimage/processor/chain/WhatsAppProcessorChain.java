@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Processor;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.processor.whatsapp.ConfirmationProcessor;
+import tcc.transcricao.tcctranscricaoimage.processor.whatsapp.RateLimitNoticeProcessor;
 import tcc.transcricao.tcctranscricaoimage.processor.whatsapp.VoiceMessageProcessor;
 import tcc.transcricao.tcctranscricaoimage.processor.whatsapp.WhatsAppWebhookProcessor;
 
@@ -20,6 +21,7 @@ public class WhatsAppProcessorChain {
     private final WhatsAppWebhookProcessor webhookProcessor;
     private final ConfirmationProcessor confirmationProcessor;
     private final VoiceMessageProcessor voiceMessageProcessor;
+    private final RateLimitNoticeProcessor rateLimitNoticeProcessor;
 
     /**
      * Processor para webhook do WhatsApp
@@ -48,6 +50,15 @@ public class WhatsAppProcessorChain {
         return voiceMessageProcessor;
     }
 
+    /**
+     * Processor para aviso de limite de imagens excedido
+     * @return RateLimitNoticeProcessor configurado
+     */
+    public Processor getRateLimitNoticeProcessor() {
+        log.debug("Acessando WhatsApp Rate Limit Notice Processor");
+        return rateLimitNoticeProcessor;
+    }
+
     /**
      * Valida se todos os processors estão disponíveis
      * @return true se todos os processors estão configurados
@@ -55,7 +66,8 @@ public class WhatsAppProcessorChain {
     public boolean isChainReady() {
         boolean ready = webhookProcessor != null &&
                 confirmationProcessor != null &&
-                voiceMessageProcessor != null;
+                voiceMessageProcessor != null &&
+                rateLimitNoticeProcessor != null;
 
         log.debug("WhatsApp Processor Chain ready: {}", ready);
         return ready;
@@ -3,9 +3,9 @@ package tcc.transcricao.tcctranscricaoimage.processor.survey;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import org.json.JSONObject;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.dto.SurveyStart;
 
 @Component
 @Slf4j
@@ -25,11 +25,7 @@ public class SurveyPreparationProcessor implements Processor {
                 throw new IllegalStateException("ID da imagem não encontrado para iniciar questionário");
             }
 
-            JSONObject json = new JSONObject();
-            json.put("phone", phone);
-            json.put("imageId", imageId);
-
-            exchange.getIn().setBody(json.toString());
+            exchange.getIn().setBody(new SurveyStart(phone, imageId));
 
             log.info("Questionário preparado para telefone: {} com imageId: {}", phone, imageId);
 
@@ -38,4 +34,4 @@ public class SurveyPreparationProcessor implements Processor {
             throw e;
         }
     }
-}
\ No newline at end of file
+}
@@ -4,10 +4,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import org.json.JSONObject;
 import org.springframework.stereotype.Component;
-import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
+import tcc.transcricao.tcctranscricaoimage.dto.SurveyStart;
+import tcc.transcricao.tcctranscricaoimage.dto.TextMessage;
 import tcc.transcricao.tcctranscricaoimage.service.SurveyMessageBuilder;
+import tcc.transcricao.tcctranscricaoimage.service.survey.SurveySessionStore;
 
 @Component
 @RequiredArgsConstructor
@@ -15,29 +16,28 @@ import tcc.transcricao.tcctranscricaoimage.service.SurveyMessageBuilder;
 public class SurveyProcessor implements Processor {
 
     private final SurveyMessageBuilder messageBuilder;
+    private final SurveySessionStore sessionStore;
 
     @Override
     public void process(Exchange exchange) throws Exception {
         try {
-            String body = exchange.getIn().getBody(String.class);
-            JSONObject json = new JSONObject(body);
+            SurveyStart start = exchange.getIn().getMandatoryBody(SurveyStart.class);
 
-            String userPhone = json.getString("phone");
-            String imageId = json.getString("imageId");
+            String userPhone = start.phone();
+            String imageId = start.imageId();
 
             log.info("Iniciando questionário para usuário: {} com imagem: {}", userPhone, imageId);
 
-            String firstQuestion = messageBuilder.buildQuestionMessage(1);
+            // Sessão no servidor controla a pergunta atual e acumula as respostas
+            sessionStore.start(userPhone, imageId);
 
-            JSONObject payload = new JSONObject();
-            payload.put("to", userPhone);
-            payload.put("message", firstQuestion);
-            payload.put("imageId", imageId);
+            String firstQuestion = messageBuilder.buildQuestionMessage(1);
 
-            exchange.getIn().setHeader(SurveyConstants.CONTENT_TYPE_HEADER, SurveyConstants.APPLICATION_JSON);
-            exchange.getIn().setBody(payload.toString());
+            // Serializada no envio, pelo SurveyMessageProcessor
+            TextMessage question = new TextMessage(userPhone, firstQuestion, imageId);
+            exchange.getIn().setBody(question);
 
-            log.debug("Payload do questionário preparado para envio: {}", payload);
+            log.debug("Primeira pergunta do questionário preparada para envio: {}", question);
 
         } catch (Exception e) {
             log.error("Erro ao processar início do questionário", e);
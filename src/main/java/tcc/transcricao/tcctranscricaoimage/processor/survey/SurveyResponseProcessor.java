@@ -1,36 +1,42 @@
 package tcc.transcricao.tcctranscricaoimage.processor.survey;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import org.json.JSONObject;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
-import tcc.transcricao.tcctranscricaoimage.service.SatisfactionSurveyService;
+import tcc.transcricao.tcctranscricaoimage.dto.SurveyAnswer;
+import tcc.transcricao.tcctranscricaoimage.dto.SurveyReply;
 import tcc.transcricao.tcctranscricaoimage.service.SurveyMessageBuilder;
+import tcc.transcricao.tcctranscricaoimage.service.survey.SurveyProgress;
+import tcc.transcricao.tcctranscricaoimage.service.survey.SurveySessionStore;
+
+import java.io.InputStream;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class SurveyResponseProcessor implements Processor {
 
-    private final SatisfactionSurveyService surveyService;
+    private final SurveySessionStore sessionStore;
     private final SurveyMessageBuilder messageBuilder;
+    private final ObjectReader surveyAnswerReader;
+    private final ObjectWriter messageWriter;
 
     @Override
     public void process(Exchange exchange) throws Exception {
         try {
-            String body = exchange.getIn().getBody(String.class);
-            JSONObject json = new JSONObject(body);
+            SurveyAnswer answer = surveyAnswerReader.readValue(exchange.getIn().getMandatoryBody(InputStream.class));
+            answer.validate();
 
-            String userPhone = json.getString("from");
-            String imageId = json.getString("imageId");
-            int questionNumber = json.getInt("questionNumber");
-            int score = json.getInt("score");
-
-            log.info("Processando resposta - Usuário: {}, Pergunta: {}, Pontuação: {}",
-                    userPhone, questionNumber, score);
+            String userPhone = answer.from();
+            String imageId = answer.imageId();
+            int score = answer.score();
 
             // Validação da pontuação
             if (!isValidScore(score)) {
@@ -39,30 +45,34 @@ public class SurveyResponseProcessor implements Processor {
                 return;
             }
 
-            // Salva a resposta
-            surveyService.saveAnswer(userPhone, imageId, questionNumber, score);
+            // A pergunta atual vem da sessão no servidor; o número enviado pelo cliente é ignorado.
+            // A última resposta grava todas as respostas de uma vez
+            Optional<SurveyProgress> progress = sessionStore.answer(userPhone, imageId, score);
+            if (progress.isEmpty()) {
+                log.warn("Sessão de questionário não encontrada - Usuário: {}, Imagem: {}", userPhone, imageId);
+                writeReply(exchange, SurveyReply.finished(SurveyConstants.SURVEY_EXPIRED_MESSAGE));
+                return;
+            }
+
+            int questionNumber = progress.get().questionNumber();
+            log.info("Processando resposta - Usuário: {}, Pergunta: {}, Pontuação: {}",
+                    userPhone, questionNumber, score);
 
             // Determina próxima ação
-            JSONObject response = new JSONObject();
-            if (questionNumber < SurveyConstants.TOTAL_QUESTIONS) {
+            SurveyReply reply;
+            if (!progress.get().complete()) {
                 // Próxima pergunta
                 String nextQuestion = messageBuilder.buildQuestionMessage(questionNumber + 1);
-                response.put("message", nextQuestion);
-                response.put("finished", false);
-                response.put("nextQuestion", questionNumber + 1);
+                reply = SurveyReply.next(nextQuestion, questionNumber + 1);
 
                 log.debug("Enviando pergunta {} para usuário {}", questionNumber + 1, userPhone);
             } else {
-                // Questionário finalizado
-                String completionMessage = messageBuilder.buildCompletionMessage();
-                response.put("message", completionMessage);
-                response.put("finished", true);
+                reply = SurveyReply.finished(messageBuilder.buildCompletionMessage());
 
                 log.info("Questionário finalizado para usuário: {}", userPhone);
             }
 
-            exchange.getIn().setHeader(SurveyConstants.CONTENT_TYPE_HEADER, SurveyConstants.APPLICATION_JSON);
-            exchange.getIn().setBody(response.toString());
+            writeReply(exchange, reply);
 
         } catch (Exception e) {
             log.error("Erro ao processar resposta do questionário", e);
@@ -75,12 +85,12 @@ public class SurveyResponseProcessor implements Processor {
         return score >= SurveyConstants.MIN_SCORE && score <= SurveyConstants.MAX_SCORE;
     }
 
-    private void buildErrorResponse(Exchange exchange, String errorMessage) {
-        JSONObject errorResponse = new JSONObject();
-        errorResponse.put("message", errorMessage);
-        errorResponse.put("error", true);
+    private void buildErrorResponse(Exchange exchange, String errorMessage) throws JsonProcessingException {
+        writeReply(exchange, SurveyReply.error(errorMessage));
+    }
 
+    private void writeReply(Exchange exchange, SurveyReply reply) throws JsonProcessingException {
         exchange.getIn().setHeader(SurveyConstants.CONTENT_TYPE_HEADER, SurveyConstants.APPLICATION_JSON);
-        exchange.getIn().setBody(errorResponse.toString());
+        exchange.getIn().setBody(messageWriter.writeValueAsBytes(reply));
     }
-}
\ No newline at end of file
+}
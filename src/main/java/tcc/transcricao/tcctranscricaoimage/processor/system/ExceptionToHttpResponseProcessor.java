@@ -1,17 +1,30 @@
 package tcc.transcricao.tcctranscricaoimage.processor.system;
 
+import lombok.RequiredArgsConstructor;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
 import tcc.transcricao.tcctranscricaoimage.exception.DescricaoImagemException;
+import tcc.transcricao.tcctranscricaoimage.exception.RateLimitExceededException;
 import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
 
 @Component
+@RequiredArgsConstructor
 public class ExceptionToHttpResponseProcessor implements Processor {
+
+    private final PipelineMetrics pipelineMetrics;
+
     @Override
     public void process(Exchange exchange) {
         Exception exception = exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Exception.class);
-        if (exception instanceof DescricaoImagemException) {
+        pipelineMetrics.recordError(exception);
+        if (exception instanceof RateLimitExceededException rateLimitException) {
+            exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 429);
+            exchange.getIn().setHeader(WhatsAppConstants.RETRY_AFTER_HEADER, rateLimitException.getRetryAfterSeconds());
+            exchange.getIn().setBody(WhatsAppConstants.RATE_LIMITED_RESPONSE);
+        } else if (exception instanceof DescricaoImagemException) {
             exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 400);
             exchange.getIn().setBody("Erro ao descrever imagem: " + exception.getMessage());
         } else if (exception instanceof TtsException) {
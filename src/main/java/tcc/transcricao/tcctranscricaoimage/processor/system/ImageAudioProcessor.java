@@ -4,10 +4,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.TTSConstants;
 import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.service.DescriptionSpeechPipeline;
 import tcc.transcricao.tcctranscricaoimage.service.ImageDescriptionService;
 import tcc.transcricao.tcctranscricaoimage.service.TtsService;
+import tcc.transcricao.tcctranscricaoimage.service.tts.SegmentSynthesis;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -16,10 +24,34 @@ public class ImageAudioProcessor implements Processor {
 
     private final ImageDescriptionService imageDescriptionService;
     private final TtsService ttsService;
+    private final DescriptionSpeechPipeline descriptionSpeechPipeline;
+
+    // Envio de voz em streaming: o áudio segue em bytes e o Base64 é gerado durante o envio
+    @Value("${whatsapp.voice.streaming:false}")
+    private boolean voiceStreaming;
+
+    // Descrição em streaming com síntese por frases em paralelo à geração do texto
+    @Value("${openai.streaming.enabled:false}")
+    private boolean descriptionStreaming;
+
+    // Álbum: um único áudio com todas as descrições (combined) ou um áudio por imagem (separate)
+    @Value("${album.voice:" + WhatsAppConstants.ALBUM_VOICE_COMBINED + "}")
+    private String albumVoice;
 
     @Override
     public void process(Exchange exchange) throws Exception {
         try {
+            List<?> albumImages = exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_LIST_PROPERTY, List.class);
+            if (albumImages != null && albumImages.size() > 1) {
+                processAlbum(exchange, albumImages);
+                return;
+            }
+
+            if (descriptionStreaming) {
+                processPipelined(exchange);
+                return;
+            }
+
             // Etapa 1: Gerar descrição da imagem
             processImageDescription(exchange);
 
@@ -32,15 +64,108 @@ public class ImageAudioProcessor implements Processor {
         }
     }
 
-    private void processImageDescription(Exchange exchange) {
-        String imageBase64 = (String) exchange.getProperty(WhatsAppConstants.IMAGE_BASE64_PROPERTY);
+    private void processPipelined(Exchange exchange) {
+        byte[] imageBytes = imageBytes(exchange);
+
+        log.debug("Iniciando descrição e síntese encadeadas");
+        DescriptionSpeechPipeline.Result result = descriptionSpeechPipeline.describeAndSynthesize(imageBytes);
+
+        exchange.setProperty(WhatsAppConstants.DESCRIPTION_PROPERTY, result.description());
+        exchange.setProperty(WhatsAppConstants.DESC_TIME_PROPERTY, result.descriptionTime());
+        if (voiceStreaming) {
+            exchange.setProperty(WhatsAppConstants.AUDIO_BYTES_PROPERTY, result.audioBytes());
+        } else {
+            exchange.setProperty(WhatsAppConstants.AUDIO_BASE64_PROPERTY,
+                    Base64.getEncoder().encodeToString(result.audioBytes()));
+        }
+        exchange.setProperty(WhatsAppConstants.TTS_TIME_PROPERTY, result.audioTime());
+
+        log.info("Descrição ({} caracteres) e áudio ({} bytes) gerados em pipeline",
+                result.description().length(), result.audioBytes().length);
+    }
+
+    /**
+     * Álbum: todas as imagens são descritas em uma única chamada à API de visão
+     * (sem streaming, já que a resposta traz uma descrição por imagem).
+     */
+    private void processAlbum(Exchange exchange, List<?> albumImages) {
+        List<byte[]> images = albumImages.stream().map(byte[].class::cast).toList();
+
+        log.debug("Iniciando descrição do álbum com {} imagens", images.size());
+        List<String> descricoes = imageDescriptionService.getDescriptions(images);
+
+        List<String> numberedDescriptions = new ArrayList<>(descricoes.size());
+        for (int i = 0; i < descricoes.size(); i++) {
+            numberedDescriptions.add(WhatsAppConstants.ALBUM_IMAGE_PREFIX.formatted(i + 1) + descricoes.get(i));
+        }
+        String combinedDescription = String.join("\n\n", numberedDescriptions);
+        exchange.setProperty(WhatsAppConstants.DESCRIPTION_PROPERTY, combinedDescription);
+        exchange.setProperty(WhatsAppConstants.DESC_TIME_PROPERTY, System.currentTimeMillis());
+
+        if (!WhatsAppConstants.ALBUM_VOICE_SEPARATE.equalsIgnoreCase(albumVoice)) {
+            if (combinedDescription.length() <= TTSConstants.MAX_TEXT_LENGTH) {
+                processAudioSynthesis(exchange);
+                return;
+            }
+            // Acima do limite da API TTS: uma síntese por descrição (cada uma cabe no limite)
+            if (ttsService.audioFormat().isConcatenable()) {
+                processCombinedBySegments(exchange, combinedDescription, numberedDescriptions);
+                return;
+            }
+            log.warn("Descrição do álbum com {} caracteres excede o limite TTS e o formato {} não pode ser juntado; "
+                    + "enviando um áudio por imagem", combinedDescription.length(), ttsService.audioFormat().apiName());
+        }
+
+        // Um áudio por imagem, sintetizados em paralelo e enviados em sequência pela rota
+        SegmentSynthesis synthesis = ttsService.openSegmentSynthesis();
+        numberedDescriptions.forEach(synthesis::submit);
+        List<byte[]> audioParts = synthesis.awaitAll();
+        exchange.setProperty(WhatsAppConstants.AUDIO_PARTS_PROPERTY, audioParts);
+        exchange.setProperty(WhatsAppConstants.TTS_TIME_PROPERTY, System.currentTimeMillis());
+
+        log.info("Álbum descrito com {} áudios separados", audioParts.size());
+    }
+
+    /**
+     * Álbum em áudio único cujo texto excede o limite da API TTS: cada descrição numerada é
+     * sintetizada em paralelo e os trechos são juntados em um só áudio, na ordem das imagens.
+     */
+    private void processCombinedBySegments(Exchange exchange, String combinedDescription,
+                                           List<String> numberedDescriptions) {
+        SegmentSynthesis synthesis = ttsService.openSegmentSynthesis();
+        numberedDescriptions.forEach(synthesis::submit);
+        byte[] audioBytes = synthesis.awaitConcatenated();
+        ttsService.cacheSynthesizedAudio(combinedDescription, audioBytes);
+
+        if (voiceStreaming) {
+            exchange.setProperty(WhatsAppConstants.AUDIO_BYTES_PROPERTY, audioBytes);
+        } else {
+            exchange.setProperty(WhatsAppConstants.AUDIO_BASE64_PROPERTY, Base64.getEncoder().encodeToString(audioBytes));
+        }
+        exchange.setProperty(WhatsAppConstants.TTS_TIME_PROPERTY, System.currentTimeMillis());
+
+        log.info("Álbum descrito em áudio único de {} bytes, sintetizado em {} trechos",
+                audioBytes.length, numberedDescriptions.size());
+    }
+
+    /**
+     * Imagem como recebida: o cache de descrições usa os bytes originais e o
+     * pré-processamento só roda quando a API de visão precisa ser chamada.
+     */
+    private byte[] imageBytes(Exchange exchange) {
+        byte[] imageBytes = exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, byte[].class);
 
-        if (imageBase64 == null || imageBase64.trim().isEmpty()) {
-            throw new IllegalStateException("Imagem base64 não encontrada para processamento");
+        if (imageBytes == null || imageBytes.length == 0) {
+            throw new IllegalStateException("Imagem não encontrada para processamento");
         }
+        return imageBytes;
+    }
+
+    private void processImageDescription(Exchange exchange) {
+        byte[] imageBytes = imageBytes(exchange);
 
         log.debug("Iniciando descrição da imagem");
-        String descricao = imageDescriptionService.getDescription(imageBase64);
+        String descricao = imageDescriptionService.getDescription(imageBytes);
 
         exchange.setProperty(WhatsAppConstants.DESCRIPTION_PROPERTY, descricao);
         exchange.setProperty(WhatsAppConstants.DESC_TIME_PROPERTY, System.currentTimeMillis());
@@ -56,6 +181,16 @@ public class ImageAudioProcessor implements Processor {
         }
 
         log.debug("Iniciando síntese de áudio");
+        if (voiceStreaming) {
+            byte[] audioBytes = ttsService.synthesize(descricao);
+
+            exchange.setProperty(WhatsAppConstants.AUDIO_BYTES_PROPERTY, audioBytes);
+            exchange.setProperty(WhatsAppConstants.TTS_TIME_PROPERTY, System.currentTimeMillis());
+
+            log.info("Áudio sintetizado com sucesso: {} bytes", audioBytes.length);
+            return;
+        }
+
         String audioBase64 = ttsService.synthesizeAsBase64(descricao);
 
         exchange.setProperty(WhatsAppConstants.AUDIO_BASE64_PROPERTY, audioBase64);
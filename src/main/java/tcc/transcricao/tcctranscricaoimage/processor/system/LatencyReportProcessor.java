@@ -0,0 +1,75 @@
+package tcc.transcricao.tcctranscricaoimage.processor.system;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.MetricsConstants;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.LatencyReportService;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.RollupGranularity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LatencyReportProcessor implements Processor {
+
+    private final LatencyReportService reportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        RollupGranularity granularity = RollupGranularity.fromCode(exchange.getIn().getHeader(
+                MetricsConstants.GRANULARITY_PARAM, MetricsConstants.DEFAULT_GRANULARITY, String.class));
+
+        LocalDateTime to = parseDateTime(exchange, MetricsConstants.TO_PARAM, LocalDateTime.now());
+        LocalDateTime from = parseDateTime(exchange, MetricsConstants.FROM_PARAM,
+                to.minusHours(MetricsConstants.DEFAULT_RANGE_HOURS));
+
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Parâmetro 'from' deve ser anterior a 'to'");
+        }
+        if (granularity == RollupGranularity.MINUTE
+                && Duration.between(from, to).toMinutes() > MetricsConstants.MAX_MINUTE_BUCKETS) {
+            throw new IllegalArgumentException("Intervalo máximo por minuto é de "
+                    + MetricsConstants.MAX_MINUTE_BUCKETS + " minutos");
+        }
+
+        List<LatencyReportService.Bucket> buckets = reportService.percentiles(granularity, from, to);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("granularity", granularity.code());
+        response.put("from", from);
+        response.put("to", to);
+        response.put("buckets", buckets);
+
+        exchange.getIn().setHeader(MetricsConstants.CONTENT_TYPE_HEADER, MetricsConstants.APPLICATION_JSON);
+        exchange.getIn().setBody(objectMapper.writeValueAsString(response));
+
+        log.debug("Relatório de latência - Granularidade: {}, {} intervalos", granularity.code(), buckets.size());
+    }
+
+    private LocalDateTime parseDateTime(Exchange exchange, String param, LocalDateTime defaultValue) {
+        String value = exchange.getIn().getHeader(param, String.class);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Parâmetro '" + param + "' inválido (use yyyy-MM-ddTHH:mm:ss)");
+        }
+    }
+}
@@ -7,7 +7,7 @@ import org.apache.camel.Processor;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
 import tcc.transcricao.tcctranscricaoimage.model.PerformanceMetric;
-import tcc.transcricao.tcctranscricaoimage.repository.PerformanceMetricRepository;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PerformanceMetricWriter;
 
 import java.time.LocalDateTime;
 
@@ -16,7 +16,7 @@ import java.time.LocalDateTime;
 @Slf4j
 public class PerformanceMetricsProcessor implements Processor {
 
-    private final PerformanceMetricRepository metricRepository;
+    private final PerformanceMetricWriter metricWriter;
 
     @Override
     public void process(Exchange exchange) throws Exception {
@@ -34,7 +34,7 @@ public class PerformanceMetricsProcessor implements Processor {
             long tempoEnvio = send - tts;
             long tempoTotal = send - start;
 
-            // Cria e salva a métrica
+            // Cria a métrica e enfileira para gravação em lote, fora do tempo da requisição
             PerformanceMetric metric = new PerformanceMetric();
             metric.setTempoDescricao(tempoDescricao);
             metric.setTempoTts(tempoTts);
@@ -43,9 +43,9 @@ public class PerformanceMetricsProcessor implements Processor {
             metric.setPhone(phone);
             metric.setData(LocalDateTime.now());
 
-            metricRepository.save(metric);
+            metricWriter.submit(metric);
 
-            log.info("Métricas salvas - Total: {}ms, Descrição: {}ms, TTS: {}ms, Envio: {}ms", tempoTotal, tempoDescricao, tempoTts, tempoEnvio);
+            log.info("Métricas registradas - Total: {}ms, Descrição: {}ms, TTS: {}ms, Envio: {}ms", tempoTotal, tempoDescricao, tempoTts, tempoEnvio);
 
         } catch (Exception e) {
             log.error("Erro ao processar métricas de performance", e);
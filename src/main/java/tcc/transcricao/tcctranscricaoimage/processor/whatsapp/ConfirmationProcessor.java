@@ -1,16 +1,21 @@
 package tcc.transcricao.tcctranscricaoimage.processor.whatsapp;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import org.json.JSONObject;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.dto.TextMessage;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WhatsAppOutbox;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class ConfirmationProcessor implements Processor {
 
+    private final WhatsAppOutbox outbox;
+
     @Override
     public void process(Exchange exchange) throws Exception {
         try {
@@ -20,12 +25,9 @@ public class ConfirmationProcessor implements Processor {
                 throw new IllegalStateException("Número de telefone não encontrado para envio de confirmação");
             }
 
-            JSONObject payload = new JSONObject();
-            payload.put("to", chatId);
-            payload.put("message", WhatsAppConstants.CONFIRMATION_MESSAGE);
+            TextMessage payload = TextMessage.of(chatId, WhatsAppConstants.CONFIRMATION_MESSAGE);
 
-            exchange.getIn().setHeader(WhatsAppConstants.CONTENT_TYPE_HEADER, WhatsAppConstants.APPLICATION_JSON);
-            exchange.getIn().setBody(payload.toString());
+            outbox.setTextBody(exchange, payload);
 
             log.info("Confirmação preparada para envio ao telefone: {}", chatId);
 
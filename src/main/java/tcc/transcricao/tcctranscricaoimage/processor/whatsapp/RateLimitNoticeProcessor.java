@@ -0,0 +1,41 @@
+package tcc.transcricao.tcctranscricaoimage.processor.whatsapp;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.dto.TextMessage;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WhatsAppOutbox;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitNoticeProcessor implements Processor {
+
+    private final WhatsAppOutbox outbox;
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        try {
+            String chatId = (String) exchange.getProperty(WhatsAppConstants.PHONE_PROPERTY);
+            Long retryAfterSeconds = exchange.getProperty(WhatsAppConstants.RETRY_AFTER_PROPERTY, Long.class);
+
+            if (chatId == null || chatId.trim().isEmpty()) {
+                throw new IllegalStateException("Número de telefone não encontrado para aviso de limite");
+            }
+
+            TextMessage payload = TextMessage.of(chatId, WhatsAppConstants.RATE_LIMIT_MESSAGE.formatted(
+                    retryAfterSeconds != null ? retryAfterSeconds : 60));
+
+            outbox.setTextBody(exchange, payload);
+
+            log.info("Aviso de limite preparado para envio ao telefone: {}", chatId);
+
+        } catch (Exception e) {
+            log.error("Erro ao preparar aviso de limite", e);
+            throw e;
+        }
+    }
+}
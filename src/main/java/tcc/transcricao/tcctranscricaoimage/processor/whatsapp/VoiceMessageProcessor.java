@@ -1,36 +1,61 @@
 package tcc.transcricao.tcctranscricaoimage.processor.whatsapp;
 
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import org.json.JSONObject;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.dto.BridgeMessage;
+import tcc.transcricao.tcctranscricaoimage.dto.VoiceMessage;
+import tcc.transcricao.tcctranscricaoimage.service.TtsService;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.VoicePayloadInputStream;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WhatsAppOutbox;
+
+import java.util.Base64;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class VoiceMessageProcessor implements Processor {
 
+    private final PipelineMetrics pipelineMetrics;
+    private final ObjectWriter messageWriter;
+    private final WhatsAppOutbox outbox;
+    private final TtsService ttsService;
+
     @Override
     public void process(Exchange exchange) throws Exception {
         try {
             String to = (String) exchange.getProperty(WhatsAppConstants.PHONE_PROPERTY);
-            String audioBase64 = (String) exchange.getProperty(WhatsAppConstants.AUDIO_BASE64_PROPERTY);
 
             // Validações
             if (to == null || to.trim().isEmpty()) {
                 throw new IllegalStateException("Número de telefone não encontrado para envio de voz");
             }
+
+            byte[] audioBytes = exchange.getProperty(WhatsAppConstants.AUDIO_BYTES_PROPERTY, byte[].class);
+            if (outbox.isEnabled()) {
+                prepareBatchMessage(exchange, to, audioBytes);
+                return;
+            }
+            if (audioBytes != null) {
+                prepareStreamingPayload(exchange, to, audioBytes);
+                return;
+            }
+
+            String audioBase64 = (String) exchange.getProperty(WhatsAppConstants.AUDIO_BASE64_PROPERTY);
             if (audioBase64 == null || audioBase64.trim().isEmpty()) {
                 throw new IllegalStateException("Áudio base64 não encontrado para envio");
             }
 
-            JSONObject payload = new JSONObject();
-            payload.put("to", to);
-            payload.put("audioBase64", audioBase64);
+            // Tamanho do áudio decodificado, estimado pelo comprimento do Base64
+            pipelineMetrics.recordPayloadSize(PipelineMetrics.PAYLOAD_AUDIO, audioBase64.length() / 4L * 3);
 
             exchange.getIn().setHeader(WhatsAppConstants.CONTENT_TYPE_HEADER, WhatsAppConstants.APPLICATION_JSON);
-            exchange.getIn().setBody(payload.toString());
+            exchange.getIn().setBody(messageWriter.writeValueAsBytes(new VoiceMessage(to, mimetype(), audioBase64)));
 
             log.info("Mensagem de voz preparada para envio ao telefone: {}", to);
 
@@ -39,4 +64,49 @@ public class VoiceMessageProcessor implements Processor {
             throw e;
         }
     }
+
+    /**
+     * Envio em lote: o áudio segue em bytes e o Base64 é escrito na serialização do lote.
+     */
+    private void prepareBatchMessage(Exchange exchange, String to, byte[] audioBytes) {
+        if (audioBytes == null) {
+            String audioBase64 = (String) exchange.getProperty(WhatsAppConstants.AUDIO_BASE64_PROPERTY);
+            audioBytes = audioBase64 != null ? Base64.getDecoder().decode(audioBase64) : new byte[0];
+        }
+        if (audioBytes.length == 0) {
+            throw new IllegalStateException("Áudio não encontrado para envio");
+        }
+
+        pipelineMetrics.recordPayloadSize(PipelineMetrics.PAYLOAD_AUDIO, audioBytes.length);
+        exchange.getIn().setBody(BridgeMessage.voice(to, audioBytes, mimetype()));
+
+        log.info("Mensagem de voz enfileirada para envio em lote ao telefone: {}", to);
+    }
+
+    /**
+     * Corpo gerado sob demanda: o Base64 do áudio é escrito direto na requisição HTTP.
+     */
+    private void prepareStreamingPayload(Exchange exchange, String to, byte[] audioBytes) {
+        if (audioBytes.length == 0) {
+            throw new IllegalStateException("Áudio não encontrado para envio");
+        }
+
+        pipelineMetrics.recordPayloadSize(PipelineMetrics.PAYLOAD_AUDIO, audioBytes.length);
+
+        VoicePayloadInputStream payload = new VoicePayloadInputStream(to, audioBytes, mimetype());
+
+        exchange.getIn().setHeader(WhatsAppConstants.CONTENT_TYPE_HEADER, WhatsAppConstants.APPLICATION_JSON);
+        exchange.getIn().setHeader(Exchange.CONTENT_LENGTH, payload.contentLength());
+        exchange.getIn().setBody(payload);
+
+        log.info("Mensagem de voz em streaming preparada para envio ao telefone: {} ({} bytes de áudio)",
+                to, audioBytes.length);
+    }
+
+    /**
+     * Mimetype do formato de saída do TTS, para o bridge montar a mensagem de voz.
+     */
+    private String mimetype() {
+        return ttsService.audioFormat().mimeType();
+    }
 }
\ No newline at end of file
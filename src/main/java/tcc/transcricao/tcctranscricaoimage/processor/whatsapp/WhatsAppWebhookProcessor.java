@@ -1,53 +1,260 @@
 package tcc.transcricao.tcctranscricaoimage.processor.whatsapp;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import org.json.JSONObject;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.exception.DuplicateWebhookException;
+import tcc.transcricao.tcctranscricaoimage.exception.RateLimitExceededException;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.PhoneRateLimiter;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WebhookDeduplicator;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class WhatsAppWebhookProcessor implements Processor {
 
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final PipelineMetrics pipelineMetrics;
+    private final PhoneRateLimiter rateLimiter;
+    private final WebhookDeduplicator deduplicator;
+
+    @Value("${webhook.max-image-bytes:10485760}")
+    private int maxImageBytes;
+
+    // Quantidade máxima de imagens aceitas em 'media' enviado como lista (álbum)
+    @Value("${album.max-images:10}")
+    private int maxAlbumImages;
+
     @Override
     public void process(Exchange exchange) throws Exception {
-        try {
-            String body = exchange.getIn().getBody(String.class);
-            log.debug("Processando webhook: {}", body);
+        long parseStart = System.nanoTime();
+        WebhookData webhookData = new WebhookData();
+        try (InputStream body = exchange.getIn().getBody(InputStream.class)) {
+            if (body == null) {
+                throw new IllegalArgumentException("Corpo do webhook vazio");
+            }
 
-            JSONObject webhookJson = new JSONObject(body);
+            // Leitura em streaming: extrai 'id', 'from' e 'media.data' em uma única passada,
+            // decodificando o base64 diretamente para bytes sem materializar a string
+            parseWebhook(body, webhookData);
 
             // Validação de campos obrigatórios
-            validateWebhookData(webhookJson);
+            validateWebhookData(webhookData);
+
+            // 'id' depois de 'media' no JSON: a deduplicação só pôde ser feita agora
+            if (!webhookData.registered) {
+                registerDelivery(webhookData);
+            }
+
+            // 'from' depois de 'media' no JSON: o limite só pôde ser verificado agora
+            if (!webhookData.rateLimitChecked) {
+                rateLimiter.acquire(webhookData.phone);
+            }
 
-            String phone = webhookJson.getString("from");
-            String imageBase64 = webhookJson.getJSONObject("media").getString("data");
             String imageId = UUID.randomUUID().toString();
 
             // Configuração das propriedades do exchange
             exchange.setProperty(WhatsAppConstants.START_TIME_PROPERTY, System.currentTimeMillis());
             exchange.setProperty(WhatsAppConstants.IMAGE_ID_PROPERTY, imageId);
-            exchange.setProperty(WhatsAppConstants.PHONE_PROPERTY, phone);
-            exchange.setProperty(WhatsAppConstants.IMAGE_BASE64_PROPERTY, imageBase64);
+            exchange.setProperty(WhatsAppConstants.PHONE_PROPERTY, webhookData.phone);
+            exchange.setProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, webhookData.imageBytes);
+            if (webhookData.albumImages.size() > 1) {
+                exchange.setProperty(WhatsAppConstants.IMAGE_BYTES_LIST_PROPERTY, webhookData.albumImages);
+            }
+            if (webhookData.messageId != null) {
+                exchange.setProperty(WhatsAppConstants.MESSAGE_ID_PROPERTY, webhookData.messageId);
+                releaseOnFailure(exchange, webhookData.messageId);
+            }
+
+            pipelineMetrics.recordStage(PipelineMetrics.STAGE_WEBHOOK_PARSE, parseStart);
+            webhookData.albumImages.forEach(image ->
+                    pipelineMetrics.recordPayloadSize(PipelineMetrics.PAYLOAD_IMAGE_INBOUND, image.length));
 
-            log.info("Webhook processado - Telefone: {}, ImageId: {}", phone, imageId);
+            // Libera o corpo original, que não é mais necessário no restante do pipeline
+            exchange.getIn().setBody(null);
 
+            log.info("Webhook processado - Telefone: {}, ImageId: {}, Imagens: {}, Primeira: {} bytes",
+                    webhookData.phone, imageId, webhookData.albumImages.size(), webhookData.imageBytes.length);
+
+        } catch (DuplicateWebhookException e) {
+            log.info("Webhook ignorado - Mensagem {} já recebida", e.getMessageId());
+            throw e;
+        } catch (RateLimitExceededException e) {
+            releaseRegistered(webhookData);
+            log.warn("Webhook recusado - Telefone: {} acima do limite, nova imagem em {}s",
+                    e.getPhone(), e.getRetryAfterSeconds());
+            throw e;
         } catch (Exception e) {
+            releaseRegistered(webhookData);
             log.error("Erro ao processar webhook do WhatsApp", e);
             throw e;
         }
     }
 
-    private void validateWebhookData(JSONObject webhookJson) {
-        if (!webhookJson.has("from")) {
+    private void registerDelivery(WebhookData data) {
+        deduplicator.register(data.messageId);
+        data.registered = true;
+    }
+
+    private void releaseRegistered(WebhookData data) {
+        if (data.registered) {
+            deduplicator.release(data.messageId);
+        }
+    }
+
+    /**
+     * Se o pipeline falhar, o id é liberado para que um reenvio da mesma mensagem seja processado.
+     */
+    private void releaseOnFailure(Exchange exchange, String messageId) {
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange completed) {
+                if (completed.isFailed() || completed.getProperty(Exchange.EXCEPTION_CAUGHT) != null) {
+                    deduplicator.release(messageId);
+                }
+            }
+        });
+    }
+
+    private void parseWebhook(InputStream body, WebhookData data) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Webhook deve ser um objeto JSON");
+            }
+
+            // Campos repetidos: vale a primeira ocorrência; as demais são puladas sem decodificar
+            // (um segundo 'media' não consome outra ficha do limite nem vira álbum)
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("id".equals(field) && value == JsonToken.VALUE_STRING && data.messageId == null) {
+                    // Reenvio da mesma mensagem é descartado antes de decodificar a imagem
+                    data.messageId = parser.getText();
+                    registerDelivery(data);
+                } else if ("from".equals(field) && value == JsonToken.VALUE_STRING && data.phone == null) {
+                    data.phone = parser.getText();
+                } else if ("media".equals(field) && !data.mediaParsed
+                        && (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY)) {
+                    data.mediaParsed = true;
+                    // Verifica o limite do telefone antes de decodificar a imagem
+                    if (data.phone != null) {
+                        rateLimiter.acquire(data.phone);
+                        data.rateLimitChecked = true;
+                    }
+                    if (value == JsonToken.START_ARRAY) {
+                        parseAlbum(parser, data);
+                    } else {
+                        parseMedia(parser, data);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Álbum: 'media' como lista de objetos, cada um com o seu 'data'. Imagens além do
+     * limite configurado são ignoradas sem decodificar.
+     */
+    private void parseAlbum(JsonParser parser, WebhookData data) throws IOException {
+        JsonToken item;
+        while ((item = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (item == JsonToken.START_OBJECT && data.albumImages.size() < maxAlbumImages) {
+                parseMedia(parser, data);
+            } else {
+                if (item == JsonToken.START_OBJECT) {
+                    log.warn("Álbum acima do limite de {} imagens; imagem excedente ignorada", maxAlbumImages);
+                }
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void parseMedia(JsonParser parser, WebhookData data) throws IOException {
+        boolean dataRead = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if ("data".equals(field) && value == JsonToken.VALUE_STRING && !dataRead) {
+                dataRead = true;
+                BoundedByteArrayOutputStream imageBuffer = new BoundedByteArrayOutputStream(maxImageBytes);
+                parser.readBinaryValue(imageBuffer);
+                data.albumImages.add(imageBuffer.toByteArray());
+                if (data.imageBytes == null) {
+                    data.imageBytes = data.albumImages.get(0);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void validateWebhookData(WebhookData webhookData) {
+        if (webhookData.phone == null) {
             throw new IllegalArgumentException("Campo 'from' é obrigatório no webhook");
         }
-        if (!webhookJson.has("media") || !webhookJson.getJSONObject("media").has("data")) {
+        if (webhookData.imageBytes == null || webhookData.imageBytes.length == 0) {
             throw new IllegalArgumentException("Campo 'media.data' é obrigatório no webhook");
         }
     }
-}
\ No newline at end of file
+
+    private static final class WebhookData {
+        private String messageId;
+        private boolean registered;
+        private String phone;
+        private byte[] imageBytes;
+        private final List<byte[]> albumImages = new ArrayList<>();
+        private boolean mediaParsed;
+        private boolean rateLimitChecked;
+    }
+
+    /**
+     * Buffer que interrompe a decodificação assim que a imagem ultrapassa o limite configurado.
+     */
+    private static final class BoundedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        private final int limit;
+
+        private BoundedByteArrayOutputStream(int limit) {
+            super(64 * 1024);
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            ensureCapacity(1);
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            super.write(b, off, len);
+        }
+
+        private void ensureCapacity(int additional) {
+            if (count + additional > limit) {
+                throw new IllegalArgumentException("Imagem excede o tamanho máximo de " + limit + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package tcc.transcricao.tcctranscricaoimage.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.Exchange;
+import org.apache.camel.Predicate;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Junta as imagens enviadas pelo mesmo telefone dentro da janela do álbum em um único exchange.
+ * O exchange resultante mantém o id e o horário de início da primeira imagem, de modo que o
+ * tempo total medido inclui a espera pela janela.
+ */
+@Slf4j
+public class AlbumAggregationStrategy implements AggregationStrategy {
+
+    private final int maxImages;
+
+    public AlbumAggregationStrategy(int maxImages) {
+        this.maxImages = maxImages;
+    }
+
+    @Override
+    public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+        if (oldExchange == null) {
+            return newExchange;
+        }
+
+        List<byte[]> album = new ArrayList<>(imagesOf(oldExchange));
+        for (byte[] image : imagesOf(newExchange)) {
+            if (album.size() >= maxImages) {
+                log.warn("Álbum acima do limite de {} imagens; imagem excedente ignorada", maxImages);
+                break;
+            }
+            album.add(image);
+        }
+        oldExchange.setProperty(WhatsAppConstants.IMAGE_BYTES_LIST_PROPERTY, album);
+
+        log.debug("Imagem agrupada ao álbum do telefone {} - {} imagens",
+                oldExchange.getProperty(WhatsAppConstants.PHONE_PROPERTY), album.size());
+        return oldExchange;
+    }
+
+    /**
+     * Fecha o álbum assim que atingir o limite de imagens, sem esperar o fim da janela.
+     */
+    public Predicate albumFull() {
+        return exchange -> imagesOf(exchange).size() >= maxImages;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<byte[]> imagesOf(Exchange exchange) {
+        List<byte[]> images = exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_LIST_PROPERTY, List.class);
+        if (images != null) {
+            return images;
+        }
+        return List.of(exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, byte[].class));
+    }
+}
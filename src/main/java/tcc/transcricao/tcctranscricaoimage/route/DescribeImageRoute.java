@@ -1,19 +1,46 @@
 package tcc.transcricao.tcctranscricaoimage.route;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.ProcessorDefinition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
 import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
 import tcc.transcricao.tcctranscricaoimage.exception.DescricaoImagemException;
+import tcc.transcricao.tcctranscricaoimage.exception.DuplicateWebhookException;
+import tcc.transcricao.tcctranscricaoimage.exception.RateLimitExceededException;
 import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
 import tcc.transcricao.tcctranscricaoimage.processor.chain.ProcessorRegistry;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
+import tcc.transcricao.tcctranscricaoimage.service.queue.ImageJobWorker;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WhatsAppOutbox;
+
+import java.time.Duration;
 
 @Component
 @RequiredArgsConstructor
 public class DescribeImageRoute extends RouteBuilder {
 
     private final ProcessorRegistry processorRegistry;
+    private final WhatsAppOutbox whatsAppOutbox;
+    private final PipelineMetrics pipelineMetrics;
+    private final ImageJobWorker imageJobWorker;
+
+    @Value("${pipeline.mode:" + WhatsAppConstants.PIPELINE_MODE_SYNC + "}")
+    private String pipelineMode;
+
+    // Janela para agrupar imagens avulsas do mesmo telefone em um álbum (somente no modo assíncrono)
+    @Value("${album.window:0s}")
+    private Duration albumWindow;
+
+    @Value("${album.max-images:10}")
+    private int albumMaxImages;
+
+    @Value("${pipeline.durable.poll-interval:500ms}")
+    private Duration jobPollInterval;
 
     @Override
     public void configure() {
@@ -21,6 +48,22 @@ public class DescribeImageRoute extends RouteBuilder {
         // Log do status das chains na inicialização
         processorRegistry.logChainStatus();
 
+        // Reenvio de uma mensagem já recebida: confirma sem processar de novo
+        onException(DuplicateWebhookException.class)
+                .handled(true)
+                .setHeader(Exchange.HTTP_RESPONSE_CODE, constant(200))
+                .setBody(constant(WhatsAppConstants.DUPLICATE_RESPONSE));
+
+        // Telefone acima do limite: 429 e, no primeiro bloqueio da janela, aviso por mensagem
+        onException(RateLimitExceededException.class)
+                .handled(true)
+                .process(processorRegistry.getSystemChain().getExceptionProcessor())
+                .filter(simple("${exception.notifyUser}"))
+                    .setProperty(WhatsAppConstants.PHONE_PROPERTY, simple("${exception.phone}"))
+                    .setProperty(WhatsAppConstants.RETRY_AFTER_PROPERTY, simple("${exception.retryAfterSeconds}"))
+                    .wireTap(WhatsAppConstants.SEND_RATE_LIMIT_NOTICE_ENDPOINT)
+                .end();
+
         // Tratamento de erros
         onException(DescricaoImagemException.class, TtsException.class, Exception.class)
                 .handled(true)
@@ -28,26 +71,54 @@ public class DescribeImageRoute extends RouteBuilder {
                 .process(processorRegistry.getSystemChain().getExceptionProcessor());
 
         // Route Principal
-        from(WhatsAppConstants.WEBHOOK_ENDPOINT)
+        ProcessorDefinition<?> webhookRoute = from(WhatsAppConstants.WEBHOOK_ENDPOINT)
                 .routeId("whatsapp-webhook-route")
                 .log(WhatsAppConstants.WEBHOOK_RECEIVED_LOG)
                 .process(processorRegistry.getWhatsAppChain().getWebhookProcessor())
-                .log("Property inicio time: " + exchangeProperty(WhatsAppConstants.START_TIME_PROPERTY).toString())
-                .wireTap(WhatsAppConstants.SEND_CONFIRMATION_ENDPOINT)
+                .log("Property inicio time: " + exchangeProperty(WhatsAppConstants.START_TIME_PROPERTY).toString());
+
+        // A confirmação ao usuário só sai depois que a imagem foi aceita: no modo assíncrono,
+        // após a vaga na fila; no durável, após gravar o job
+        if (WhatsAppConstants.PIPELINE_MODE_ASYNC.equalsIgnoreCase(pipelineMode)) {
+            configureAsyncIngest(webhookRoute);
+        } else if (WhatsAppConstants.PIPELINE_MODE_DURABLE.equalsIgnoreCase(pipelineMode)) {
+            configureDurableIngest(webhookRoute);
+        } else {
+            webhookRoute
+                    .wireTap(WhatsAppConstants.SEND_CONFIRMATION_ENDPOINT)
+                    .to(WhatsAppConstants.IMAGE_PIPELINE_ENDPOINT)
+                    .setBody(constant("OK"));
+        }
+
+        // Pipeline de processamento da imagem (executado na thread do webhook ou nos consumidores da fila)
+        from(WhatsAppConstants.IMAGE_PIPELINE_ENDPOINT)
+                .routeId("image-pipeline")
+                .process(pipelineMetrics.trackInFlight())
                 .to(WhatsAppConstants.PROCESS_IMAGE_AUDIO_ENDPOINT)
-                .to(WhatsAppConstants.SEND_VOICE_ENDPOINT)
+                .choice()
+                    .when(exchangeProperty(WhatsAppConstants.AUDIO_PARTS_PROPERTY).isNotNull())
+                        .to(WhatsAppConstants.SEND_ALBUM_VOICES_ENDPOINT)
+                    .otherwise()
+                        .to(WhatsAppConstants.SEND_VOICE_ENDPOINT)
+                .end()
+                .process(imageJobWorker.delivered())
                 .to(WhatsAppConstants.DB_METRICS_ENDPOINT)
                 .process(processorRegistry.getSurveyChain().getPreparationProcessor())
-                .to(SurveyConstants.START_SURVEY_ENDPOINT)
-                .setBody(constant("OK"));
+                .to(SurveyConstants.START_SURVEY_ENDPOINT);
 
         // Sub-routes
         from(WhatsAppConstants.SEND_CONFIRMATION_ENDPOINT)
                 .routeId("send-confirmation")
                 .process(processorRegistry.getWhatsAppChain().getConfirmationProcessor())
-                .to(WhatsAppConstants.WHATSAPP_SEND_TEXT_URL)
+                .to(whatsAppOutbox.endpoint(WhatsAppConstants.WHATSAPP_SEND_TEXT_URL))
                 .log(WhatsAppConstants.CONFIRMATION_RECEIVED_LOG);
 
+        from(WhatsAppConstants.SEND_RATE_LIMIT_NOTICE_ENDPOINT)
+                .routeId("send-rate-limit-notice")
+                .process(processorRegistry.getWhatsAppChain().getRateLimitNoticeProcessor())
+                .to(whatsAppOutbox.endpoint(WhatsAppConstants.WHATSAPP_SEND_TEXT_URL))
+                .log(WhatsAppConstants.RATE_LIMIT_NOTICE_LOG);
+
         from(WhatsAppConstants.PROCESS_IMAGE_AUDIO_ENDPOINT)
                 .routeId("process-image-audio")
                 .process(processorRegistry.getSystemChain().getImageAudioProcessor())
@@ -56,12 +127,104 @@ public class DescribeImageRoute extends RouteBuilder {
         from(WhatsAppConstants.SEND_VOICE_ENDPOINT)
                 .routeId("send-voice")
                 .process(processorRegistry.getWhatsAppChain().getVoiceMessageProcessor())
-                .to(WhatsAppConstants.WHATSAPP_SEND_VOICE_URL)
+                .process(pipelineMetrics.startStage(PipelineMetrics.STAGE_BRIDGE_SEND))
+                .to(whatsAppOutbox.endpoint(WhatsAppConstants.WHATSAPP_SEND_VOICE_URL))
+                .process(pipelineMetrics.stopStage(PipelineMetrics.STAGE_BRIDGE_SEND))
                 .log(WhatsAppConstants.AUDIO_GENERATED_LOG);
 
+        // Álbum com um áudio por imagem: envio em sequência, na ordem das imagens
+        from(WhatsAppConstants.SEND_ALBUM_VOICES_ENDPOINT)
+                .routeId("send-album-voices")
+                .split(exchangeProperty(WhatsAppConstants.AUDIO_PARTS_PROPERTY)).stopOnException()
+                    .setProperty(WhatsAppConstants.AUDIO_BYTES_PROPERTY, body())
+                    .to(WhatsAppConstants.SEND_VOICE_ENDPOINT)
+                .end();
+
+        // Envio em lote ao bridge: mensagens de texto e voz aguardam o lote do respectivo chat
+        if (whatsAppOutbox.isEnabled()) {
+            from(WhatsAppConstants.WHATSAPP_OUTBOX_ENDPOINT)
+                    .routeId("whatsapp-outbox")
+                    .process(whatsAppOutbox.send());
+        }
+
         from(WhatsAppConstants.DB_METRICS_ENDPOINT)
                 .routeId("save-metrics")
                 .process(processorRegistry.getSystemChain().getMetricsProcessor())
                 .log(WhatsAppConstants.METRICS_SAVED_LOG);
     }
+
+    /**
+     * Modo assíncrono: o webhook é validado, enfileirado em uma fila SEDA limitada
+     * e respondido com 202; o restante do pipeline roda nos consumidores da fila.
+     */
+    private void configureAsyncIngest(ProcessorDefinition<?> webhookRoute) {
+        webhookRoute
+                .doTry()
+                    .to(ExchangePattern.InOnly, WhatsAppConstants.IMAGE_PIPELINE_QUEUE_ENDPOINT)
+                    .log(WhatsAppConstants.JOB_ENQUEUED_LOG)
+                    .setHeader(Exchange.HTTP_RESPONSE_CODE, constant(202))
+                    .setBody(constant(WhatsAppConstants.ACCEPTED_RESPONSE))
+                    .wireTap(WhatsAppConstants.SEND_CONFIRMATION_ENDPOINT)
+                .endDoTry()
+                .doCatch(IllegalStateException.class)
+                    .log(WhatsAppConstants.QUEUE_FULL_LOG)
+                    .setHeader(Exchange.HTTP_RESPONSE_CODE, constant(503))
+                    .setBody(constant(WhatsAppConstants.QUEUE_FULL_RESPONSE))
+                .end();
+
+        ProcessorDefinition<?> queueRoute = from(WhatsAppConstants.IMAGE_PIPELINE_QUEUE_ENDPOINT)
+                .routeId("image-pipeline-queue");
+
+        if (albumWindow.isZero() || albumWindow.isNegative()) {
+            queueRoute.to(WhatsAppConstants.IMAGE_PIPELINE_ENDPOINT);
+            return;
+        }
+
+        // Imagens do mesmo telefone dentro da janela seguem juntas como um álbum. O álbum
+        // completo vai para uma segunda fila limitada, cujos consumidores executam o pipeline:
+        // o limite de pipelines simultâneos continua sendo pipeline.async.consumers. Com essa
+        // fila cheia, quem completou o álbum (consumidor da fila de entrada ou a thread de
+        // timeout do agregador) espera por vaga, e a fila de entrada volta a encher até o 503.
+        AlbumAggregationStrategy albumStrategy = new AlbumAggregationStrategy(albumMaxImages);
+        queueRoute
+                .aggregate(exchangeProperty(WhatsAppConstants.PHONE_PROPERTY), albumStrategy)
+                    .completionTimeout(albumWindow.toMillis())
+                    .completionPredicate(albumStrategy.albumFull())
+                    .to(ExchangePattern.InOnly, WhatsAppConstants.ALBUM_PIPELINE_QUEUE_ENDPOINT)
+                .end();
+
+        from(WhatsAppConstants.ALBUM_PIPELINE_QUEUE_ENDPOINT)
+                .routeId("album-pipeline-queue")
+                .to(WhatsAppConstants.IMAGE_PIPELINE_ENDPOINT);
+    }
+
+    /**
+     * Modo durável: o webhook grava o job no Postgres e responde 202. Em cada instância, um
+     * poller reivindica apenas os jobs que os workers locais conseguem processar, permitindo
+     * escalar a aplicação horizontalmente sobre a mesma fila.
+     */
+    private void configureDurableIngest(ProcessorDefinition<?> webhookRoute) {
+        webhookRoute
+                .process(imageJobWorker.enqueue())
+                .log(WhatsAppConstants.JOB_PERSISTED_LOG)
+                .wireTap(WhatsAppConstants.SEND_CONFIRMATION_ENDPOINT)
+                .setHeader(Exchange.HTTP_RESPONSE_CODE, constant(202))
+                .setBody(constant(WhatsAppConstants.ACCEPTED_RESPONSE));
+
+        int consumers = imageJobWorker.getConsumers();
+        String workerEndpoint = String.format(WhatsAppConstants.IMAGE_JOB_WORKER_ENDPOINT, consumers, consumers);
+
+        long pollMillis = Math.max(1, jobPollInterval.toMillis());
+        from(String.format(WhatsAppConstants.IMAGE_JOB_POLLER_ENDPOINT, pollMillis, pollMillis))
+                .routeId("image-job-poller")
+                .process(imageJobWorker.claim())
+                .split(body())
+                    .to(ExchangePattern.InOnly, workerEndpoint)
+                .end();
+
+        from(workerEndpoint)
+                .routeId("image-job-worker")
+                .process(imageJobWorker.start())
+                .to(WhatsAppConstants.IMAGE_PIPELINE_ENDPOINT);
+    }
 }
\ No newline at end of file
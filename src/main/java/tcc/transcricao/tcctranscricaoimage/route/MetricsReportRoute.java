@@ -0,0 +1,37 @@
+package tcc.transcricao.tcctranscricaoimage.route;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.MetricsConstants;
+import tcc.transcricao.tcctranscricaoimage.processor.chain.ProcessorRegistry;
+
+@Component
+@RequiredArgsConstructor
+public class MetricsReportRoute extends RouteBuilder {
+
+    private final ProcessorRegistry processorRegistry;
+
+    @Override
+    public void configure() {
+
+        // Parâmetros inválidos
+        onException(IllegalArgumentException.class)
+                .handled(true)
+                .setHeader(Exchange.HTTP_RESPONSE_CODE, constant(400))
+                .setBody(simple("${exception.message}"));
+
+        // Tratamento de erros
+        onException(Exception.class)
+                .handled(true)
+                .log("Erro no relatório de métricas: ${exception.message}")
+                .process(processorRegistry.getSystemChain().getExceptionProcessor());
+
+        // Percentis de latência por intervalo (minute, hour, day)
+        from(MetricsConstants.LATENCY_REPORT_ENDPOINT)
+                .routeId("latency-report-endpoint")
+                .process(processorRegistry.getSystemChain().getLatencyReportProcessor())
+                .log(MetricsConstants.LATENCY_REPORT_LOG);
+    }
+}
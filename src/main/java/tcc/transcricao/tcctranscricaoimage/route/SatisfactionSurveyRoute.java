@@ -5,12 +5,14 @@ import org.apache.camel.builder.RouteBuilder;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
 import tcc.transcricao.tcctranscricaoimage.processor.chain.ProcessorRegistry;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WhatsAppOutbox;
 
 @Component
 @RequiredArgsConstructor
 public class SatisfactionSurveyRoute extends RouteBuilder {
 
     private final ProcessorRegistry processorRegistry;
+    private final WhatsAppOutbox whatsAppOutbox;
 
     @Override
     public void configure() {
@@ -38,7 +40,7 @@ public class SatisfactionSurveyRoute extends RouteBuilder {
         from(SurveyConstants.SEND_SURVEY_MESSAGE_ENDPOINT)
                 .routeId("send-survey-message")
                 .process(processorRegistry.getSurveyChain().getMessageProcessor())
-                .to(SurveyConstants.WHATSAPP_SEND_TEXT_URL)
+                .to(whatsAppOutbox.endpoint(SurveyConstants.WHATSAPP_SEND_TEXT_URL))
                 .log(SurveyConstants.SURVEY_MESSAGE_SENT_LOG);
 
         from(SurveyConstants.PROCESS_SURVEY_RESPONSE_ENDPOINT)
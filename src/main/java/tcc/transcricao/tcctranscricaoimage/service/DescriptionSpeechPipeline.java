@@ -0,0 +1,86 @@
+package tcc.transcricao.tcctranscricaoimage.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tcc.transcricao.tcctranscricaoimage.constants.TTSConstants;
+import tcc.transcricao.tcctranscricaoimage.exception.DescricaoImagemException;
+import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
+import tcc.transcricao.tcctranscricaoimage.service.cache.SingleFlight;
+import tcc.transcricao.tcctranscricaoimage.service.tts.SegmentSynthesis;
+import tcc.transcricao.tcctranscricaoimage.service.tts.StreamingSentenceBuffer;
+
+import java.util.Optional;
+
+/**
+ * Descrição e síntese de voz encadeadas: a descrição chega em streaming e cada bloco de
+ * frases completas é enviado ao TTS enquanto o modelo ainda gera o restante do texto.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DescriptionSpeechPipeline {
+
+    private final ImageDescriptionService imageDescriptionService;
+    private final TtsService ttsService;
+    private final SingleFlight<String, Result> pipelineFlight;
+
+    @Value("${openai.streaming.min-chunk-chars:80}")
+    private int minChunkChars;
+
+    public record Result(String description, long descriptionTime, byte[] audioBytes, long audioTime) {}
+
+    public Result describeAndSynthesize(byte[] imageBytes) throws DescricaoImagemException, TtsException {
+        Optional<String> cachedDescription = imageDescriptionService.findCachedDescription(imageBytes);
+        if (cachedDescription.isPresent()) {
+            // Descrição conhecida: o áudio completo provavelmente também está no cache TTS
+            log.info("Descrição obtida do cache; síntese sem streaming");
+            long descriptionTime = System.currentTimeMillis();
+            byte[] audioBytes = ttsService.synthesize(cachedDescription.get());
+            return new Result(cachedDescription.get(), descriptionTime, audioBytes, System.currentTimeMillis());
+        }
+
+        // A mesma imagem já em processamento compartilha a descrição e o áudio em andamento
+        return pipelineFlight.execute(imageDescriptionService.contentKey(imageBytes),
+                () -> streamAndSynthesize(imageBytes));
+    }
+
+    private Result streamAndSynthesize(byte[] imageBytes) {
+        if (!ttsService.audioFormat().isConcatenable()) {
+            return streamThenSynthesize(imageBytes);
+        }
+
+        StreamingSentenceBuffer buffer = new StreamingSentenceBuffer(minChunkChars, TTSConstants.MAX_TEXT_LENGTH);
+        SegmentSynthesis synthesis = ttsService.openSegmentSynthesis();
+
+        String description;
+        try {
+            description = imageDescriptionService.streamDescription(imageBytes,
+                    delta -> buffer.append(delta).forEach(synthesis::submit));
+        } catch (RuntimeException e) {
+            synthesis.cancel();
+            throw e;
+        }
+        long descriptionTime = System.currentTimeMillis();
+        buffer.flush().forEach(synthesis::submit);
+
+        log.info("Descrição concluída; aguardando {} trechos de áudio", synthesis.size());
+        byte[] audioBytes = synthesis.awaitConcatenated();
+        ttsService.cacheSynthesizedAudio(description, audioBytes);
+
+        return new Result(description, descriptionTime, audioBytes, System.currentTimeMillis());
+    }
+
+    /**
+     * Formato que não pode ser juntado por trechos (Opus/OGG): a descrição continua em
+     * streaming, mas o áudio é sintetizado de uma vez ao final.
+     */
+    private Result streamThenSynthesize(byte[] imageBytes) {
+        String description = imageDescriptionService.streamDescription(imageBytes, delta -> { });
+        long descriptionTime = System.currentTimeMillis();
+
+        byte[] audioBytes = ttsService.synthesize(description);
+        return new Result(description, descriptionTime, audioBytes, System.currentTimeMillis());
+    }
+}
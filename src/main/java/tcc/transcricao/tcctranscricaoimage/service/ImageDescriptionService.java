@@ -2,13 +2,26 @@ package tcc.transcricao.tcctranscricaoimage.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import tcc.transcricao.tcctranscricaoimage.exception.DescricaoImagemException;
+import tcc.transcricao.tcctranscricaoimage.service.cache.ImageDescriptionCache;
+import tcc.transcricao.tcctranscricaoimage.service.cache.SingleFlight;
+import tcc.transcricao.tcctranscricaoimage.service.image.ImagePreprocessor;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
 import tcc.transcricao.tcctranscricaoimage.service.openai.OpenAIHttpClient;
 import tcc.transcricao.tcctranscricaoimage.service.openai.OpenAIPayloadBuilder;
 import tcc.transcricao.tcctranscricaoimage.service.openai.OpenAIResponseProcessor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Descrição de imagens pela API de visão. As imagens chegam como recebidas do WhatsApp: o
+ * cache é consultado pelo conteúdo original e o pré-processamento (decodificação,
+ * redimensionamento e recodificação) só acontece quando a API precisa ser chamada.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -17,31 +30,181 @@ public class ImageDescriptionService {
     private final OpenAIPayloadBuilder payloadBuilder;
     private final OpenAIHttpClient httpClient;
     private final OpenAIResponseProcessor responseProcessor;
+    private final ImageDescriptionCache descriptionCache;
+    private final ImagePreprocessor imagePreprocessor;
+    private final PipelineMetrics pipelineMetrics;
+    private final SingleFlight<String, String> descriptionFlight;
+    private final SingleFlight<String, List<String>> albumFlight;
 
-    public String getDescription(String base64Image) throws DescricaoImagemException {
+    public String getDescription(byte[] imageBytes) throws DescricaoImagemException {
         log.info("Iniciando processo de descrição de imagem");
 
         try {
-            // Etapa 1: Construir payload
-            String payload = payloadBuilder.buildImageDescriptionPayload(base64Image);
-            log.debug("Payload construído com sucesso");
+            // Etapa 0: Consultar cache pelo conteúdo original da imagem
+            String cacheKey = descriptionCache.keyFor(imageBytes);
+            String cachedDescription = descriptionCache.get(cacheKey);
+            if (cachedDescription != null) {
+                log.info("Descrição obtida do cache");
+                return cachedDescription;
+            }
+
+            // Mesma imagem já em descrição por outra requisição: aguarda o mesmo resultado
+            return descriptionFlight.execute(cacheKey, () -> requestDescription(imageBytes, cacheKey));
+
+        } catch (DescricaoImagemException e) {
+            log.error("Erro específico na descrição de imagem: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Erro inesperado na descrição de imagem", e);
+            throw new DescricaoImagemException("Erro inesperado ao processar descrição da imagem", e);
+        }
+    }
+
+    private String requestDescription(byte[] originalImage, String cacheKey) {
+        // Etapa 1: Redimensionar/recodificar para reduzir upload e tokens de visão
+        byte[] imageBytes = imagePreprocessor.prepare(originalImage);
+
+        // Etapa 2: Construir payload
+        String payload = payloadBuilder.buildImageDescriptionPayload(imageBytes);
+        log.debug("Payload construído com sucesso");
+
+        pipelineMetrics.recordPayloadSize(PipelineMetrics.PAYLOAD_IMAGE_UPLOAD, imageBytes.length);
+
+        // Etapa 3: Enviar requisição
+        // Etapa 4: Processar resposta, lida em streaming enquanto chega
+        String description = pipelineMetrics.time(PipelineMetrics.STAGE_VISION,
+                () -> httpClient.sendRequest(payload, responseProcessor::extractDescription));
+        log.info("Descrição obtida com sucesso");
+
+        descriptionCache.put(cacheKey, description);
+
+        return description;
+    }
+
+    /**
+     * Descreve as imagens de um álbum com uma única chamada à API, na ordem recebida.
+     * Imagens já em cache não são reenviadas; se a resposta não trouxer uma descrição
+     * por imagem, cada uma é descrita individualmente.
+     */
+    public List<String> getDescriptions(List<byte[]> images) throws DescricaoImagemException {
+        if (images.size() == 1) {
+            return List.of(getDescription(images.get(0)));
+        }
+        log.info("Iniciando descrição de álbum com {} imagens", images.size());
+
+        try {
+            List<String> descriptions = new ArrayList<>(images.size());
+            List<byte[]> pendingImages = new ArrayList<>();
+            List<String> pendingKeys = new ArrayList<>();
+            List<Integer> pendingIndexes = new ArrayList<>();
+            for (int i = 0; i < images.size(); i++) {
+                String cacheKey = descriptionCache.keyFor(images.get(i));
+                String cachedDescription = descriptionCache.get(cacheKey);
+                descriptions.add(cachedDescription);
+                if (cachedDescription == null) {
+                    pendingImages.add(images.get(i));
+                    pendingKeys.add(cacheKey);
+                    pendingIndexes.add(i);
+                }
+            }
+            log.info("Álbum - {} descrições do cache, {} a descrever", images.size() - pendingImages.size(),
+                    pendingImages.size());
+
+            if (pendingImages.size() == 1) {
+                descriptions.set(pendingIndexes.get(0), getDescription(pendingImages.get(0)));
+            } else if (!pendingImages.isEmpty()) {
+                List<String> requested = requestAlbumDescriptions(pendingImages, pendingKeys);
+                for (int i = 0; i < requested.size(); i++) {
+                    descriptions.set(pendingIndexes.get(i), requested.get(i));
+                }
+            }
+            return descriptions;
+
+        } catch (DescricaoImagemException e) {
+            log.error("Erro específico na descrição do álbum: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Erro inesperado na descrição do álbum", e);
+            throw new DescricaoImagemException("Erro inesperado ao processar descrição do álbum", e);
+        }
+    }
+
+    private List<String> requestAlbumDescriptions(List<byte[]> images, List<String> cacheKeys) {
+        // O mesmo álbum já em descrição por outra requisição compartilha o resultado
+        String albumKey = cacheKeys.contains(null) ? null : String.join("|", cacheKeys);
+        List<String> descriptions = albumFlight.execute(albumKey, () -> {
+            List<byte[]> preparedImages = images.stream().map(imagePreprocessor::prepare).toList();
+            String payload = payloadBuilder.buildAlbumDescriptionPayload(preparedImages);
+            preparedImages.forEach(image ->
+                    pipelineMetrics.recordPayloadSize(PipelineMetrics.PAYLOAD_IMAGE_UPLOAD, image.length));
+
+            String content = pipelineMetrics.time(PipelineMetrics.STAGE_VISION,
+                    () -> httpClient.sendRequest(payload, responseProcessor::extractDescription));
+            return responseProcessor.parseAlbumDescriptions(content);
+        });
+
+        if (descriptions.size() != images.size()) {
+            log.warn("Resposta do álbum com {} descrições para {} imagens; descrevendo individualmente",
+                    descriptions.size(), images.size());
+            List<String> individual = new ArrayList<>(images.size());
+            for (byte[] image : images) {
+                individual.add(getDescription(image));
+            }
+            return individual;
+        }
+
+        for (int i = 0; i < descriptions.size(); i++) {
+            if (cacheKeys.get(i) != null) {
+                descriptionCache.put(cacheKeys.get(i), descriptions.get(i));
+            }
+        }
+        log.info("Descrições do álbum obtidas com sucesso");
+        return descriptions;
+    }
+
+    /**
+     * Descrição já conhecida para a imagem, sem chamar a API.
+     */
+    public Optional<String> findCachedDescription(byte[] imageBytes) {
+        return Optional.ofNullable(descriptionCache.get(descriptionCache.keyFor(imageBytes)));
+    }
+
+    /**
+     * Chave de conteúdo da imagem (a mesma do cache), ou null com o cache desabilitado.
+     */
+    public String contentKey(byte[] imageBytes) {
+        return descriptionCache.keyFor(imageBytes);
+    }
+
+    /**
+     * Gera a descrição em streaming, repassando cada fragmento ao consumidor assim que chega.
+     * A descrição completa é devolvida ao fim e armazenada no cache.
+     */
+    public String streamDescription(byte[] imageBytes, Consumer<String> onDelta) throws DescricaoImagemException {
+        log.info("Iniciando descrição de imagem em streaming");
+
+        try {
+            byte[] preparedImage = imagePreprocessor.prepare(imageBytes);
+            String payload = payloadBuilder.buildStreamingImageDescriptionPayload(preparedImage);
+            log.debug("Payload de streaming construído com sucesso");
+
+            pipelineMetrics.recordPayloadSize(PipelineMetrics.PAYLOAD_IMAGE_UPLOAD, preparedImage.length);
 
-            // Etapa 2: Enviar requisição
-            ResponseEntity<byte[]> response = httpClient.sendRequest(payload);
-            log.debug("Requisição enviada com sucesso");
+            String description = pipelineMetrics.time(PipelineMetrics.STAGE_VISION,
+                    () -> httpClient.streamRequest(payload,
+                            response -> responseProcessor.readDescriptionStream(response, onDelta)));
+            log.info("Descrição em streaming obtida com sucesso");
 
-            // Etapa 3: Processar resposta
-            String description = responseProcessor.extractDescription(response);
-            log.info("Descrição obtida com sucesso");
+            descriptionCache.put(descriptionCache.keyFor(imageBytes), description);
 
             return description;
 
         } catch (DescricaoImagemException e) {
-            log.error("Erro específico na descrição de imagem: {}", e.getMessage());
+            log.error("Erro específico na descrição de imagem em streaming: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            log.error("Erro inesperado na descrição de imagem", e);
+            log.error("Erro inesperado na descrição de imagem em streaming", e);
             throw new DescricaoImagemException("Erro inesperado ao processar descrição da imagem", e);
         }
     }
-}
\ No newline at end of file
+}
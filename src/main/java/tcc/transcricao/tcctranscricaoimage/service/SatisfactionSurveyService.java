@@ -1,17 +1,29 @@
 package tcc.transcricao.tcctranscricaoimage.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import tcc.transcricao.tcctranscricaoimage.repository.SatisfactionSurveyRepository;
 import tcc.transcricao.tcctranscricaoimage.model.SatisfactionSurvey;
+import tcc.transcricao.tcctranscricaoimage.service.survey.SurveySession;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class SatisfactionSurveyService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO satisfaction_survey (user_phone, image_id, question_number, score, answered_at)
+            VALUES (?, ?, ?, ?, ?)""";
+
     @Autowired
     private SatisfactionSurveyRepository repo;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     // Salva resposta da pergunta
     public void saveAnswer(String userPhone, String imageId, int questionNumber, int score) {
         SatisfactionSurvey survey = new SatisfactionSurvey();
@@ -22,4 +34,15 @@ public class SatisfactionSurveyService {
         survey.setAnsweredAt(LocalDateTime.now());
         repo.save(survey);
     }
+
+    // Salva todas as respostas do questionário em um único lote
+    public void saveSurvey(String userPhone, String imageId, List<SurveySession.Answer> answers) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, answers, answers.size(), (ps, answer) -> {
+            ps.setString(1, userPhone);
+            ps.setString(2, imageId);
+            ps.setInt(3, answer.questionNumber());
+            ps.setInt(4, answer.score());
+            ps.setTimestamp(5, Timestamp.valueOf(answer.answeredAt()));
+        });
+    }
 }
\ No newline at end of file
@@ -1,15 +1,27 @@
 package tcc.transcricao.tcctranscricaoimage.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import tcc.transcricao.tcctranscricaoimage.constants.TTSConstants;
 import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
+import tcc.transcricao.tcctranscricaoimage.service.cache.CachedAudio;
+import tcc.transcricao.tcctranscricaoimage.service.cache.SingleFlight;
+import tcc.transcricao.tcctranscricaoimage.service.cache.TtsAudioCache;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
+import tcc.transcricao.tcctranscricaoimage.service.tts.AudioFormat;
+import tcc.transcricao.tcctranscricaoimage.service.tts.SegmentSynthesis;
+import tcc.transcricao.tcctranscricaoimage.service.tts.SentenceSplitter;
 import tcc.transcricao.tcctranscricaoimage.service.tts.TTSHttpClient;
 import tcc.transcricao.tcctranscricaoimage.service.tts.TTSPayloadBuilder;
 import tcc.transcricao.tcctranscricaoimage.service.tts.TTSResponseProcessor;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -18,22 +30,46 @@ public class TtsService {
     private final TTSPayloadBuilder payloadBuilder;
     private final TTSHttpClient httpClient;
     private final TTSResponseProcessor responseProcessor;
+    private final TtsAudioCache audioCache;
+    private final ExecutorService ttsExecutor;
+    private final PipelineMetrics pipelineMetrics;
+    private final SingleFlight<String, CachedAudio> speechFlight;
+
+    @Value("${tts.chunking.enabled:false}")
+    private boolean chunkingEnabled;
+
+    @Value("${tts.chunking.min-chunk-chars:80}")
+    private int minChunkChars;
+
+    @Value("${tts.chunking.max-parallelism:4}")
+    private int maxParallelism;
+
+    @Value("${tts.response-format:" + TTSConstants.DEFAULT_RESPONSE_FORMAT + "}")
+    private String responseFormat;
+
+    private AudioFormat audioFormat;
+
+    @PostConstruct
+    public void init() {
+        audioFormat = AudioFormat.fromName(responseFormat);
+        if (chunkingEnabled && !audioFormat.isConcatenable()) {
+            log.warn("Síntese em blocos desativada: o formato {} não pode ser juntado por trechos", audioFormat.apiName());
+        }
+        log.info("Formato de saída TTS: {} ({})", audioFormat.apiName(), audioFormat.mimeType());
+    }
+
+    /**
+     * Formato do áudio sintetizado, usado no envio ao bridge.
+     */
+    public AudioFormat audioFormat() {
+        return audioFormat;
+    }
 
     public byte[] synthesize(String text) throws TtsException {
         log.info("Iniciando síntese de voz - {} caracteres", text != null ? text.length() : 0);
 
         try {
-            // Etapa 1: Construir payload
-            String payload = payloadBuilder.buildSpeechPayload(text);
-            log.debug(TTSConstants.PAYLOAD_BUILT_LOG);
-
-            // Etapa 2: Enviar requisição
-            ResponseEntity<byte[]> response = httpClient.sendTTSRequest(payload);
-            log.debug(TTSConstants.REQUEST_SENT_LOG);
-
-            // Etapa 3: Processar resposta
-            byte[] audioBytes = responseProcessor.extractAudioBytes(response);
-            log.debug(TTSConstants.RESPONSE_PROCESSED_LOG);
+            byte[] audioBytes = synthesizeCached(text, TTSConstants.DEFAULT_VOICE, TTSConstants.TTS_MODEL).bytes();
 
             log.info(TTSConstants.TTS_SUCCESS_LOG + " - {} bytes de áudio", audioBytes.length);
             return audioBytes;
@@ -51,17 +87,8 @@ public class TtsService {
         log.info("Iniciando síntese de voz para Base64 - {} caracteres", text != null ? text.length() : 0);
 
         try {
-            // Etapa 1: Construir payload
-            String payload = payloadBuilder.buildSpeechPayload(text);
-            log.debug(TTSConstants.PAYLOAD_BUILT_LOG);
-
-            // Etapa 2: Enviar requisição
-            ResponseEntity<byte[]> response = httpClient.sendTTSRequest(payload);
-            log.debug(TTSConstants.REQUEST_SENT_LOG);
-
-            // Etapa 3: Processar resposta e converter para Base64
-            String base64Audio = responseProcessor.extractAudioAsBase64(response);
-            log.debug(TTSConstants.RESPONSE_PROCESSED_LOG);
+            // Base64 calculado uma única vez por entrada do cache
+            String base64Audio = synthesizeCached(text, TTSConstants.DEFAULT_VOICE, TTSConstants.TTS_MODEL).base64();
 
             log.info(TTSConstants.TTS_SUCCESS_LOG + " - {} caracteres Base64", base64Audio.length());
             return base64Audio;
@@ -80,9 +107,7 @@ public class TtsService {
         log.info("Síntese TTS com voz personalizada: {} - {} caracteres", voice, text != null ? text.length() : 0);
 
         try {
-            String payload = payloadBuilder.buildSpeechPayload(text, voice);
-            ResponseEntity<byte[]> response = httpClient.sendTTSRequest(payload);
-            return responseProcessor.extractAudioBytes(response);
+            return synthesizeCached(text, voice, TTSConstants.TTS_MODEL).bytes();
         } catch (Exception e) {
             log.error("Erro na síntese TTS com voz personalizada", e);
             throw new TtsException("Erro na síntese com voz: " + voice, e);
@@ -90,7 +115,93 @@ public class TtsService {
     }
 
     public String synthesizeAsBase64WithVoice(String text, String voice) throws TtsException {
-        byte[] audioBytes = synthesizeWithVoice(text, voice);
-        return responseProcessor.convertToBase64(audioBytes);
+        try {
+            return synthesizeCached(text, voice, TTSConstants.TTS_MODEL).base64();
+        } catch (Exception e) {
+            log.error("Erro na síntese TTS Base64 com voz personalizada", e);
+            throw new TtsException("Erro na síntese com voz: " + voice, e);
+        }
+    }
+
+    /**
+     * Abre uma síntese por trechos com a voz e o modelo padrão: cada trecho submetido
+     * é sintetizado em paralelo (consultando o cache) e o áudio é juntado ao final.
+     */
+    public SegmentSynthesis openSegmentSynthesis() {
+        return openSegmentSynthesis(TTSConstants.DEFAULT_VOICE, TTSConstants.TTS_MODEL);
+    }
+
+    /**
+     * Registra no cache o áudio completo de um texto sintetizado por trechos.
+     */
+    public void cacheSynthesizedAudio(String text, byte[] audioBytes) {
+        String cacheKey = audioCache.keyFor(text, TTSConstants.DEFAULT_VOICE, TTSConstants.TTS_MODEL,
+                audioFormat.apiName());
+        audioCache.put(cacheKey, audioBytes);
+    }
+
+    /**
+     * Consulta o cache de áudio e, em caso de falha, chama a API TTS e armazena o resultado.
+     */
+    private CachedAudio synthesizeCached(String text, String voice, String model) throws TtsException {
+        return synthesizeCached(text, voice, model, chunkingEnabled && audioFormat.isConcatenable());
+    }
+
+    private CachedAudio synthesizeCached(String text, String voice, String model, boolean splitIntoChunks)
+            throws TtsException {
+        String cacheKey = audioCache.keyFor(text, voice, model, audioFormat.apiName());
+        CachedAudio cached = audioCache.get(cacheKey);
+        if (cached != null) {
+            log.info("Áudio obtido do cache TTS - {} bytes", cached.bytes().length);
+            return cached;
+        }
+
+        // Mesmo texto já em síntese por outra requisição: aguarda o mesmo áudio
+        return speechFlight.execute(cacheKey, () -> {
+            List<String> chunks = splitIntoChunks
+                    ? SentenceSplitter.split(text, minChunkChars, TTSConstants.MAX_TEXT_LENGTH)
+                    : List.of(text);
+
+            byte[] audioBytes = chunks.size() > 1
+                    ? synthesizeChunks(chunks, voice, model)
+                    : requestSpeech(text, voice, model);
+
+            return audioCache.put(cacheKey, audioBytes);
+        });
+    }
+
+    /**
+     * Sintetiza os blocos em paralelo (no máximo {@code maxParallelism} simultâneos por texto)
+     * e junta o áudio na ordem original. Cada bloco também passa pelo cache.
+     */
+    private byte[] synthesizeChunks(List<String> chunks, String voice, String model) throws TtsException {
+        log.info("Síntese TTS em {} blocos paralelos (máx. {} simultâneos)", chunks.size(), maxParallelism);
+
+        SegmentSynthesis synthesis = openSegmentSynthesis(voice, model);
+        chunks.forEach(synthesis::submit);
+        return synthesis.awaitConcatenated();
+    }
+
+    private SegmentSynthesis openSegmentSynthesis(String voice, String model) {
+        // Trechos não são divididos de novo: evita tarefas aninhadas no mesmo executor
+        return new SegmentSynthesis(segment -> synthesizeCached(segment, voice, model, false).bytes(),
+                ttsExecutor, maxParallelism, audioFormat);
+    }
+
+    private byte[] requestSpeech(String text, String voice, String model) throws TtsException {
+        // Etapa 1: Construir payload
+        String payload = payloadBuilder.buildSpeechPayload(text, voice, model, audioFormat);
+        log.debug(TTSConstants.PAYLOAD_BUILT_LOG);
+
+        // Etapa 2: Enviar requisição
+        ResponseEntity<byte[]> response = pipelineMetrics.time(PipelineMetrics.STAGE_TTS,
+                () -> httpClient.sendTTSRequest(payload));
+        log.debug(TTSConstants.REQUEST_SENT_LOG);
+
+        // Etapa 3: Processar resposta
+        byte[] audioBytes = responseProcessor.extractAudioBytes(response, audioFormat);
+        log.debug(TTSConstants.RESPONSE_PROCESSED_LOG);
+
+        return audioBytes;
     }
 }
\ No newline at end of file
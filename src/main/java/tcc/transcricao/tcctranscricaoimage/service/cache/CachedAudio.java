@@ -0,0 +1,37 @@
+package tcc.transcricao.tcctranscricaoimage.service.cache;
+
+import java.util.Base64;
+
+/**
+ * Áudio sintetizado armazenado uma única vez em bytes.
+ * A representação Base64 é calculada sob demanda e reaproveitada nas leituras seguintes.
+ */
+public final class CachedAudio {
+
+    private final byte[] bytes;
+    private volatile String base64;
+
+    public CachedAudio(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public String base64() {
+        String encoded = base64;
+        if (encoded == null) {
+            encoded = Base64.getEncoder().encodeToString(bytes);
+            base64 = encoded;
+        }
+        return encoded;
+    }
+
+    /**
+     * Peso em memória considerando os bytes e a string Base64 (Latin-1, 1 byte por caractere).
+     */
+    public long weight() {
+        return bytes.length + 4L * ((bytes.length + 2) / 3);
+    }
+}
@@ -0,0 +1,83 @@
+package tcc.transcricao.tcctranscricaoimage.service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.OpenAIConstants;
+
+/**
+ * Cache de descrições endereçado pelo conteúdo da imagem.
+ * A chave combina o SHA-256 dos bytes decodificados com a versão do prompt/modelo,
+ * de modo que mudanças no prompt invalidam o cache. Só cópias idênticas da imagem
+ * reaproveitam a descrição: imagens apenas parecidas nunca compartilham entrada.
+ */
+@Component
+@Slf4j
+public class ImageDescriptionCache {
+
+    private static final String CACHE_NAME = "image-description";
+
+    private final boolean enabled;
+    private final String promptVersion;
+    private final BoundedLruCache<String, String> cache;
+
+    public ImageDescriptionCache(@Value("${image.cache.enabled:true}") boolean enabled,
+                                 @Value("${image.cache.max-entries:1000}") int maxEntries,
+                                 @Value("${image.cache.max-bytes:4194304}") long maxBytes,
+                                 @Value("${openai.vision.detail:}") String visionDetail,
+                                 MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.promptVersion = ContentHasher.sha256(OpenAIConstants.GPT_4O_MODEL + "|"
+                + OpenAIConstants.MAX_TOKENS + "|" + visionDetail + "|" + OpenAIConstants.SYSTEM_PROMPT).substring(0, 12);
+        this.cache = new BoundedLruCache<>(maxEntries, maxBytes, description -> description.length() * 2L);
+
+        registerMetrics(meterRegistry);
+        log.info("Cache de descrições - Habilitado: {}, Máx. entradas: {}, Máx. bytes: {}",
+                enabled, maxEntries, maxBytes);
+    }
+
+    /**
+     * Calcula a chave do cache para a imagem informada.
+     * @return chave ou null se o cache estiver desabilitado ou a imagem estiver vazia
+     */
+    public String keyFor(byte[] imageBytes) {
+        if (!enabled || imageBytes == null || imageBytes.length == 0) {
+            return null;
+        }
+        return promptVersion + ":" + ContentHasher.sha256(imageBytes);
+    }
+
+    public String get(String key) {
+        return key == null ? null : cache.get(key);
+    }
+
+    public void put(String key, String description) {
+        if (key != null && description != null) {
+            cache.put(key, description);
+        }
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("cache.gets", cache, BoundedLruCache::hitCount)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, BoundedLruCache::missCount)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, BoundedLruCache::evictionCount)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", cache, BoundedLruCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.weighted.bytes", cache, BoundedLruCache::weightedSize)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", cache, BoundedLruCache::hitRatio)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package tcc.transcricao.tcctranscricaoimage.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa chamadas concorrentes com a mesma chave: a primeira executa o cálculo e as demais
+ * aguardam o mesmo resultado (ou a mesma exceção). Complementa o cache, cobrindo o intervalo
+ * em que o primeiro cálculo ainda não terminou; ao concluir, a chave deixa de estar em voo.
+ */
+public class SingleFlight<K, V> {
+
+    private final boolean enabled;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalescedCounter;
+
+    public SingleFlight(String name, boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.coalescedCounter = Counter.builder("singleflight.coalesced")
+                .description("Chamadas que aguardaram um cálculo idêntico já em andamento")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa {@code loader} na thread atual, ou aguarda a execução já em andamento para a chave.
+     * Chave nula executa sem agrupamento.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        if (!enabled || key == null) {
+            return loader.get();
+        }
+
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
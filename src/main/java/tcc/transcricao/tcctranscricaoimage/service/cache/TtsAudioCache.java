@@ -0,0 +1,232 @@
+package tcc.transcricao.tcctranscricaoimage.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Cache de áudios sintetizados, chaveado por (texto normalizado, voz, modelo, formato).
+ * Possui uma camada em memória (LRU limitada por bytes) e uma camada opcional em disco
+ * no volume de áudios da aplicação.
+ */
+@Component
+@Slf4j
+public class TtsAudioCache {
+
+    private static final String CACHE_NAME = "tts-audio";
+
+    private final boolean enabled;
+    private final boolean diskEnabled;
+    private final Path diskPath;
+    private final long diskMaxBytes;
+    private final BoundedLruCache<String, CachedAudio> memory;
+
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final ReentrantLock pruneLock = new ReentrantLock();
+    private final Counter diskHits;
+    private final Counter bytesSaved;
+
+    public TtsAudioCache(@Value("${tts.cache.enabled:true}") boolean enabled,
+                         @Value("${tts.cache.max-entries:500}") int maxEntries,
+                         @Value("${tts.cache.max-bytes:33554432}") long maxBytes,
+                         @Value("${tts.cache.disk.enabled:false}") boolean diskEnabled,
+                         @Value("${tts.cache.disk.path:/app/audios/tts-cache}") String diskPath,
+                         @Value("${tts.cache.disk.max-bytes:536870912}") long diskMaxBytes,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.diskEnabled = enabled && diskEnabled;
+        this.diskPath = Path.of(diskPath);
+        this.diskMaxBytes = diskMaxBytes;
+        this.memory = new BoundedLruCache<>(maxEntries, maxBytes, CachedAudio::weight);
+
+        this.diskHits = Counter.builder("cache.disk.hits")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("cache.bytes.saved")
+                .description("Bytes de áudio servidos pelo cache sem chamada à API TTS")
+                .baseUnit("bytes")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        registerMetrics(meterRegistry);
+
+        if (this.diskEnabled) {
+            initDiskTier();
+        }
+
+        log.info("Cache TTS - Habilitado: {}, Máx. entradas: {}, Máx. bytes: {}, Disco: {}",
+                enabled, maxEntries, maxBytes, this.diskEnabled ? diskPath : "desabilitado");
+    }
+
+    public String keyFor(String text, String voice, String model, String format) {
+        if (!enabled || text == null) {
+            return null;
+        }
+        return ContentHasher.sha256(normalize(text) + "|" + voice + "|" + model + "|" + format);
+    }
+
+    public CachedAudio get(String key) {
+        if (key == null) {
+            return null;
+        }
+
+        CachedAudio audio = memory.get(key);
+        if (audio == null && diskEnabled) {
+            audio = readFromDisk(key);
+            if (audio != null) {
+                diskHits.increment();
+                memory.put(key, audio);
+            }
+        }
+
+        if (audio != null) {
+            bytesSaved.increment(audio.bytes().length);
+        }
+        return audio;
+    }
+
+    public CachedAudio put(String key, byte[] audioBytes) {
+        CachedAudio audio = new CachedAudio(audioBytes);
+        if (key != null) {
+            memory.put(key, audio);
+            if (diskEnabled) {
+                writeToDisk(key, audioBytes);
+            }
+        }
+        return audio;
+    }
+
+    /**
+     * Normaliza o texto para que variações irrelevantes (espaços, forma Unicode)
+     * resultem na mesma chave.
+     */
+    private String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFC)
+                .strip()
+                .replaceAll("\\s+", " ");
+    }
+
+    private void initDiskTier() {
+        try {
+            Files.createDirectories(diskPath);
+            try (Stream<Path> files = Files.list(diskPath)) {
+                diskBytes.set(files.mapToLong(this::sizeOf).sum());
+            }
+            log.info("Camada em disco do cache TTS: {} bytes em {}", diskBytes.get(), diskPath);
+        } catch (IOException e) {
+            log.warn("Não foi possível inicializar o cache TTS em disco: {}", e.getMessage());
+        }
+    }
+
+    private CachedAudio readFromDisk(String key) {
+        Path file = diskPath.resolve(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return new CachedAudio(Files.readAllBytes(file));
+        } catch (IOException e) {
+            log.warn("Falha ao ler áudio do cache em disco: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, byte[] audioBytes) {
+        Path file = diskPath.resolve(key);
+        if (Files.exists(file)) {
+            return;
+        }
+        try {
+            Path temp = Files.createTempFile(diskPath, key, ".tmp");
+            Files.write(temp, audioBytes);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            if (diskBytes.addAndGet(audioBytes.length) > diskMaxBytes) {
+                pruneDisk();
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao gravar áudio no cache em disco: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Remove os arquivos mais antigos até que a camada em disco volte ao limite configurado.
+     * Se outra thread já está limpando, segue sem esperar (e sem prender uma virtual thread
+     * à portadora durante o I/O, como aconteceria com {@code synchronized}).
+     */
+    private void pruneDisk() {
+        if (!pruneLock.tryLock()) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(diskPath)) {
+            List<Path> oldestFirst = files
+                    .sorted(Comparator.comparingLong(this::lastModified))
+                    .toList();
+            for (Path file : oldestFirst) {
+                if (diskBytes.get() <= diskMaxBytes) {
+                    break;
+                }
+                long size = sizeOf(file);
+                Files.deleteIfExists(file);
+                diskBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao limpar cache TTS em disco: {}", e.getMessage());
+        } finally {
+            pruneLock.unlock();
+        }
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("cache.gets", memory, BoundedLruCache::hitCount)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", memory, BoundedLruCache::missCount)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", memory, BoundedLruCache::evictionCount)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", memory, BoundedLruCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.weighted.bytes", memory, BoundedLruCache::weightedSize)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", memory, BoundedLruCache::hitRatio)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.disk.bytes", diskBytes, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+}
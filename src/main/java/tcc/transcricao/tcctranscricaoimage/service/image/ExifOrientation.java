@@ -0,0 +1,104 @@
+package tcc.transcricao.tcctranscricaoimage.service.image;
+
+import java.awt.geom.AffineTransform;
+
+/**
+ * Leitura mínima da tag EXIF Orientation (0x0112) em arquivos JPEG,
+ * sem dependência de bibliotecas de metadados.
+ */
+final class ExifOrientation {
+
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final int NORMAL = 1;
+
+    private ExifOrientation() {} // Utility class
+
+    /**
+     * @return valor da orientação (1 a 8) ou 1 se ausente/ilegível
+     */
+    static int read(byte[] jpeg) {
+        if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) {
+            return NORMAL;
+        }
+
+        int offset = 2;
+        while (offset + 4 <= jpeg.length) {
+            if ((jpeg[offset] & 0xFF) != 0xFF) {
+                return NORMAL;
+            }
+            int marker = jpeg[offset + 1] & 0xFF;
+            int segmentLength = readUnsignedShort(jpeg, offset + 2, true);
+
+            // SOS ou EOI: dados de imagem começam, não há mais metadados
+            if (marker == 0xDA || marker == 0xD9) {
+                return NORMAL;
+            }
+            if (marker == 0xE1 && isExifHeader(jpeg, offset + 4)) {
+                return readOrientationFromTiff(jpeg, offset + 10, offset + 2 + segmentLength);
+            }
+            offset += 2 + segmentLength;
+        }
+        return NORMAL;
+    }
+
+    /**
+     * Transformação que leva a imagem armazenada para a orientação de exibição.
+     */
+    static AffineTransform toTransform(int orientation, int width, int height) {
+        return switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);       // espelhada horizontalmente
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height); // rotacionada 180°
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);      // espelhada verticalmente
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);            // transposta
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);      // rotacionar 90° horário
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width); // transversa
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);       // rotacionar 90° anti-horário
+            default -> new AffineTransform();
+        };
+    }
+
+    private static boolean isExifHeader(byte[] data, int offset) {
+        return offset + 6 <= data.length
+                && data[offset] == 'E' && data[offset + 1] == 'x'
+                && data[offset + 2] == 'i' && data[offset + 3] == 'f'
+                && data[offset + 4] == 0 && data[offset + 5] == 0;
+    }
+
+    private static int readOrientationFromTiff(byte[] data, int tiffStart, int segmentEnd) {
+        int end = Math.min(segmentEnd, data.length);
+        if (tiffStart + 8 > end) {
+            return NORMAL;
+        }
+
+        boolean bigEndian = data[tiffStart] == 'M' && data[tiffStart + 1] == 'M';
+        int ifdOffset = tiffStart + readInt(data, tiffStart + 4, bigEndian);
+        if (ifdOffset + 2 > end) {
+            return NORMAL;
+        }
+
+        int entries = readUnsignedShort(data, ifdOffset, bigEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifdOffset + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            if (readUnsignedShort(data, entry, bigEndian) == ORIENTATION_TAG) {
+                int value = readUnsignedShort(data, entry + 8, bigEndian);
+                return value >= 1 && value <= 8 ? value : NORMAL;
+            }
+        }
+        return NORMAL;
+    }
+
+    private static int readUnsignedShort(byte[] data, int offset, boolean bigEndian) {
+        int b0 = data[offset] & 0xFF;
+        int b1 = data[offset + 1] & 0xFF;
+        return bigEndian ? (b0 << 8) | b1 : (b1 << 8) | b0;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean bigEndian) {
+        int high = readUnsignedShort(data, bigEndian ? offset : offset + 2, bigEndian);
+        int low = readUnsignedShort(data, bigEndian ? offset + 2 : offset, bigEndian);
+        return (high << 16) | low;
+    }
+}
@@ -0,0 +1,34 @@
+package tcc.transcricao.tcctranscricaoimage.service.image;
+
+/**
+ * Detecção do tipo de imagem pelos bytes iniciais (magic numbers).
+ */
+public final class ImageFormat {
+
+    public static final String JPEG = "image/jpeg";
+    public static final String PNG = "image/png";
+    public static final String GIF = "image/gif";
+    public static final String WEBP = "image/webp";
+
+    private ImageFormat() {} // Utility class
+
+    /**
+     * @return mime type detectado ou image/jpeg quando desconhecido
+     */
+    public static String detectMimeType(byte[] data) {
+        if (data == null || data.length < 12) {
+            return JPEG;
+        }
+        if ((data[0] & 0xFF) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G') {
+            return PNG;
+        }
+        if (data[0] == 'G' && data[1] == 'I' && data[2] == 'F' && data[3] == '8') {
+            return GIF;
+        }
+        if (data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F'
+                && data[8] == 'W' && data[9] == 'E' && data[10] == 'B' && data[11] == 'P') {
+            return WEBP;
+        }
+        return JPEG;
+    }
+}
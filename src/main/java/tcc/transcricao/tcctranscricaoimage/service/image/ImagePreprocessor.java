@@ -0,0 +1,173 @@
+package tcc.transcricao.tcctranscricaoimage.service.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Prepara a imagem antes da chamada de visão: corrige a orientação EXIF, reduz a
+ * maior dimensão ao limite configurado e recodifica em JPEG com qualidade ajustada.
+ * Imagens que não podem ser decodificadas seguem inalteradas. Só é chamado quando a
+ * descrição não está em cache (ver {@code ImageDescriptionService}).
+ */
+@Component
+@Slf4j
+public class ImagePreprocessor {
+
+    private static final int SUBSAMPLING_HEADROOM = 2;
+
+    @Value("${image.preprocess.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.preprocess.max-edge:1024}")
+    private int maxEdge;
+
+    @Value("${image.preprocess.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${image.preprocess.skip-below-bytes:262144}")
+    private int skipBelowBytes;
+
+    public byte[] prepare(byte[] imageBytes) {
+        if (!enabled || imageBytes == null || imageBytes.length == 0) {
+            return imageBytes;
+        }
+
+        long start = System.nanoTime();
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                log.debug("Formato de imagem não suportado pelo pré-processamento, enviando original");
+                return imageBytes;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return prepare(imageBytes, reader, start);
+            } finally {
+                reader.dispose();
+            }
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Falha no pré-processamento da imagem, enviando original: {}", e.getMessage());
+            return imageBytes;
+        }
+    }
+
+    /**
+     * Decide pelo cabeçalho (dimensões, orientação EXIF, formato e tamanho) se a imagem
+     * precisa ser tocada; só então decodifica os pixels, já subamostrados quando a
+     * origem é muito maior que o limite.
+     */
+    private byte[] prepare(byte[] imageBytes, ImageReader reader, long start) throws IOException {
+        int sourceWidth = reader.getWidth(0);
+        int sourceHeight = reader.getHeight(0);
+
+        int orientation = ExifOrientation.read(imageBytes);
+        boolean needsRotation = orientation > 1 && orientation <= 8;
+        boolean needsResize = Math.max(sourceWidth, sourceHeight) > maxEdge;
+        boolean isJpeg = ImageFormat.JPEG.equals(ImageFormat.detectMimeType(imageBytes));
+
+        if (!needsRotation && !needsResize && isJpeg && imageBytes.length <= skipBelowBytes) {
+            return imageBytes;
+        }
+
+        ImageReadParam readParam = reader.getDefaultReadParam();
+        int subsampling = subsamplingFor(Math.max(sourceWidth, sourceHeight));
+        if (subsampling > 1) {
+            readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        }
+        BufferedImage source = reader.read(0, readParam);
+
+        BufferedImage prepared = transform(source, orientation);
+        byte[] encoded = encodeJpeg(prepared);
+
+        // Sem ajuste geométrico, só vale a pena trocar se a recodificação reduziu o tamanho
+        if (!needsRotation && !needsResize && encoded.length >= imageBytes.length) {
+            return imageBytes;
+        }
+
+        log.info("Imagem pré-processada - {}x{} -> {}x{}, {} -> {} bytes, orientação EXIF: {}, subamostragem: {}, {} ms",
+                sourceWidth, sourceHeight, prepared.getWidth(), prepared.getHeight(),
+                imageBytes.length, encoded.length, orientation, subsampling, (System.nanoTime() - start) / 1_000_000);
+        return encoded;
+    }
+
+    /**
+     * Fator inteiro de subamostragem na leitura: mantém ao menos o dobro do limite na
+     * maior dimensão, para que a redução bicúbica final preserve a nitidez, sem
+     * decodificar todos os pixels de fotos de câmera.
+     */
+    private int subsamplingFor(int longestEdge) {
+        return Math.max(1, longestEdge / (maxEdge * SUBSAMPLING_HEADROOM));
+    }
+
+    /**
+     * Aplica orientação EXIF e redução de escala em um único desenho sobre fundo branco
+     * (JPEG não suporta transparência).
+     */
+    private BufferedImage transform(BufferedImage source, int orientation) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        boolean swapsAxes = orientation >= 5 && orientation <= 8;
+
+        int orientedWidth = swapsAxes ? height : width;
+        int orientedHeight = swapsAxes ? width : height;
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(orientedWidth, orientedHeight));
+
+        int targetWidth = Math.max(1, (int) Math.round(orientedWidth * scale));
+        int targetHeight = Math.max(1, (int) Math.round(orientedHeight * scale));
+
+        AffineTransform transform = AffineTransform.getScaleInstance(scale, scale);
+        transform.concatenate(ExifOrientation.toTransform(orientation, width, height));
+
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            ImageWriteParam params = writer.getDefaultWriteParam();
+            params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            params.setCompressionQuality(jpegQuality);
+
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,33 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+/**
+ * Faixas logarítmicas para histogramas de latência: cada faixa cobre valores até
+ * {@code GAMMA} vezes maiores que a anterior, com erro relativo de no máximo ~2,5%.
+ */
+public final class LatencyHistogram {
+
+    private static final double GAMMA = 1.05;
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private LatencyHistogram() {} // Utility class
+
+    /**
+     * Faixa do valor em milissegundos; valores até 1 ms ficam na faixa 0.
+     */
+    public static int bin(long millis) {
+        if (millis <= 1) {
+            return 0;
+        }
+        return (int) Math.ceil(Math.log(millis) / LOG_GAMMA);
+    }
+
+    /**
+     * Valor representativo da faixa (média entre os limites, com o menor erro relativo).
+     */
+    public static long value(int bin) {
+        if (bin <= 0) {
+            return 1;
+        }
+        return Math.round(2 * Math.pow(GAMMA, bin) / (GAMMA + 1));
+    }
+}
@@ -0,0 +1,72 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Percentis de latência por intervalo, calculados a partir dos histogramas da tabela de agregados.
+ */
+@Service
+@RequiredArgsConstructor
+public class LatencyReportService {
+
+    private static final String SELECT_SQL = """
+            SELECT bucket_start, metric, bin, count
+            FROM public.performance_metric_rollup
+            WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?
+            ORDER BY bucket_start, metric, bin""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Percentiles(long count, long p50, long p90, long p99) {}
+
+    public record Bucket(LocalDateTime start, Map<String, Percentiles> metrics) {}
+
+    public List<Bucket> percentiles(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        // bucket -> métrica -> (faixa -> contagem), em ordem crescente de faixa
+        Map<LocalDateTime, Map<String, TreeMap<Integer, Long>>> histograms = new TreeMap<>();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            histograms.computeIfAbsent(rs.getTimestamp("bucket_start").toLocalDateTime(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(rs.getString("metric"), k -> new TreeMap<>())
+                    .merge(rs.getInt("bin"), rs.getLong("count"), Long::sum);
+        }, granularity.code(), Timestamp.valueOf(granularity.truncate(from)), Timestamp.valueOf(to));
+
+        List<Bucket> buckets = new ArrayList<>(histograms.size());
+        histograms.forEach((start, metrics) -> {
+            Map<String, Percentiles> percentiles = new LinkedHashMap<>();
+            metrics.forEach((metric, histogram) -> percentiles.put(metric, toPercentiles(histogram)));
+            buckets.add(new Bucket(start, percentiles));
+        });
+        return buckets;
+    }
+
+    private Percentiles toPercentiles(TreeMap<Integer, Long> histogram) {
+        long total = histogram.values().stream().mapToLong(Long::longValue).sum();
+        return new Percentiles(total,
+                quantile(histogram, total, 0.50),
+                quantile(histogram, total, 0.90),
+                quantile(histogram, total, 0.99));
+    }
+
+    private long quantile(TreeMap<Integer, Long> histogram, long total, double quantile) {
+        // Posição (1-based) da medição correspondente ao percentil
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long cumulative = 0;
+        for (Map.Entry<Integer, Long> entry : histogram.entrySet()) {
+            cumulative += entry.getValue();
+            if (cumulative >= rank) {
+                return LatencyHistogram.value(entry.getKey());
+            }
+        }
+        return LatencyHistogram.value(histogram.lastKey());
+    }
+}
@@ -0,0 +1,77 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.model.PerformanceMetric;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Atualização incremental da tabela performance_metric_rollup: cada lote de métricas é
+ * agregado em memória e somado aos histogramas existentes com INSERT ... ON CONFLICT.
+ */
+@Component
+@RequiredArgsConstructor
+public class LatencyRollupUpdater {
+
+    public static final Map<String, ToLongFunction<PerformanceMetric>> METRICS = Map.of(
+            "tempoDescricao", PerformanceMetric::getTempoDescricao,
+            "tempoTts", PerformanceMetric::getTempoTts,
+            "tempoEnvio", PerformanceMetric::getTempoEnvio,
+            "tempoTotal", PerformanceMetric::getTempoTotal
+    );
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO public.performance_metric_rollup (granularity, bucket_start, metric, bin, count)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (granularity, bucket_start, metric, bin)
+            DO UPDATE SET count = performance_metric_rollup.count + EXCLUDED.count""";
+
+    // Ordem fixa das linhas evita deadlock entre gravações concorrentes
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+            .comparing(RollupKey::granularity)
+            .thenComparing(RollupKey::bucketStart)
+            .thenComparing(RollupKey::metric)
+            .thenComparingInt(RollupKey::bin);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record RollupKey(String granularity, LocalDateTime bucketStart, String metric, int bin) {}
+
+    public void apply(List<PerformanceMetric> metrics) {
+        Map<RollupKey, Long> counts = new HashMap<>();
+        for (PerformanceMetric metric : metrics) {
+            if (metric.getData() == null) {
+                continue;
+            }
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucketStart = granularity.truncate(metric.getData());
+                METRICS.forEach((name, getter) -> counts.merge(
+                        new RollupKey(granularity.code(), bucketStart, name,
+                                LatencyHistogram.bin(getter.applyAsLong(metric))),
+                        1L, Long::sum));
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<RollupKey, Long>> rows = new ArrayList<>(counts.entrySet());
+        rows.sort(Map.Entry.comparingByKey(KEY_ORDER));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.getKey().granularity());
+            ps.setTimestamp(2, Timestamp.valueOf(row.getKey().bucketStart()));
+            ps.setString(3, row.getKey().metric());
+            ps.setInt(4, row.getKey().bin());
+            ps.setLong(5, row.getValue());
+        });
+    }
+}
@@ -0,0 +1,226 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tcc.transcricao.tcctranscricaoimage.model.PerformanceMetric;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação das métricas de performance fora do caminho da requisição (write-behind).
+ * As métricas entram numa fila limitada e uma thread de fundo as grava em lotes
+ * (INSERT em batch via JDBC) ao atingir o tamanho do lote ou o intervalo de flush.
+ * Na mesma transação, os histogramas da tabela de agregados são atualizados.
+ */
+@Component
+@Slf4j
+public class PerformanceMetricWriter {
+
+    public static final String OVERFLOW_DROP_NEWEST = "drop-newest";
+    public static final String OVERFLOW_DROP_OLDEST = "drop-oldest";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO public.performance_metric
+                (tempo_descricao, tempo_tts, tempo_envio, tempo_total, phone, data)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LatencyRollupUpdater rollupUpdater;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final String overflowPolicy;
+    private final ArrayBlockingQueue<PendingMetric> queue;
+
+    private final Counter enqueuedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    private record PendingMetric(PerformanceMetric metric, long enqueuedAtNanos) {}
+
+    public PerformanceMetricWriter(JdbcTemplate jdbcTemplate,
+                                   LatencyRollupUpdater rollupUpdater,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${metrics.writer.enabled:true}") boolean enabled,
+                                   @Value("${metrics.writer.capacity:10000}") int capacity,
+                                   @Value("${metrics.writer.batch-size:200}") int batchSize,
+                                   @Value("${metrics.writer.flush-interval:1s}") Duration flushInterval,
+                                   @Value("${metrics.writer.overflow-policy:" + OVERFLOW_DROP_NEWEST + "}") String overflowPolicy,
+                                   MeterRegistry meterRegistry,
+                                   PipelineMetrics pipelineMetrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupUpdater = rollupUpdater;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+
+        this.enqueuedCounter = Counter.builder("metrics.writer.enqueued").register(meterRegistry);
+        this.droppedCounter = Counter.builder("metrics.writer.dropped").register(meterRegistry);
+        this.writtenCounter = Counter.builder("metrics.writer.written").register(meterRegistry);
+        this.failedCounter = Counter.builder("metrics.writer.failed").register(meterRegistry);
+        // Cada lote gravado conta como a etapa de escrita no banco do pipeline
+        this.flushTimer = pipelineMetrics.stageTimer(PipelineMetrics.STAGE_DB_WRITE);
+        this.batchSizeSummary = DistributionSummary.builder("metrics.writer.batch.size").register(meterRegistry);
+        Gauge.builder("metrics.writer.queue.size", queue, ArrayBlockingQueue::size).register(meterRegistry);
+        // Idade da métrica mais antiga ainda não gravada
+        Gauge.builder("metrics.writer.lag", this, PerformanceMetricWriter::currentLagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        log.info("Gravação de métricas - Assíncrona: {}, Capacidade: {}, Lote: {}, Intervalo: {}, Estouro: {}",
+                enabled, capacity, batchSize, flushInterval, overflowPolicy);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = Thread.ofPlatform().name("metrics-writer").daemon(true).start(this::flushLoop);
+    }
+
+    /**
+     * Enfileira a métrica para gravação em lote. Nunca bloqueia a requisição:
+     * com a fila cheia a métrica nova (ou a mais antiga) é descartada conforme a política.
+     */
+    public void submit(PerformanceMetric metric) {
+        if (!enabled) {
+            writeBatch(List.of(new PendingMetric(metric, System.nanoTime())));
+            return;
+        }
+
+        PendingMetric pending = new PendingMetric(metric, System.nanoTime());
+        if (!queue.offer(pending)) {
+            if (OVERFLOW_DROP_OLDEST.equalsIgnoreCase(overflowPolicy)) {
+                queue.poll();
+                droppedCounter.increment();
+                if (!queue.offer(pending)) {
+                    droppedCounter.increment();
+                    return;
+                }
+            } else {
+                droppedCounter.increment();
+                log.debug("Fila de métricas cheia ({}), métrica descartada", queue.size());
+                return;
+            }
+        }
+        enqueuedCounter.increment();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Grava o que restou na fila antes do encerramento
+        List<PendingMetric> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+        log.info("Gravação de métricas encerrada");
+    }
+
+    private void flushLoop() {
+        List<PendingMetric> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingMetric first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Aguarda completar o lote até o fim do intervalo, contado a partir da primeira métrica
+                long deadline = first.enqueuedAtNanos() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingMetric next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Encerramento: o restante da fila é gravado em stop()
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingMetric> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, pending) -> {
+                    PerformanceMetric metric = pending.metric();
+                    ps.setLong(1, metric.getTempoDescricao());
+                    ps.setLong(2, metric.getTempoTts());
+                    ps.setLong(3, metric.getTempoEnvio());
+                    ps.setLong(4, metric.getTempoTotal());
+                    ps.setString(5, metric.getPhone());
+                    ps.setTimestamp(6, metric.getData() != null ? Timestamp.valueOf(metric.getData()) : null);
+                });
+                rollupUpdater.apply(batch.stream().map(PendingMetric::metric).toList());
+            });
+            writtenCounter.increment(batch.size());
+            log.debug("Lote de {} métricas gravado", batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("Erro ao gravar lote de {} métricas de performance", batch.size(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizeSummary.record(batch.size());
+        }
+    }
+
+    private double currentLagMillis() {
+        PendingMetric oldest = queue.peek();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedAtNanos()) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,132 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Métricas do pipeline de imagem: tempo por etapa (com histograma para p95/p99 no Prometheus),
+ * tamanho dos payloads, quantidade de imagens em processamento e erros por tipo de exceção.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_WEBHOOK_PARSE = "webhook.parse";
+    public static final String STAGE_VISION = "vision";
+    public static final String STAGE_TTS = "tts";
+    public static final String STAGE_BRIDGE_SEND = "bridge.send";
+    public static final String STAGE_DB_WRITE = "db.write";
+
+    public static final String PAYLOAD_IMAGE_INBOUND = "image.inbound";
+    public static final String PAYLOAD_IMAGE_UPLOAD = "image.upload";
+    public static final String PAYLOAD_AUDIO = "audio";
+
+    private static final String STAGE_START_PROPERTY_PREFIX = "stageStart.";
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer totalTimer;
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.totalTimer = Timer.builder("pipeline.total.duration")
+                .description("Tempo total do pipeline de uma imagem")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(100))
+                .maximumExpectedValue(Duration.ofMinutes(2))
+                .register(meterRegistry);
+        Gauge.builder("pipeline.inflight", inFlight, AtomicInteger::get)
+                .description("Imagens em processamento")
+                .register(meterRegistry);
+    }
+
+    public Timer stageTimer(String stage) {
+        return Timer.builder("pipeline.stage.duration")
+                .description("Tempo de cada etapa do pipeline")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(2))
+                .register(meterRegistry);
+    }
+
+    public <T> T time(String stage, Supplier<T> action) {
+        return stageTimer(stage).record(action);
+    }
+
+    /**
+     * Registra o tempo da etapa iniciada em {@code startNanos} ({@link System#nanoTime()}).
+     */
+    public void recordStage(String stage, long startNanos) {
+        stageTimer(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPayloadSize(String payload, long bytes) {
+        DistributionSummary.builder("pipeline.payload.size")
+                .description("Tamanho dos payloads do pipeline")
+                .baseUnit("bytes")
+                .tag("payload", payload)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(16.0 * 1024 * 1024)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    public void recordError(Throwable exception) {
+        Counter.builder("pipeline.errors")
+                .description("Erros do pipeline por tipo de exceção")
+                .tag("exception", exception == null ? "unknown" : exception.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Conta a imagem como em processamento até o fim do exchange e registra o tempo total.
+     */
+    public Processor trackInFlight() {
+        return exchange -> {
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+            exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange completed) {
+                    inFlight.decrementAndGet();
+                    totalTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        };
+    }
+
+    /**
+     * Marca o início de uma etapa executada por um endpoint Camel (ex.: envio ao bridge).
+     */
+    public Processor startStage(String stage) {
+        return exchange -> exchange.setProperty(STAGE_START_PROPERTY_PREFIX + stage, System.nanoTime());
+    }
+
+    /**
+     * Registra o tempo desde {@link #startStage(String)}.
+     */
+    public Processor stopStage(String stage) {
+        Timer timer = stageTimer(stage);
+        return exchange -> {
+            Long start = exchange.getProperty(STAGE_START_PROPERTY_PREFIX + stage, Long.class);
+            if (start != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                exchange.removeProperty(STAGE_START_PROPERTY_PREFIX + stage);
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Tamanhos de intervalo mantidos na tabela de agregados.
+ */
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public String code() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+
+    public static RollupGranularity fromCode(String code) {
+        for (RollupGranularity granularity : values()) {
+            if (granularity.code().equalsIgnoreCase(code)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("Granularidade inválida: " + code + " (use minute, hour ou day)");
+    }
+}
@@ -0,0 +1,75 @@
+package tcc.transcricao.tcctranscricaoimage.service.openai;
+
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import tcc.transcricao.tcctranscricaoimage.constants.OpenAIConstants;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decodificação do corpo da resposta conforme o Content-Encoding (br, gzip, deflate),
+ * feita em streaming: os bytes são descomprimidos à medida que o parser os consome.
+ */
+public final class ContentDecoder {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private ContentDecoder() {} // Utility class
+
+    /**
+     * Envolve o corpo com os decodificadores do Content-Encoding. Com várias codificações
+     * ("gzip, br") a última aplicada pelo servidor é a primeira a ser desfeita.
+     * @throws IOException se alguma codificação não for suportada
+     */
+    public static InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        if (contentEncoding == null || contentEncoding.isBlank()) {
+            return body;
+        }
+
+        String[] encodings = contentEncoding.split(",");
+        InputStream decoded = body;
+        for (int i = encodings.length - 1; i >= 0; i--) {
+            decoded = decodeSingle(decoded, encodings[i].strip().toLowerCase());
+        }
+        return decoded;
+    }
+
+    private static InputStream decodeSingle(InputStream body, String encoding) throws IOException {
+        return switch (encoding) {
+            case "", OpenAIConstants.IDENTITY_ENCODING -> body;
+            case OpenAIConstants.BROTLI_ENCODING -> new BrotliInputStream(body, BUFFER_SIZE);
+            case OpenAIConstants.GZIP_ENCODING, "x-gzip" -> new GZIPInputStream(body, BUFFER_SIZE);
+            case OpenAIConstants.DEFLATE_ENCODING -> inflate(body);
+            default -> throw new IOException(OpenAIConstants.UNSUPPORTED_ENCODING_ERROR.formatted(encoding));
+        };
+    }
+
+    /**
+     * "deflate" deveria vir com cabeçalho zlib, mas alguns servidores enviam o fluxo cru:
+     * os dois primeiros bytes indicam qual dos formatos chegou.
+     */
+    private static InputStream inflate(InputStream body) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(body, BUFFER_SIZE);
+        buffered.mark(2);
+        int cmf = buffered.read();
+        int flg = buffered.read();
+        buffered.reset();
+
+        boolean zlibWrapped = cmf >= 0 && flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        Inflater inflater = new Inflater(!zlibWrapped);
+        return new InflaterInputStream(buffered, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end(); // Inflater próprio não é liberado pelo close() padrão
+                }
+            }
+        };
+    }
+}
@@ -4,13 +4,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import tcc.transcricao.tcctranscricaoimage.constants.OpenAIConstants;
+import tcc.transcricao.tcctranscricaoimage.exception.CircuitOpenException;
 import tcc.transcricao.tcctranscricaoimage.exception.DescricaoImagemException;
+import tcc.transcricao.tcctranscricaoimage.service.resilience.UpstreamResilience;
+import tcc.transcricao.tcctranscricaoimage.service.resilience.UpstreamResilienceRegistry;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
 @RequiredArgsConstructor
@@ -20,33 +29,89 @@ public class OpenAIHttpClient {
     @Value("${openai.api.key}")
     private String openAiApiKey;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${openai.api.base-url:" + OpenAIConstants.DEFAULT_OPENAI_BASE_URL + "}")
+    private String openAiBaseUrl;
 
-    public ResponseEntity<byte[]> sendRequest(String payload) throws DescricaoImagemException {
+    private final RestTemplate restTemplate;
+    private final UpstreamResilienceRegistry resilienceRegistry;
+
+    /**
+     * Envia a requisição e entrega o corpo da resposta ao leitor enquanto é recebido,
+     * sem copiá-lo antes para um array. Falhas HTTP são tratadas antes do leitor.
+     */
+    public <T> T sendRequest(String payload, ResponseExtractor<T> responseReader) throws DescricaoImagemException {
         try {
             log.debug("Enviando requisição para OpenAI API");
 
             HttpHeaders headers = buildHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(payload, headers);
+            byte[] body = payload.getBytes(StandardCharsets.UTF_8);
 
-            ResponseEntity<byte[]> response = restTemplate.exchange(
-                    OpenAIConstants.OPENAI_API_URL,
+            return resilience().execute(() -> restTemplate.execute(
+                    openAiBaseUrl + OpenAIConstants.CHAT_COMPLETIONS_PATH,
                     HttpMethod.POST,
-                    entity,
-                    byte[].class
-            );
-
-            validateResponse(response);
+                    request -> writeBody(request, headers, body),
+                    response -> {
+                        validateResponse(response);
+                        log.info("Requisição OpenAI bem-sucedida - Status: {}", response.getStatusCode());
+                        return responseReader.extractData(response);
+                    }
+            ));
+
+        } catch (RestClientException | CircuitOpenException e) {
+            log.error("Erro na comunicação com OpenAI API", e);
+            throw new DescricaoImagemException(OpenAIConstants.OPENAI_ERROR_MESSAGE + ": " + e.getMessage(), e);
+        }
+    }
 
-            log.info("Requisição OpenAI bem-sucedida - Status: {}", response.getStatusCode());
-            return response;
+    /**
+     * Envia a requisição em modo streaming e entrega o corpo (eventos SSE) ao leitor
+     * enquanto ainda está sendo recebido.
+     */
+    public <T> T streamRequest(String payload, ResponseExtractor<T> eventStreamReader) throws DescricaoImagemException {
+        try {
+            log.debug("Enviando requisição em streaming para OpenAI API");
 
-        } catch (RestClientException e) {
-            log.error("Erro na comunicação com OpenAI API", e);
+            HttpHeaders headers = buildHeaders();
+            headers.setAccept(Collections.singletonList(MediaType.TEXT_EVENT_STREAM));
+            // Sem compressão nos eventos: o descompressor retém bytes e atrasaria os fragmentos
+            headers.set(OpenAIConstants.ACCEPT_ENCODING_HEADER, OpenAIConstants.IDENTITY_ENCODING);
+            byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+
+            // Sem hedge, e retry apenas enquanto nenhum trecho foi entregue ao leitor
+            T result = resilience().execute(() -> {
+                AtomicBoolean streamStarted = new AtomicBoolean();
+                try {
+                    return restTemplate.execute(
+                            openAiBaseUrl + OpenAIConstants.CHAT_COMPLETIONS_PATH,
+                            HttpMethod.POST,
+                            request -> writeBody(request, headers, body),
+                            response -> {
+                                validateResponse(response);
+                                streamStarted.set(true);
+                                return eventStreamReader.extractData(response);
+                            }
+                    );
+                } catch (RestClientException e) {
+                    if (streamStarted.get()) {
+                        throw new DescricaoImagemException("Streaming OpenAI interrompido: " + e.getMessage(), e);
+                    }
+                    throw e;
+                }
+            }, false);
+
+            log.info("Streaming OpenAI concluído");
+            return result;
+
+        } catch (RestClientException | CircuitOpenException e) {
+            log.error("Erro na comunicação em streaming com OpenAI API", e);
             throw new DescricaoImagemException(OpenAIConstants.OPENAI_ERROR_MESSAGE + ": " + e.getMessage(), e);
         }
     }
 
+    private UpstreamResilience resilience() {
+        return resilienceRegistry.forEndpoint(UpstreamResilienceRegistry.ENDPOINT_VISION);
+    }
+
     private HttpHeaders buildHeaders() {
         validateApiKey();
 
@@ -54,6 +119,8 @@ public class OpenAIHttpClient {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setBearerAuth(openAiApiKey);
         headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        // Compressão negociada aqui e desfeita em streaming pelo leitor da resposta
+        headers.set(OpenAIConstants.ACCEPT_ENCODING_HEADER, OpenAIConstants.ACCEPTED_ENCODINGS);
 
         log.debug("Headers HTTP configurados para OpenAI");
         return headers;
@@ -65,15 +132,17 @@ public class OpenAIHttpClient {
         }
     }
 
-    private void validateResponse(ResponseEntity<byte[]> response) throws DescricaoImagemException {
+    private void writeBody(ClientHttpRequest request, HttpHeaders headers, byte[] body) throws IOException {
+        request.getHeaders().putAll(headers);
+        request.getHeaders().setContentLength(body.length);
+        request.getBody().write(body);
+    }
+
+    private void validateResponse(ClientHttpResponse response) throws IOException {
         if (response.getStatusCode() != HttpStatus.OK) {
             String errorMessage = String.format("%s - Status: %s",
                     OpenAIConstants.OPENAI_ERROR_MESSAGE, response.getStatusCode());
             throw new DescricaoImagemException(errorMessage);
         }
-
-        if (response.getBody() == null || response.getBody().length == 0) {
-            throw new DescricaoImagemException(OpenAIConstants.EMPTY_RESPONSE_ERROR);
-        }
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,106 @@
 package tcc.transcricao.tcctranscricaoimage.service.openai;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.OpenAIConstants;
+import tcc.transcricao.tcctranscricaoimage.service.image.ImageFormat;
+
+import java.util.Base64;
+import java.util.List;
 
 @Component
 @Slf4j
 public class OpenAIPayloadBuilder {
 
+    // Nível de detalhe da visão (low, high, auto); vazio omite o campo e usa o padrão da API
+    @Value("${openai.vision.detail:}")
+    private String visionDetail;
+
+    public String buildImageDescriptionPayload(byte[] imageBytes) {
+        if (imageBytes == null || imageBytes.length == 0) {
+            throw new IllegalArgumentException(OpenAIConstants.INVALID_BASE64_ERROR);
+        }
+
+        // Base64 gerado localmente a partir dos bytes já decodificados dispensa a validação por regex
+        return buildPayload(ImageFormat.detectMimeType(imageBytes), Base64.getEncoder().encodeToString(imageBytes), false);
+    }
+
+    /**
+     * Mesmo payload com {@code "stream": true}: a resposta chega como eventos SSE com fragmentos do texto.
+     */
+    public String buildStreamingImageDescriptionPayload(byte[] imageBytes) {
+        if (imageBytes == null || imageBytes.length == 0) {
+            throw new IllegalArgumentException(OpenAIConstants.INVALID_BASE64_ERROR);
+        }
+
+        return buildPayload(ImageFormat.detectMimeType(imageBytes), Base64.getEncoder().encodeToString(imageBytes), true);
+    }
+
+    /**
+     * Payload de álbum: o prompt do sistema vai uma única vez e cada imagem entra como uma parte
+     * {@code image_url} da mesma mensagem. A resposta é um JSON com uma descrição por imagem.
+     */
+    public String buildAlbumDescriptionPayload(List<byte[]> images) {
+        if (images == null || images.isEmpty() || images.stream().anyMatch(image -> image == null || image.length == 0)) {
+            throw new IllegalArgumentException(OpenAIConstants.INVALID_BASE64_ERROR);
+        }
+        log.debug("Construindo payload de álbum com {} imagens", images.size());
+
+        StringBuilder content = new StringBuilder();
+        content.append("""
+                 {
+                   "type": "text",
+                   "text": "%s"
+                 }""".formatted(escapeJsonString(OpenAIConstants.ALBUM_INSTRUCTION.formatted(images.size(), images.size()))));
+        for (byte[] image : images) {
+            content.append(",\n").append("""
+                 {
+                   "type": "image_url",
+                   "image_url": {
+                     "url": "%s"%s
+                   }
+                 }""".formatted(
+                    OpenAIConstants.IMAGE_URL_TEMPLATE.formatted(ImageFormat.detectMimeType(image),
+                            Base64.getEncoder().encodeToString(image)),
+                    buildDetailField()));
+        }
+
+        String payload = """
+        {
+           "model": "%s",
+           "messages": [
+             {
+               "role": "system",
+               "content": "%s"
+             },
+             {
+               "role": "user",
+               "content": [
+        %s
+               ]
+             }
+           ],
+           "response_format": { "type": "json_object" },
+           "max_tokens": %d
+         }
+        """.formatted(
+                OpenAIConstants.GPT_4O_MODEL,
+                escapeJsonString(OpenAIConstants.SYSTEM_PROMPT),
+                content,
+                OpenAIConstants.MAX_TOKENS * images.size()
+        );
+
+        log.debug("Payload de álbum construído com sucesso - Tamanho: {} caracteres", payload.length());
+        return payload;
+    }
+
     public String buildImageDescriptionPayload(String base64Image) {
         validateBase64Image(base64Image);
+        return buildPayload(detectMimeType(base64Image), base64Image, false);
+    }
 
+    private String buildPayload(String mimeType, String base64Image, boolean stream) {
         log.debug("Construindo payload para descrição de imagem");
 
         String payload = """
@@ -27,25 +117,40 @@ public class OpenAIPayloadBuilder {
                  {
                    "type": "image_url",
                    "image_url": {
-                     "url": "%s"
+                     "url": "%s"%s
                    }
                  }
                ]
              }
            ],
-           "max_tokens": %d
+           "max_tokens": %d%s
          }
         """.formatted(
                 OpenAIConstants.GPT_4O_MODEL,
                 escapeJsonString(OpenAIConstants.SYSTEM_PROMPT),
-                OpenAIConstants.IMAGE_URL_TEMPLATE.formatted(base64Image),
-                OpenAIConstants.MAX_TOKENS
+                OpenAIConstants.IMAGE_URL_TEMPLATE.formatted(mimeType, base64Image),
+                buildDetailField(),
+                OpenAIConstants.MAX_TOKENS,
+                stream ? ",\n           \"stream\": true" : ""
         );
 
         log.debug("Payload construído com sucesso - Tamanho: {} caracteres", payload.length());
         return payload;
     }
 
+    private String buildDetailField() {
+        if (visionDetail == null || visionDetail.isBlank()) {
+            return "";
+        }
+        return ",\n             \"detail\": \"%s\"".formatted(visionDetail.trim());
+    }
+
+    private String detectMimeType(String base64Image) {
+        // Decodifica apenas o prefixo necessário para identificar o formato
+        int prefixLength = Math.min(base64Image.length(), 16) & ~3;
+        return ImageFormat.detectMimeType(Base64.getDecoder().decode(base64Image.substring(0, prefixLength)));
+    }
+
     private void validateBase64Image(String base64Image) {
         if (base64Image == null || base64Image.trim().isEmpty()) {
             throw new IllegalArgumentException(OpenAIConstants.INVALID_BASE64_ERROR);
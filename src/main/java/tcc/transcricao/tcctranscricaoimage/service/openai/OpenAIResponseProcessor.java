@@ -1,17 +1,23 @@
 package tcc.transcricao.tcctranscricaoimage.service.openai;
 
-import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
 import tcc.transcricao.tcctranscricaoimage.constants.OpenAIConstants;
 import tcc.transcricao.tcctranscricaoimage.exception.DescricaoImagemException;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 @Component
 @Slf4j
@@ -19,83 +25,171 @@ public class OpenAIResponseProcessor {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public String extractDescription(ResponseEntity<byte[]> response) throws DescricaoImagemException {
+    /**
+     * Lê a descrição direto do corpo da resposta HTTP, sem materializá-lo em memória.
+     */
+    public String extractDescription(ClientHttpResponse response) throws DescricaoImagemException {
         try {
-            log.debug("Processando resposta da OpenAI");
-
-            byte[] responseBody = response.getBody();
             String contentEncoding = response.getHeaders().getFirst(OpenAIConstants.CONTENT_ENCODING_HEADER);
+            return extractDescription(response.getBody(), contentEncoding);
+        } catch (IOException e) {
+            log.error("Erro ao ler resposta da OpenAI", e);
+            throw new DescricaoImagemException(OpenAIConstants.JSON_PARSING_ERROR, e);
+        }
+    }
 
-            JsonNode jsonNode = parseResponseToJson(contentEncoding, responseBody);
-            String description = extractDescriptionFromJson(jsonNode);
-
-            log.info("Descrição extraída com sucesso - {} caracteres", description.length());
-            return description;
-
+    /**
+     * O corpo é descomprimido conforme o Content-Encoding à medida que o parser de streaming
+     * avança, e apenas {@code choices[0].message.content} é extraído; o restante é ignorado
+     * sem montar a árvore do JSON.
+     */
+    public String extractDescription(InputStream body, String contentEncoding) throws DescricaoImagemException {
+        log.debug("Processando resposta da OpenAI - Content-Encoding: {}", contentEncoding);
+
+        String description;
+        try (JsonParser parser = objectMapper.getFactory().createParser(ContentDecoder.decode(body, contentEncoding))) {
+            description = readMessageContent(parser);
         } catch (IOException e) {
             log.error("Erro ao processar resposta da OpenAI", e);
             throw new DescricaoImagemException(OpenAIConstants.JSON_PARSING_ERROR, e);
         }
+
+        if (description == null || description.trim().isEmpty()) {
+            throw new DescricaoImagemException("Descrição vazia retornada pela OpenAI");
+        }
+
+        log.info("Descrição extraída com sucesso - {} caracteres", description.length());
+        return description.trim();
     }
 
-    private JsonNode parseResponseToJson(String contentEncoding, byte[] responseBody) throws IOException {
-        byte[] jsonBytes = decompressIfNeeded(contentEncoding, responseBody);
-        String jsonString = new String(jsonBytes, StandardCharsets.UTF_8);
+    /**
+     * Separa o conteúdo da resposta de um álbum ({"descricoes": [...]}) em uma descrição por imagem.
+     * Conteúdo fora do formato esperado resulta em lista vazia; quem chama compara a
+     * quantidade com a de imagens enviadas.
+     */
+    public List<String> parseAlbumDescriptions(String content) {
+        List<String> descriptions = new ArrayList<>();
+        try {
+            JsonNode descriptionsNode = objectMapper.readTree(content).path(OpenAIConstants.DESCRIPTIONS_PATH);
+            for (JsonNode descriptionNode : descriptionsNode) {
+                if (descriptionNode.isTextual() && !descriptionNode.asText().isBlank()) {
+                    descriptions.add(descriptionNode.asText().strip());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Resposta do álbum não está no formato JSON esperado: {}", e.getMessage());
+            return List.of();
+        }
 
-        log.debug("JSON da resposta: {} caracteres", jsonString.length());
-        return objectMapper.readTree(jsonString);
+        log.info("Álbum descrito - {} descrições", descriptions.size());
+        return descriptions;
     }
 
-    private byte[] decompressIfNeeded(String contentEncoding, byte[] responseBody) throws IOException {
-        if (OpenAIConstants.BROTLI_ENCODING.equalsIgnoreCase(contentEncoding)) {
-            log.debug("Descomprimindo resposta Brotli");
-            return decompressBrotli(responseBody);
-        } else {
-            log.debug("Resposta não comprimida");
-            return responseBody;
+    /**
+     * Lê a resposta em streaming (SSE) linha a linha, repassando cada fragmento de texto
+     * ao consumidor assim que chega. Devolve a descrição completa ao fim do stream.
+     */
+    public String readDescriptionStream(ClientHttpResponse response, Consumer<String> onDelta) throws IOException {
+        log.debug("Processando resposta em streaming da OpenAI");
+
+        String contentEncoding = response.getHeaders().getFirst(OpenAIConstants.CONTENT_ENCODING_HEADER);
+        InputStream body = ContentDecoder.decode(response.getBody(), contentEncoding);
+
+        StringBuilder description = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith(OpenAIConstants.SSE_DATA_PREFIX)) {
+                    continue; // linhas vazias separam eventos; comentários e outros campos são ignorados
+                }
+
+                String data = line.substring(OpenAIConstants.SSE_DATA_PREFIX.length()).strip();
+                if (OpenAIConstants.SSE_DONE_MARKER.equals(data)) {
+                    break;
+                }
+
+                String delta = extractDeltaContent(objectMapper.readTree(data));
+                if (!delta.isEmpty()) {
+                    description.append(delta);
+                    onDelta.accept(delta);
+                }
+            }
+        }
+
+        if (description.toString().isBlank()) {
+            throw new DescricaoImagemException("Descrição vazia retornada pela OpenAI");
         }
+
+        log.info("Descrição recebida em streaming - {} caracteres", description.length());
+        return description.toString().strip();
     }
 
-    private byte[] decompressBrotli(byte[] compressedData) throws IOException {
-        try (BrotliInputStream brotliStream = new BrotliInputStream(new ByteArrayInputStream(compressedData))) {
-            byte[] decompressed = brotliStream.readAllBytes();
-            log.debug("Descompressão Brotli realizada: {} -> {} bytes",
-                    compressedData.length, decompressed.length);
-            return decompressed;
-        } catch (IOException e) {
-            log.error("Falha na descompressão Brotli", e);
-            throw new IOException(OpenAIConstants.BROTLI_DECOMPRESSION_ERROR, e);
+    private String extractDeltaContent(JsonNode chunk) {
+        JsonNode choicesNode = chunk.path(OpenAIConstants.CHOICES_PATH);
+        if (!choicesNode.isArray() || choicesNode.isEmpty()) {
+            return "";
         }
+        JsonNode contentNode = choicesNode.get(0).path(OpenAIConstants.DELTA_PATH).path(OpenAIConstants.CONTENT_PATH);
+        return contentNode.isTextual() ? contentNode.asText() : "";
     }
 
-    private String extractDescriptionFromJson(JsonNode jsonNode) throws DescricaoImagemException {
-        try {
-            JsonNode choicesNode = jsonNode.path(OpenAIConstants.CHOICES_PATH);
-            if (choicesNode.isMissingNode() || !choicesNode.isArray() || choicesNode.isEmpty()) {
-                throw new DescricaoImagemException("Estrutura de resposta inválida: 'choices' não encontrado");
-            }
+    /**
+     * Percorre o objeto raiz até {@code choices[0].message.content}, pulando os demais campos.
+     */
+    private String readMessageContent(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new DescricaoImagemException("Estrutura de resposta inválida: objeto JSON esperado");
+        }
 
-            JsonNode firstChoice = choicesNode.get(0);
-            JsonNode messageNode = firstChoice.path(OpenAIConstants.MESSAGE_PATH);
-            if (messageNode.isMissingNode()) {
-                throw new DescricaoImagemException("Estrutura de resposta inválida: 'message' não encontrado");
+        String content = null;
+        boolean choicesFound = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (OpenAIConstants.CHOICES_PATH.equals(field) && value == JsonToken.START_ARRAY) {
+                choicesFound = true;
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    content = readChoiceContent(parser);
+                }
+                // Demais escolhas (n > 1) não são usadas
+                while (parser.currentToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                    parser.nextToken();
+                }
+            } else {
+                parser.skipChildren();
             }
+        }
 
-            JsonNode contentNode = messageNode.path(OpenAIConstants.CONTENT_PATH);
-            if (contentNode.isMissingNode()) {
-                throw new DescricaoImagemException("Estrutura de resposta inválida: 'content' não encontrado");
-            }
+        if (!choicesFound) {
+            throw new DescricaoImagemException("Estrutura de resposta inválida: 'choices' não encontrado");
+        }
+        return content;
+    }
 
-            String description = contentNode.asText();
-            if (description == null || description.trim().isEmpty()) {
-                throw new DescricaoImagemException("Descrição vazia retornada pela OpenAI");
+    private String readChoiceContent(JsonParser parser) throws IOException {
+        String content = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (OpenAIConstants.MESSAGE_PATH.equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String messageField = parser.currentName();
+                    JsonToken messageValue = parser.nextToken();
+                    if (OpenAIConstants.CONTENT_PATH.equals(messageField) && messageValue == JsonToken.VALUE_STRING) {
+                        content = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
             }
-
-            return description.trim();
-
-        } catch (Exception e) {
-            log.error("Erro ao extrair descrição do JSON", e);
-            throw new DescricaoImagemException("Erro ao extrair descrição da resposta", e);
         }
+        // Posiciona o parser após o fim da primeira escolha
+        parser.nextToken();
+        return content;
     }
-}
\ No newline at end of file
+}
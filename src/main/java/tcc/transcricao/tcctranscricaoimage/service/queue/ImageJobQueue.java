@@ -0,0 +1,288 @@
+package tcc.transcricao.tcctranscricaoimage.service.queue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.exception.DuplicateWebhookException;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila durável de jobs de imagem na tabela image_job. Cada instância reivindica apenas os
+ * jobs que consegue processar (FOR UPDATE SKIP LOCKED), de modo que várias instâncias
+ * consomem a mesma fila sem disputar linhas. Um job reivindicado fica invisível pelo tempo
+ * de visibilidade, renovado periodicamente enquanto executa; se a instância cair antes de
+ * concluí-lo, ele volta à fila.
+ */
+@Component
+@Slf4j
+public class ImageJobQueue {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO public.image_job
+                (image_id, message_id, phone, images, status, attempts, start_time, created_at, visible_at)
+            VALUES (?, ?, ?, ?, 'PENDING', 0, ?, LOCALTIMESTAMP, LOCALTIMESTAMP)
+            ON CONFLICT (message_id) DO NOTHING""";
+
+    // Jobs pendentes ou em execução com visibilidade expirada, do mais antigo ao mais novo
+    private static final String CLAIM_SQL = """
+            UPDATE public.image_job job
+               SET status = 'RUNNING',
+                   attempts = job.attempts + 1,
+                   locked_by = ?,
+                   visible_at = LOCALTIMESTAMP + make_interval(secs => ?)
+             WHERE job.id IN (
+                   SELECT id FROM public.image_job
+                    WHERE status IN ('PENDING', 'RUNNING') AND visible_at <= LOCALTIMESTAMP
+                    ORDER BY visible_at
+                    LIMIT ?
+                      FOR UPDATE SKIP LOCKED)
+            RETURNING job.id, job.image_id, job.message_id, job.phone, job.images, job.attempts, job.start_time""";
+
+    private static final String COMPLETE_SQL = """
+            UPDATE public.image_job
+               SET status = 'DONE', images = NULL, last_error = NULL, completed_at = LOCALTIMESTAMP
+             WHERE id = ? AND locked_by = ?""";
+
+    // Heartbeat: renova a visibilidade enquanto o job ainda pertence ao worker
+    private static final String EXTEND_SQL = """
+            UPDATE public.image_job
+               SET visible_at = LOCALTIMESTAMP + make_interval(secs => ?)
+             WHERE id = ? AND locked_by = ? AND status = 'RUNNING'""";
+
+    private static final String RETRY_SQL = """
+            UPDATE public.image_job
+               SET status = 'PENDING', last_error = ?, visible_at = LOCALTIMESTAMP + make_interval(secs => ?)
+             WHERE id = ? AND locked_by = ?""";
+
+    private static final String FAIL_SQL = """
+            UPDATE public.image_job
+               SET status = 'FAILED', images = NULL, last_error = ?, completed_at = LOCALTIMESTAMP
+             WHERE id = ? AND locked_by = ?""";
+
+    private static final String PURGE_SQL = """
+            DELETE FROM public.image_job
+             WHERE status IN ('DONE', 'FAILED') AND completed_at < LOCALTIMESTAMP - make_interval(secs => ?)""";
+
+    private static final String PENDING_COUNT_SQL = """
+            SELECT count(*) FROM public.image_job WHERE status = 'PENDING'""";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration visibilityTimeout;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration retention;
+    private final boolean durableMode;
+
+    private final Counter enqueuedCounter;
+    private final Counter completedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter redeliveredCounter;
+    private final AtomicLong pendingJobs = new AtomicLong();
+
+    public ImageJobQueue(JdbcTemplate jdbcTemplate,
+                         @Value("${pipeline.durable.visibility-timeout:5m}") Duration visibilityTimeout,
+                         @Value("${pipeline.durable.max-attempts:3}") int maxAttempts,
+                         @Value("${pipeline.durable.retry-backoff:30s}") Duration retryBackoff,
+                         @Value("${pipeline.durable.retention:7d}") Duration retention,
+                         @Value("${pipeline.mode:" + WhatsAppConstants.PIPELINE_MODE_SYNC + "}") String pipelineMode,
+                         MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.visibilityTimeout = visibilityTimeout;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.retention = retention;
+        this.durableMode = WhatsAppConstants.PIPELINE_MODE_DURABLE.equalsIgnoreCase(pipelineMode);
+
+        this.enqueuedCounter = Counter.builder("image.jobs.enqueued").register(meterRegistry);
+        this.completedCounter = Counter.builder("image.jobs.completed").register(meterRegistry);
+        this.retriedCounter = Counter.builder("image.jobs.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("image.jobs.failed").register(meterRegistry);
+        this.redeliveredCounter = Counter.builder("image.jobs.redelivered")
+                .description("Jobs executados novamente (retry ou visibilidade expirada)")
+                .register(meterRegistry);
+        // Atualizado a cada reivindicação, para não consultar o banco a cada coleta de métricas
+        Gauge.builder("image.jobs.pending", pendingJobs, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Grava o job. Uma mensagem já enfileirada (por qualquer instância) é rejeitada como duplicada.
+     */
+    public void enqueue(String imageId, String messageId, String phone, List<byte[]> images, long startTime) {
+        int inserted = jdbcTemplate.update(INSERT_SQL, imageId, messageId, phone, encodeImages(images), startTime);
+        if (inserted == 0) {
+            throw new DuplicateWebhookException(messageId);
+        }
+        enqueuedCounter.increment();
+        log.debug("Job enfileirado - ImageId: {}, Imagens: {}", imageId, images.size());
+    }
+
+    /**
+     * Reivindica até {@code limit} jobs visíveis para o worker. Jobs que já esgotaram as
+     * tentativas (a última execução caiu sem concluir) são encerrados como falha.
+     */
+    public List<QueuedImageJob> claim(String workerId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        List<QueuedImageJob> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new QueuedImageJob(
+                rs.getLong("id"),
+                rs.getString("image_id"),
+                rs.getString("message_id"),
+                rs.getString("phone"),
+                decodeImages(rs.getBytes("images")),
+                rs.getInt("attempts"),
+                rs.getLong("start_time")
+        ), workerId, visibilityTimeout.toMillis() / 1000.0, limit);
+
+        List<QueuedImageJob> runnable = new ArrayList<>(claimed.size());
+        for (QueuedImageJob job : claimed) {
+            if (job.attempts() > maxAttempts) {
+                fail(job, workerId, "Visibilidade expirada na última tentativa");
+            } else {
+                if (job.attempts() > 1) {
+                    redeliveredCounter.increment();
+                }
+                runnable.add(job);
+            }
+        }
+
+        if (!claimed.isEmpty()) {
+            pendingJobs.set(countPending());
+            log.debug("Worker {} reivindicou {} jobs", workerId, runnable.size());
+        }
+        return runnable;
+    }
+
+    /**
+     * Renova a visibilidade dos jobs em execução pelo worker, para que um job longo
+     * (retries de visão/TTS, espera do bridge) não seja reivindicado por outra instância.
+     * @return ids dos jobs que o worker não possui mais (visibilidade já expirada e reivindicada)
+     */
+    public List<Long> extendVisibility(List<Long> jobIds, String workerId) {
+        double timeoutSeconds = visibilityTimeout.toMillis() / 1000.0;
+        List<Object[]> args = jobIds.stream()
+                .map(id -> new Object[]{timeoutSeconds, id, workerId})
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(EXTEND_SQL, args);
+
+        List<Long> lost = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                lost.add(jobIds.get(i));
+            }
+        }
+        return lost;
+    }
+
+    public Duration getVisibilityTimeout() {
+        return visibilityTimeout;
+    }
+
+    public boolean isDurableMode() {
+        return durableMode;
+    }
+
+    public void complete(QueuedImageJob job, String workerId) {
+        if (jdbcTemplate.update(COMPLETE_SQL, job.id(), workerId) == 0) {
+            log.warn("Job {} concluído após perder a visibilidade; já reivindicado por outra execução", job.id());
+            return;
+        }
+        completedCounter.increment();
+    }
+
+    /**
+     * Devolve o job à fila após o intervalo de retry ou o encerra como falha na última tentativa.
+     */
+    public void retryOrFail(QueuedImageJob job, String workerId, String error) {
+        if (job.attempts() >= maxAttempts) {
+            fail(job, workerId, error);
+            return;
+        }
+        if (jdbcTemplate.update(RETRY_SQL, truncate(error), retryBackoff.toMillis() / 1000.0, job.id(), workerId) > 0) {
+            retriedCounter.increment();
+            log.warn("Job {} falhou (tentativa {}/{}); nova tentativa em {}",
+                    job.id(), job.attempts(), maxAttempts, retryBackoff);
+        }
+    }
+
+    private void fail(QueuedImageJob job, String workerId, String error) {
+        if (jdbcTemplate.update(FAIL_SQL, truncate(error), job.id(), workerId) > 0) {
+            failedCounter.increment();
+            log.error("Job {} encerrado com falha após {} tentativas: {}", job.id(), job.attempts(), error);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pipeline.durable.cleanup-interval:1h}")
+    public void purgeFinished() {
+        if (!durableMode || retention.isZero() || retention.isNegative()) {
+            return;
+        }
+        try {
+            int purged = jdbcTemplate.update(PURGE_SQL, retention.toSeconds());
+            if (purged > 0) {
+                log.info("{} jobs finalizados removidos da fila", purged);
+            }
+        } catch (Exception e) {
+            log.warn("Erro ao remover jobs finalizados da fila: {}", e.getMessage());
+        }
+    }
+
+    private long countPending() {
+        Long count = jdbcTemplate.queryForObject(PENDING_COUNT_SQL, Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Imagens em um único bytea: quantidade, seguida de tamanho + bytes de cada imagem.
+     */
+    static byte[] encodeImages(List<byte[]> images) {
+        int size = Integer.BYTES * (images.size() + 1);
+        for (byte[] image : images) {
+            size += image.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).putInt(images.size());
+        for (byte[] image : images) {
+            buffer.putInt(image.length).put(image);
+        }
+        return buffer.array();
+    }
+
+    static List<byte[]> decodeImages(byte[] encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        int count = buffer.getInt();
+        List<byte[]> images = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] image = new byte[buffer.getInt()];
+            buffer.get(image);
+            images.add(image);
+        }
+        return images;
+    }
+}
@@ -0,0 +1,191 @@
+package tcc.transcricao.tcctranscricaoimage.service.queue;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lado Camel da fila durável: grava o job no webhook, reivindica jobs no poller apenas
+ * até a capacidade livre dos workers desta instância, renova a visibilidade dos jobs em
+ * execução e conclui o job assim que o áudio é entregue ao bridge; antes disso, uma falha
+ * devolve o job à fila.
+ */
+@Component
+@Slf4j
+public class ImageJobWorker {
+
+    private final ImageJobQueue jobQueue;
+    private final int consumers;
+    private final String workerId;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Jobs reivindicados por esta instância, cuja visibilidade o heartbeat renova
+    private final Map<Long, QueuedImageJob> runningJobs = new ConcurrentHashMap<>();
+
+    public ImageJobWorker(ImageJobQueue jobQueue,
+                          @Value("${pipeline.durable.consumers:4}") int consumers,
+                          @Value("${pipeline.durable.worker-id:}") String workerId,
+                          @Value("${pipeline.durable.heartbeat-interval:60s}") Duration heartbeatInterval,
+                          MeterRegistry meterRegistry) {
+        this.jobQueue = jobQueue;
+        this.consumers = Math.max(1, consumers);
+        // Padrão: pid@host, único por instância da aplicação
+        this.workerId = workerId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : workerId;
+
+        // Com ao menos duas renovações por janela, um heartbeat atrasado não libera o job
+        if (jobQueue.isDurableMode()
+                && heartbeatInterval.multipliedBy(2).compareTo(jobQueue.getVisibilityTimeout()) > 0) {
+            throw new IllegalStateException("pipeline.durable.heartbeat-interval (" + heartbeatInterval
+                    + ") deve ser no máximo metade de pipeline.durable.visibility-timeout ("
+                    + jobQueue.getVisibilityTimeout() + ")");
+        }
+
+        Gauge.builder("image.jobs.inflight", inFlight, AtomicInteger::get)
+                .description("Jobs reivindicados por esta instância e ainda não finalizados")
+                .register(meterRegistry);
+    }
+
+    public int getConsumers() {
+        return consumers;
+    }
+
+    /**
+     * Webhook: grava as imagens e os dados da mensagem como job pendente.
+     */
+    public Processor enqueue() {
+        return exchange -> {
+            List<?> album = exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_LIST_PROPERTY, List.class);
+            List<byte[]> images = album != null
+                    ? album.stream().map(byte[].class::cast).toList()
+                    : List.of(exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, byte[].class));
+
+            jobQueue.enqueue(
+                    exchange.getProperty(WhatsAppConstants.IMAGE_ID_PROPERTY, String.class),
+                    exchange.getProperty(WhatsAppConstants.MESSAGE_ID_PROPERTY, String.class),
+                    exchange.getProperty(WhatsAppConstants.PHONE_PROPERTY, String.class),
+                    images,
+                    exchange.getProperty(WhatsAppConstants.START_TIME_PROPERTY, Long.class));
+        };
+    }
+
+    /**
+     * Poller: reivindica no máximo a quantidade de workers livres e devolve os jobs no corpo.
+     */
+    public Processor claim() {
+        return exchange -> {
+            int free = consumers - inFlight.get();
+            List<QueuedImageJob> jobs = jobQueue.claim(workerId, free);
+            inFlight.addAndGet(jobs.size());
+            jobs.forEach(job -> runningJobs.put(job.id(), job));
+            exchange.getIn().setBody(jobs);
+        };
+    }
+
+    /**
+     * Worker: recria as propriedades do exchange do webhook e registra a finalização do job
+     * ao término do pipeline, com sucesso ou erro.
+     */
+    public Processor start() {
+        return exchange -> {
+            QueuedImageJob job = exchange.getIn().getMandatoryBody(QueuedImageJob.class);
+            exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange completed) {
+                    finish(job, completed);
+                }
+            });
+
+            exchange.setProperty(WhatsAppConstants.JOB_ID_PROPERTY, job.id());
+            exchange.setProperty(WhatsAppConstants.START_TIME_PROPERTY, job.startTime());
+            exchange.setProperty(WhatsAppConstants.IMAGE_ID_PROPERTY, job.imageId());
+            exchange.setProperty(WhatsAppConstants.PHONE_PROPERTY, job.phone());
+            exchange.setProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, job.images().get(0));
+            if (job.images().size() > 1) {
+                exchange.setProperty(WhatsAppConstants.IMAGE_BYTES_LIST_PROPERTY, job.images());
+            }
+            if (job.messageId() != null) {
+                exchange.setProperty(WhatsAppConstants.MESSAGE_ID_PROPERTY, job.messageId());
+            }
+            exchange.getIn().setBody(null);
+
+            log.info("Processando job {} - ImageId: {}, Tentativa: {}", job.id(), job.imageId(), job.attempts());
+        };
+    }
+
+    /**
+     * Após o envio ao bridge: o usuário já recebeu o áudio, então o job é concluído neste ponto.
+     * Uma falha nas etapas seguintes (métricas, questionário) não o devolve à fila, o que
+     * reenviaria a mensagem de voz a cada nova tentativa. Fora do modo durável não faz nada.
+     */
+    public Processor delivered() {
+        return exchange -> {
+            Long jobId = exchange.getProperty(WhatsAppConstants.JOB_ID_PROPERTY, Long.class);
+            if (jobId == null || exchange.getProperty(Exchange.EXCEPTION_CAUGHT) != null) {
+                return;
+            }
+            exchange.setProperty(WhatsAppConstants.JOB_DELIVERED_PROPERTY, true);
+            QueuedImageJob job = runningJobs.remove(jobId);
+            if (job != null) {
+                jobQueue.complete(job, workerId);
+            }
+        };
+    }
+
+    /**
+     * Renova a visibilidade dos jobs em execução nesta instância. Um job cuja visibilidade
+     * já expirou e foi reivindicado por outra execução é apenas registrado: a conclusão
+     * desta execução não altera mais a linha.
+     */
+    @Scheduled(fixedDelayString = "${pipeline.durable.heartbeat-interval:60s}")
+    public void heartbeat() {
+        if (runningJobs.isEmpty()) {
+            return;
+        }
+        try {
+            List<Long> lost = jobQueue.extendVisibility(List.copyOf(runningJobs.keySet()), workerId);
+            if (!lost.isEmpty()) {
+                log.warn("Jobs {} perderam a visibilidade e podem estar em execução em outra instância", lost);
+            }
+        } catch (Exception e) {
+            log.warn("Erro ao renovar a visibilidade de {} jobs: {}", runningJobs.size(), e.getMessage());
+        }
+    }
+
+    private void finish(QueuedImageJob job, Exchange completed) {
+        try {
+            Exception exception = completed.getException() != null
+                    ? completed.getException()
+                    : completed.getProperty(Exchange.EXCEPTION_CAUGHT, Exception.class);
+            if (completed.getProperty(WhatsAppConstants.JOB_DELIVERED_PROPERTY, false, Boolean.class)) {
+                // Concluído no envio ao bridge; uma nova tentativa repetiria a mensagem de voz
+                if (exception != null) {
+                    log.warn("Job {} falhou após a entrega do áudio, sem nova tentativa: {}",
+                            job.id(), exception.getMessage());
+                }
+            } else if (exception == null) {
+                jobQueue.complete(job, workerId);
+            } else {
+                jobQueue.retryOrFail(job, workerId, exception.getClass().getSimpleName() + ": " + exception.getMessage());
+            }
+        } catch (Exception e) {
+            // O job volta à fila quando a visibilidade expirar
+            log.error("Erro ao finalizar job {}", job.id(), e);
+        } finally {
+            runningJobs.remove(job.id());
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package tcc.transcricao.tcctranscricaoimage.service.queue;
+
+import java.util.List;
+
+/**
+ * Job reivindicado por esta instância, com as imagens já decodificadas.
+ */
+public record QueuedImageJob(long id, String imageId, String messageId, String phone,
+                             List<byte[]> images, int attempts, long startTime) {
+}
@@ -0,0 +1,54 @@
+package tcc.transcricao.tcctranscricaoimage.service.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Latências das últimas chamadas bem-sucedidas, para estimar o percentil usado como
+ * gatilho da requisição hedge. O percentil é recalculado a cada {@code RECOMPUTE_EVERY} amostras.
+ */
+class LatencyWindow {
+
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private final double percentile;
+    private int position;
+    private int size;
+    private int sinceRecompute;
+    private long cachedPercentileNanos = -1;
+
+    LatencyWindow(int capacity, double percentile) {
+        this.samples = new long[Math.max(1, capacity)];
+        this.percentile = percentile;
+    }
+
+    synchronized void record(long nanos) {
+        samples[position] = nanos;
+        position = (position + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+        if (++sinceRecompute >= RECOMPUTE_EVERY) {
+            cachedPercentileNanos = -1;
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return percentil configurado em nanossegundos, ou -1 sem amostras
+     */
+    synchronized long percentileNanos() {
+        if (size == 0) {
+            return -1;
+        }
+        if (cachedPercentileNanos < 0) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            cachedPercentileNanos = sorted[Math.max(0, Math.min(index, size - 1))];
+            sinceRecompute = 0;
+        }
+        return cachedPercentileNanos;
+    }
+}
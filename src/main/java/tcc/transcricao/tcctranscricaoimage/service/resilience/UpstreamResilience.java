@@ -0,0 +1,307 @@
+package tcc.transcricao.tcctranscricaoimage.service.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import tcc.transcricao.tcctranscricaoimage.exception.CircuitOpenException;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Política de chamada de um endpoint externo: retry com backoff exponencial e jitter
+ * (respeitando {@code Retry-After} em 429), circuit breaker e, opcionalmente, requisição
+ * hedge disparada quando a primeira tentativa passa do percentil observado.
+ */
+@Slf4j
+public class UpstreamResilience {
+
+    public record RetrySettings(int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+                                double multiplier, Duration maxRetryAfter) {}
+
+    public record HedgeSettings(boolean enabled, double percentile, Duration minDelay, int minSamples) {}
+
+    private static final String RETRY_AFTER_MS_HEADER = "retry-after-ms";
+
+    private final String endpoint;
+    private final RetrySettings retry;
+    private final HedgeSettings hedge;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService hedgeExecutor;
+    private final LatencyWindow latencies;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter circuitRejected;
+    private final Counter hedgesFired;
+
+    public UpstreamResilience(String endpoint, RetrySettings retry, HedgeSettings hedge,
+                              CircuitBreaker circuitBreaker, ExecutorService hedgeExecutor,
+                              MeterRegistry meterRegistry) {
+        this.endpoint = endpoint;
+        this.retry = retry;
+        this.hedge = hedge;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgeExecutor = hedgeExecutor;
+        this.latencies = new LatencyWindow(256, hedge.percentile());
+        this.meterRegistry = meterRegistry;
+
+        this.circuitRejected = Counter.builder("openai.resilience.circuit.rejected")
+                .description("Chamadas recusadas com o circuito aberto")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        this.hedgesFired = Counter.builder("openai.resilience.hedges")
+                .description("Requisições hedge disparadas")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        if (circuitBreaker != null) {
+            Gauge.builder("openai.resilience.circuit.state", circuitBreaker, cb -> cb.state().ordinal())
+                    .description("Estado do circuito: 0 fechado, 1 aberto, 2 meio aberto")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Executa a chamada com retry, circuit breaker e hedge.
+     */
+    public <T> T execute(Supplier<T> call) {
+        return execute(call, true);
+    }
+
+    /**
+     * @param hedgeable false para chamadas que não podem rodar em duplicidade (ex.: streaming,
+     *                  que entrega o conteúdo ao consumidor enquanto recebe)
+     */
+    public <T> T execute(Supplier<T> call, boolean hedgeable) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return hedgeable ? hedged(call) : guarded(call);
+            } catch (RuntimeException e) {
+                Duration delay = retryDelay(e, attempt);
+                if (delay == null) {
+                    throw e;
+                }
+                Counter.builder("openai.resilience.retries")
+                        .tag("endpoint", endpoint)
+                        .tag("reason", reason(e))
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("Falha na chamada {} (tentativa {}/{}): {}; nova tentativa em {} ms",
+                        endpoint, attempt, retry.maxAttempts(), e.getMessage(), delay.toMillis());
+                sleep(delay, e);
+            }
+        }
+    }
+
+    /**
+     * Uma tentativa física, passando pelo circuit breaker e alimentando a janela de latências.
+     */
+    private <T> T guarded(Supplier<T> call) {
+        if (circuitBreaker != null) {
+            try {
+                circuitBreaker.acquirePermission();
+            } catch (CircuitOpenException e) {
+                circuitRejected.increment();
+                throw e;
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            latencies.record(System.nanoTime() - start);
+            if (circuitBreaker != null) {
+                circuitBreaker.onSuccess();
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (circuitBreaker != null) {
+                if (countsAsFailure(e)) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onIgnored();
+                }
+            }
+            throw e;
+        }
+    }
+
+    private <T> T hedged(Supplier<T> call) {
+        long delayNanos = hedgeDelayNanos();
+        if (delayNanos < 0) {
+            return guarded(call);
+        }
+
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(() -> guarded(call), hedgeExecutor);
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Primeira tentativa passou do percentil: dispara a segunda e fica com a que responder antes
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            throw new IllegalStateException("Chamada " + endpoint + " interrompida", e);
+        }
+
+        hedgesFired.increment();
+        log.debug("Chamada {} acima de {} ms; requisição hedge disparada", endpoint, delayNanos / 1_000_000);
+        CompletableFuture<T> backup = CompletableFuture.supplyAsync(() -> guarded(call), hedgeExecutor);
+        return firstSuccessful(primary, backup);
+    }
+
+    private <T> T firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> backup) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        register(primary, winner, failed, "primary");
+        register(backup, winner, failed, "hedge");
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            // Melhor esforço: a tentativa perdedora tem o resultado descartado
+            primary.cancel(true);
+            backup.cancel(true);
+        }
+    }
+
+    private <T> void register(CompletableFuture<T> attempt, CompletableFuture<T> winner,
+                              AtomicInteger failed, String name) {
+        attempt.whenComplete((result, error) -> {
+            if (error == null) {
+                if (winner.complete(result)) {
+                    Counter.builder("openai.resilience.hedges.won")
+                            .tag("endpoint", endpoint)
+                            .tag("attempt", name)
+                            .register(meterRegistry)
+                            .increment();
+                }
+            } else if (failed.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+    }
+
+    private long hedgeDelayNanos() {
+        if (!hedge.enabled() || latencies.size() < hedge.minSamples()) {
+            return -1;
+        }
+        return Math.max(hedge.minDelay().toNanos(), latencies.percentileNanos());
+    }
+
+    /**
+     * @return espera antes da próxima tentativa, ou null se o erro não deve ser repetido
+     */
+    private Duration retryDelay(RuntimeException e, int attempt) {
+        if (attempt >= retry.maxAttempts() || !isRetryable(e)) {
+            return null;
+        }
+
+        // Backoff exponencial com jitter: metade fixa, metade aleatória
+        double exponential = retry.initialBackoff().toMillis() * Math.pow(retry.multiplier(), attempt - 1);
+        long capped = (long) Math.min(exponential, retry.maxBackoff().toMillis());
+        long jittered = capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+
+        if (e instanceof HttpStatusCodeException statusException
+                && statusException.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            Duration retryAfter = retryAfter(statusException.getResponseHeaders());
+            if (retryAfter != null) {
+                if (retryAfter.compareTo(retry.maxRetryAfter()) > 0) {
+                    log.warn("Retry-After de {} s em {} acima do limite; sem nova tentativa",
+                            retryAfter.toSeconds(), endpoint);
+                    return null;
+                }
+                return Duration.ofMillis(Math.max(jittered, retryAfter.toMillis()));
+            }
+        }
+        return Duration.ofMillis(jittered);
+    }
+
+    private static boolean isRetryable(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpStatusCodeException statusException) {
+            int status = statusException.getStatusCode().value();
+            return status == 408 || status == 429 || statusException.getStatusCode().is5xxServerError();
+        }
+        return false;
+    }
+
+    /**
+     * Apenas falhas que indicam problema no endpoint contam para abrir o circuito;
+     * 429 e erros do cliente (4xx) não.
+     */
+    private static boolean countsAsFailure(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        return e instanceof HttpStatusCodeException statusException
+                && statusException.getStatusCode().is5xxServerError();
+    }
+
+    private static Duration retryAfter(HttpHeaders headers) {
+        if (headers == null) {
+            return null;
+        }
+        try {
+            String millis = headers.getFirst(RETRY_AFTER_MS_HEADER);
+            if (millis != null) {
+                return Duration.ofMillis((long) Double.parseDouble(millis.trim()));
+            }
+            String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            if (value == null) {
+                return null;
+            }
+            if (value.trim().chars().allMatch(Character::isDigit)) {
+                return Duration.ofSeconds(Long.parseLong(value.trim()));
+            }
+            ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration untilThen = Duration.between(ZonedDateTime.now(at.getZone()), at);
+            return untilThen.isNegative() ? Duration.ZERO : untilThen;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String reason(RuntimeException e) {
+        if (e instanceof HttpStatusCodeException statusException) {
+            return String.valueOf(statusException.getStatusCode().value());
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private void sleep(Duration delay, RuntimeException lastError) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw lastError;
+        }
+    }
+}
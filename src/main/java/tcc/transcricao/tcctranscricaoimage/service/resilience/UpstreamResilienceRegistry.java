@@ -0,0 +1,81 @@
+package tcc.transcricao.tcctranscricaoimage.service.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Políticas de chamada por endpoint da OpenAI. A configuração é compartilhada,
+ * mas cada endpoint tem seu próprio circuito e sua própria janela de latências.
+ */
+@Component
+@Slf4j
+public class UpstreamResilienceRegistry {
+
+    public static final String ENDPOINT_VISION = "vision";
+    public static final String ENDPOINT_TTS = "tts";
+
+    private final UpstreamResilience.RetrySettings retrySettings;
+    private final UpstreamResilience.HedgeSettings hedgeSettings;
+    private final ExecutorService hedgeExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, UpstreamResilience> byEndpoint = new ConcurrentHashMap<>();
+
+    @Value("${openai.resilience.circuit-breaker.enabled:true}")
+    private boolean circuitBreakerEnabled;
+
+    @Value("${openai.resilience.circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${openai.resilience.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${openai.resilience.circuit-breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${openai.resilience.circuit-breaker.open-duration:30s}")
+    private Duration openDuration;
+
+    @Value("${openai.resilience.circuit-breaker.half-open-calls:2}")
+    private int halfOpenCalls;
+
+    public UpstreamResilienceRegistry(@Value("${openai.resilience.retry.max-attempts:3}") int maxAttempts,
+                                      @Value("${openai.resilience.retry.initial-backoff:500ms}") Duration initialBackoff,
+                                      @Value("${openai.resilience.retry.max-backoff:8s}") Duration maxBackoff,
+                                      @Value("${openai.resilience.retry.multiplier:2.0}") double multiplier,
+                                      @Value("${openai.resilience.retry.max-retry-after:30s}") Duration maxRetryAfter,
+                                      @Value("${openai.resilience.hedge.enabled:false}") boolean hedgeEnabled,
+                                      @Value("${openai.resilience.hedge.percentile:0.95}") double hedgePercentile,
+                                      @Value("${openai.resilience.hedge.min-delay:1s}") Duration hedgeMinDelay,
+                                      @Value("${openai.resilience.hedge.min-samples:20}") int hedgeMinSamples,
+                                      ExecutorService hedgeExecutor,
+                                      MeterRegistry meterRegistry) {
+        this.retrySettings = new UpstreamResilience.RetrySettings(Math.max(1, maxAttempts), initialBackoff,
+                maxBackoff, multiplier, maxRetryAfter);
+        this.hedgeSettings = new UpstreamResilience.HedgeSettings(hedgeEnabled, hedgePercentile,
+                hedgeMinDelay, hedgeMinSamples);
+        this.hedgeExecutor = hedgeExecutor;
+        this.meterRegistry = meterRegistry;
+
+        log.info("Resiliência OpenAI - Tentativas: {}, Backoff: {} a {}, Hedge: {} (p{})",
+                maxAttempts, initialBackoff, maxBackoff, hedgeEnabled, Math.round(hedgePercentile * 100));
+    }
+
+    public UpstreamResilience forEndpoint(String endpoint) {
+        return byEndpoint.computeIfAbsent(endpoint, this::create);
+    }
+
+    private UpstreamResilience create(String endpoint) {
+        CircuitBreaker circuitBreaker = circuitBreakerEnabled
+                ? new CircuitBreaker(endpoint, windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls)
+                : null;
+        return new UpstreamResilience(endpoint, retrySettings, hedgeSettings, circuitBreaker,
+                hedgeExecutor, meterRegistry);
+    }
+}
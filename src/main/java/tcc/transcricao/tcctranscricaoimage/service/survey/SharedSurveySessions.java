@@ -0,0 +1,117 @@
+package tcc.transcricao.tcctranscricaoimage.service.survey;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sessões de questionário na tabela survey_session (survey.session.store=postgres), para várias instâncias:
+ * o questionário é iniciado pela instância que processou a imagem e a resposta pode chegar a
+ * qualquer outra. Cada resposta é um UPDATE atômico na linha da sessão; a última resposta,
+ * a gravação em satisfaction_survey e a remoção da sessão ocorrem na mesma transação, de modo
+ * que uma falha na gravação desfaz a resposta e o usuário pode reenviá-la.
+ */
+@Component
+@Slf4j
+public class SharedSurveySessions {
+
+    private static final String START_SQL = """
+            INSERT INTO public.survey_session (phone, image_id, scores, answered_at, last_activity)
+            VALUES (?, ?, '{}', '{}', LOCALTIMESTAMP)
+            ON CONFLICT (phone, image_id) DO UPDATE
+               SET scores = '{}', answered_at = '{}', last_activity = LOCALTIMESTAMP""";
+
+    // A pergunta respondida é a posição da nova pontuação; sessões completas não aceitam resposta
+    private static final String ANSWER_SQL = """
+            UPDATE public.survey_session
+               SET scores = array_append(scores, ?),
+                   answered_at = array_append(answered_at, LOCALTIMESTAMP),
+                   last_activity = LOCALTIMESTAMP
+             WHERE phone = ? AND image_id = ? AND cardinality(scores) < ?
+            RETURNING cardinality(scores)""";
+
+    private static final String SAVE_SQL = """
+            INSERT INTO satisfaction_survey (user_phone, image_id, question_number, score, answered_at)
+            SELECT survey.phone, survey.image_id, answer.question_number, answer.score, answer.answered_at
+              FROM public.survey_session survey,
+                   unnest(survey.scores, survey.answered_at) WITH ORDINALITY AS answer(score, answered_at, question_number)
+             WHERE survey.phone = ? AND survey.image_id = ?""";
+
+    private static final String DELETE_SQL = """
+            DELETE FROM public.survey_session WHERE phone = ? AND image_id = ?""";
+
+    // Remoção e gravação das parciais no mesmo comando: cada sessão expirada é tratada por uma única instância
+    private static final String EXPIRE_AND_SAVE_SQL = """
+            WITH expired AS (
+                DELETE FROM public.survey_session
+                 WHERE last_activity < LOCALTIMESTAMP - make_interval(secs => ?)
+                RETURNING phone, image_id, scores, answered_at),
+            saved AS (
+                INSERT INTO satisfaction_survey (user_phone, image_id, question_number, score, answered_at)
+                SELECT expired.phone, expired.image_id, answer.question_number, answer.score, answer.answered_at
+                  FROM expired,
+                       unnest(expired.scores, expired.answered_at) WITH ORDINALITY AS answer(score, answered_at, question_number))
+            SELECT count(*) FROM expired""";
+
+    private static final String EXPIRE_SQL = """
+            WITH expired AS (
+                DELETE FROM public.survey_session
+                 WHERE last_activity < LOCALTIMESTAMP - make_interval(secs => ?)
+                RETURNING 1)
+            SELECT count(*) FROM expired""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SharedSurveySessions(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Inicia (ou reinicia) o questionário da imagem para o telefone.
+     */
+    public void start(String phone, String imageId) {
+        jdbcTemplate.update(START_SQL, phone, imageId);
+    }
+
+    /**
+     * Registra a resposta da pergunta atual e, na última, grava o questionário e remove a sessão.
+     * @return vazio se não houver sessão em andamento (expirada ou já concluída)
+     */
+    public Optional<SurveyProgress> answer(String phone, String imageId, int score) {
+        return transactionTemplate.execute(status -> {
+            List<Integer> answered = jdbcTemplate.queryForList(ANSWER_SQL, Integer.class,
+                    score, phone, imageId, SurveyConstants.TOTAL_QUESTIONS);
+            if (answered.isEmpty()) {
+                return Optional.empty();
+            }
+
+            int questionNumber = answered.get(0);
+            boolean complete = questionNumber >= SurveyConstants.TOTAL_QUESTIONS;
+            if (complete) {
+                jdbcTemplate.update(SAVE_SQL, phone, imageId);
+                jdbcTemplate.update(DELETE_SQL, phone, imageId);
+            }
+            return Optional.of(new SurveyProgress(questionNumber, complete));
+        });
+    }
+
+    /**
+     * Remove as sessões sem atividade por mais que o TTL, gravando antes as respostas parciais
+     * se configurado.
+     * @return quantidade de sessões expiradas
+     */
+    public long evictExpired(Duration ttl, boolean flushPartial) {
+        Long expired = jdbcTemplate.queryForObject(flushPartial ? EXPIRE_AND_SAVE_SQL : EXPIRE_SQL,
+                Long.class, ttl.toMillis() / 1000.0);
+        return expired != null ? expired : 0;
+    }
+}
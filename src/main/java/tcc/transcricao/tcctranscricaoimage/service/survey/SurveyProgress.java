@@ -0,0 +1,7 @@
+package tcc.transcricao.tcctranscricaoimage.service.survey;
+
+/**
+ * Resultado de uma resposta registrada: pergunta respondida e se o questionário foi concluído
+ * (e gravado) com ela.
+ */
+public record SurveyProgress(int questionNumber, boolean complete) {}
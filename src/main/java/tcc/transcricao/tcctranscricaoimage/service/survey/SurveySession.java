@@ -0,0 +1,64 @@
+package tcc.transcricao.tcctranscricaoimage.service.survey;
+
+import lombok.Getter;
+import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progresso de um questionário em andamento: pergunta atual e respostas já dadas.
+ * A pergunta esperada é controlada pelo servidor, não pelo cliente.
+ */
+public class SurveySession {
+
+    public record Answer(int questionNumber, int score, LocalDateTime answeredAt) {}
+
+    @Getter
+    private final String phone;
+    @Getter
+    private final String imageId;
+    private final List<Answer> answers = new ArrayList<>(SurveyConstants.TOTAL_QUESTIONS);
+    private volatile long lastActivityMillis;
+
+    public SurveySession(String phone, String imageId) {
+        this.phone = phone;
+        this.imageId = imageId;
+        this.lastActivityMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Registra a resposta da pergunta atual.
+     * @return número da pergunta respondida
+     */
+    public synchronized int answer(int score) {
+        if (isComplete()) {
+            throw new IllegalStateException("Questionário já concluído");
+        }
+        int questionNumber = currentQuestion();
+        answers.add(new Answer(questionNumber, score, LocalDateTime.now()));
+        touch();
+        return questionNumber;
+    }
+
+    public synchronized int currentQuestion() {
+        return answers.size() + 1;
+    }
+
+    public synchronized boolean isComplete() {
+        return answers.size() >= SurveyConstants.TOTAL_QUESTIONS;
+    }
+
+    public synchronized List<Answer> answers() {
+        return List.copyOf(answers);
+    }
+
+    public long lastActivityMillis() {
+        return lastActivityMillis;
+    }
+
+    public void touch() {
+        lastActivityMillis = System.currentTimeMillis();
+    }
+}
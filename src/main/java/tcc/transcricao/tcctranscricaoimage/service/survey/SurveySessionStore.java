@@ -0,0 +1,177 @@
+package tcc.transcricao.tcctranscricaoimage.service.survey;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
+import tcc.transcricao.tcctranscricaoimage.service.SatisfactionSurveyService;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessões de questionário por telefone e imagem. As respostas ficam na sessão e o questionário
+ * completo é gravado de uma vez; sessões abandonadas expiram por TTL.
+ * Por padrão as sessões ficam em memória e cada resposta é uma operação local; só o questionário
+ * completo vai ao banco. Com survey.session.store=postgres elas ficam no Postgres
+ * ({@link SharedSurveySessions}), para implantações com várias instâncias em que a resposta pode
+ * chegar a outra réplica, ao custo de uma transação por resposta.
+ */
+@Component
+@Slf4j
+public class SurveySessionStore {
+
+    private final SatisfactionSurveyService surveyService;
+    private final SharedSurveySessions sharedSessions;
+    private final boolean shared;
+    private final Duration ttl;
+    private final boolean flushPartial;
+    private final Map<String, SurveySession> sessions = new ConcurrentHashMap<>();
+
+    private final Counter completedCounter;
+    private final Counter expiredCounter;
+
+    public SurveySessionStore(SatisfactionSurveyService surveyService,
+                              SharedSurveySessions sharedSessions,
+                              @Value("${survey.session.ttl:30m}") Duration ttl,
+                              @Value("${survey.session.flush-partial:false}") boolean flushPartial,
+                              @Value("${survey.session.store:" + SurveyConstants.SESSION_STORE_MEMORY + "}") String store,
+                              MeterRegistry meterRegistry) {
+        this.surveyService = surveyService;
+        this.sharedSessions = sharedSessions;
+        this.shared = SurveyConstants.SESSION_STORE_POSTGRES.equalsIgnoreCase(store);
+        this.ttl = ttl;
+        this.flushPartial = flushPartial;
+
+        if (!shared) {
+            Gauge.builder("survey.sessions.active", sessions, Map::size).register(meterRegistry);
+        }
+        this.completedCounter = Counter.builder("survey.sessions.completed").register(meterRegistry);
+        this.expiredCounter = Counter.builder("survey.sessions.expired").register(meterRegistry);
+
+        log.info("Sessões de questionário - Armazenamento: {}, TTL: {}, Gravar parciais: {}",
+                shared ? "postgres" : "memória", ttl, flushPartial);
+    }
+
+    /**
+     * Inicia (ou reinicia) o questionário da imagem para o telefone.
+     */
+    public void start(String phone, String imageId) {
+        if (shared) {
+            sharedSessions.start(phone, imageId);
+            return;
+        }
+        SurveySession previous = sessions.put(key(phone, imageId), new SurveySession(phone, imageId));
+        if (previous != null) {
+            log.debug("Questionário reiniciado para telefone: {} e imagem: {}", phone, imageId);
+        }
+    }
+
+    /**
+     * Registra a resposta da pergunta atual (controlada pelo servidor) e, se for a última,
+     * grava o questionário completo.
+     * @return vazio se não houver questionário em andamento para o telefone e a imagem
+     */
+    public Optional<SurveyProgress> answer(String phone, String imageId, int score) {
+        if (shared) {
+            Optional<SurveyProgress> progress = sharedSessions.answer(phone, imageId, score);
+            progress.filter(SurveyProgress::complete).ifPresent(completed -> recordCompleted(phone, imageId));
+            return progress;
+        }
+
+        SurveySession session = sessions.get(key(phone, imageId));
+        if (session == null) {
+            return Optional.empty();
+        }
+
+        // Já completo: a gravação anterior falhou, tenta de novo sem registrar outra resposta
+        if (session.isComplete()) {
+            complete(session);
+            return Optional.of(new SurveyProgress(SurveyConstants.TOTAL_QUESTIONS, true));
+        }
+
+        int questionNumber = session.answer(score);
+        if (session.isComplete()) {
+            complete(session);
+        }
+        return Optional.of(new SurveyProgress(questionNumber, session.isComplete()));
+    }
+
+    /**
+     * Grava todas as respostas da sessão concluída em uma única operação em lote e só então
+     * remove a sessão. Se a gravação falhar, a sessão continua disponível (com as respostas)
+     * para uma nova tentativa e a exceção é propagada.
+     */
+    private void complete(SurveySession session) {
+        String key = key(session.getPhone(), session.getImageId());
+        synchronized (session) {
+            if (sessions.get(key) != session) {
+                return; // Já gravada por outra requisição ou substituída por um novo questionário
+            }
+            surveyService.saveSurvey(session.getPhone(), session.getImageId(), session.answers());
+            sessions.remove(key, session);
+        }
+        recordCompleted(session.getPhone(), session.getImageId());
+    }
+
+    private void recordCompleted(String phone, String imageId) {
+        completedCounter.increment();
+        log.info("Questionário gravado - Telefone: {}, Imagem: {}", phone, imageId);
+    }
+
+    @Scheduled(fixedDelayString = "${survey.session.sweep-interval:60s}")
+    public void evictExpired() {
+        if (shared) {
+            try {
+                expiredCounter.increment(sharedSessions.evictExpired(ttl, flushPartial));
+            } catch (Exception e) {
+                log.warn("Erro ao expirar sessões de questionário: {}", e.getMessage());
+            }
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        sessions.values().removeIf(session -> {
+            if (session.lastActivityMillis() >= cutoff) {
+                return false;
+            }
+            expiredCounter.increment();
+            flushPartialAnswers(session);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sessions.values().forEach(this::flushPartialAnswers);
+        sessions.clear();
+    }
+
+    /**
+     * Grava as respostas de uma sessão que está saindo da memória: sempre que o questionário
+     * estiver completo (gravação anterior falhou) e, se configurado, também os parciais.
+     */
+    private void flushPartialAnswers(SurveySession session) {
+        if (session.answers().isEmpty() || (!flushPartial && !session.isComplete())) {
+            return;
+        }
+        try {
+            surveyService.saveSurvey(session.getPhone(), session.getImageId(), session.answers());
+            log.info("Questionário parcial gravado - Telefone: {}, {} respostas",
+                    session.getPhone(), session.answers().size());
+        } catch (Exception e) {
+            log.error("Erro ao gravar questionário parcial do telefone {}", session.getPhone(), e);
+        }
+    }
+
+    private static String key(String phone, String imageId) {
+        return phone + "|" + imageId;
+    }
+}
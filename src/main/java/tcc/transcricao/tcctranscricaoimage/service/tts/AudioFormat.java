@@ -0,0 +1,95 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Formatos de saída da API TTS ({@code response_format}) suportados no envio ao WhatsApp.
+ * MP3 e AAC (ADTS) são sequências de frames independentes e podem ser juntados por trechos;
+ * Opus vem em um contêiner OGG com numeração de páginas própria e é sintetizado inteiro.
+ */
+public enum AudioFormat {
+
+    MP3("mp3", "audio/mpeg", true),
+    AAC("aac", "audio/aac", true),
+    OPUS("opus", "audio/ogg; codecs=opus", false);
+
+    private final String apiName;
+    private final String mimeType;
+    private final boolean concatenable;
+
+    AudioFormat(String apiName, String mimeType, boolean concatenable) {
+        this.apiName = apiName;
+        this.mimeType = mimeType;
+        this.concatenable = concatenable;
+    }
+
+    public String apiName() {
+        return apiName;
+    }
+
+    public String mimeType() {
+        return mimeType;
+    }
+
+    public boolean isConcatenable() {
+        return concatenable;
+    }
+
+    public static AudioFormat fromName(String name) {
+        for (AudioFormat format : values()) {
+            if (format.apiName.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Formato de áudio TTS inválido: " + name + ". Formatos disponíveis: "
+                + Arrays.stream(values()).map(AudioFormat::apiName).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Identifica o formato pelo cabeçalho: "OggS", tag ID3 ou sincronismo de frame
+     * (ADTS tem os bits de layer zerados; MPEG Layer III não).
+     */
+    public static Optional<AudioFormat> detect(byte[] audio) {
+        if (audio == null || audio.length < 4) {
+            return Optional.empty();
+        }
+        if (audio[0] == 'O' && audio[1] == 'g' && audio[2] == 'g' && audio[3] == 'S') {
+            return Optional.of(OPUS);
+        }
+        if (audio[0] == 'I' && audio[1] == 'D' && audio[2] == '3') {
+            return Optional.of(MP3);
+        }
+        if ((audio[0] & 0xFF) == 0xFF && (audio[1] & 0xF0) == 0xF0 && (audio[1] & 0x06) == 0) {
+            return Optional.of(AAC);
+        }
+        if ((audio[0] & 0xFF) == 0xFF && (audio[1] & 0xE0) == 0xE0) {
+            return Optional.of(MP3);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Junta o áudio de vários trechos na ordem informada.
+     */
+    public byte[] concatenate(List<byte[]> parts) throws TtsException {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        return switch (this) {
+            case MP3 -> Mp3Concatenator.concatenate(parts);
+            case AAC -> {
+                // Cada frame ADTS traz o próprio cabeçalho: basta juntar os bytes
+                ByteArrayOutputStream output = new ByteArrayOutputStream(parts.stream().mapToInt(p -> p.length).sum());
+                parts.forEach(output::writeBytes);
+                yield output.toByteArray();
+            }
+            case OPUS -> throw new TtsException("Áudio Opus não pode ser juntado por trechos");
+        };
+    }
+}
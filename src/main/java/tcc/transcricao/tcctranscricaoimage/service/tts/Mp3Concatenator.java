@@ -0,0 +1,95 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * Junta vários arquivos MP3 em um único fluxo de frames, na ordem informada.
+ * Remove as tags ID3 (v2 no início, v1 no fim) e o frame Xing/Info de cada parte,
+ * cujo total de frames ficaria incorreto para o áudio combinado.
+ */
+public final class Mp3Concatenator {
+
+    private static final int[] BITRATES_MPEG1_L3 = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 0};
+    private static final int[] BITRATES_MPEG2_L3 = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160, 0};
+    private static final int[] SAMPLE_RATES_MPEG1 = {44100, 48000, 32000, 0};
+
+    private Mp3Concatenator() {} // Utility class
+
+    public static byte[] concatenate(List<byte[]> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(parts.stream().mapToInt(p -> p.length).sum());
+        for (byte[] part : parts) {
+            int start = skipId3v2(part);
+            int end = part.length - id3v1Length(part);
+            start = skipInfoFrame(part, start, end);
+            if (end > start) {
+                output.write(part, start, end - start);
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private static int skipId3v2(byte[] data) {
+        if (data.length < 10 || data[0] != 'I' || data[1] != 'D' || data[2] != '3') {
+            return 0;
+        }
+        // Tamanho em inteiro "syncsafe" (7 bits por byte), sem contar o cabeçalho de 10 bytes
+        int size = ((data[6] & 0x7F) << 21) | ((data[7] & 0x7F) << 14) | ((data[8] & 0x7F) << 7) | (data[9] & 0x7F);
+        boolean hasFooter = (data[5] & 0x10) != 0;
+        return Math.min(data.length, 10 + size + (hasFooter ? 10 : 0));
+    }
+
+    private static int id3v1Length(byte[] data) {
+        int tag = data.length - 128;
+        return tag >= 0 && data[tag] == 'T' && data[tag + 1] == 'A' && data[tag + 2] == 'G' ? 128 : 0;
+    }
+
+    private static int skipInfoFrame(byte[] data, int start, int end) {
+        int frameLength = frameLength(data, start, end);
+        if (frameLength <= 0) {
+            return start;
+        }
+
+        // O cabeçalho Xing/Info fica logo após as side-info do primeiro frame (até 36 bytes do início)
+        int searchEnd = Math.min(start + 40, end - 4);
+        for (int i = start + 4; i <= searchEnd; i++) {
+            if ((data[i] == 'X' && data[i + 1] == 'i' && data[i + 2] == 'n' && data[i + 3] == 'g')
+                    || (data[i] == 'I' && data[i + 1] == 'n' && data[i + 2] == 'f' && data[i + 3] == 'o')) {
+                return Math.min(end, start + frameLength);
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Tamanho do frame MPEG Layer III iniciado em {@code offset}, ou -1 se não houver frame válido.
+     */
+    private static int frameLength(byte[] data, int offset, int end) {
+        if (offset + 4 > end || (data[offset] & 0xFF) != 0xFF || (data[offset + 1] & 0xE0) != 0xE0) {
+            return -1;
+        }
+
+        int versionBits = (data[offset + 1] >> 3) & 0x03; // 3 = MPEG1, 2 = MPEG2, 0 = MPEG2.5
+        int layerBits = (data[offset + 1] >> 1) & 0x03;    // 1 = Layer III
+        int bitrateIndex = (data[offset + 2] >> 4) & 0x0F;
+        int sampleRateIndex = (data[offset + 2] >> 2) & 0x03;
+        int padding = (data[offset + 2] >> 1) & 0x01;
+
+        if (versionBits == 1 || layerBits != 1 || sampleRateIndex == 3) {
+            return -1;
+        }
+
+        boolean mpeg1 = versionBits == 3;
+        int bitrate = (mpeg1 ? BITRATES_MPEG1_L3 : BITRATES_MPEG2_L3)[bitrateIndex] * 1000;
+        int sampleRate = SAMPLE_RATES_MPEG1[sampleRateIndex] >> (mpeg1 ? 0 : versionBits == 2 ? 1 : 2);
+        if (bitrate == 0 || sampleRate == 0) {
+            return -1;
+        }
+
+        return (mpeg1 ? 144 : 72) * bitrate / sampleRate + padding;
+    }
+}
@@ -0,0 +1,83 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Síntese de trechos de um mesmo texto em paralelo, à medida que são submetidos.
+ * No máximo {@code maxParallelism} trechos ficam em andamento ao mesmo tempo e o
+ * áudio final junta os trechos na ordem de submissão, conforme o formato de saída.
+ */
+public class SegmentSynthesis {
+
+    private final Function<String, byte[]> synthesizer;
+    private final Executor executor;
+    private final int maxParallelism;
+    private final AudioFormat format;
+    private final List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+
+    public SegmentSynthesis(Function<String, byte[]> synthesizer, Executor executor, int maxParallelism,
+                            AudioFormat format) {
+        this.synthesizer = synthesizer;
+        this.executor = executor;
+        this.maxParallelism = Math.max(1, maxParallelism);
+        this.format = format;
+    }
+
+    public synchronized void submit(String segment) {
+        int index = futures.size();
+        // Janela deslizante: o trecho i só começa quando o trecho i - maxParallelism terminar
+        CompletableFuture<?> slot = index < maxParallelism
+                ? CompletableFuture.completedFuture(null)
+                : futures.get(index - maxParallelism).handle((audio, error) -> null);
+        futures.add(slot.thenApplyAsync(ignored -> synthesizer.apply(segment), executor));
+    }
+
+    public synchronized int size() {
+        return futures.size();
+    }
+
+    /**
+     * Aguarda todos os trechos e devolve o áudio combinado.
+     */
+    public byte[] awaitConcatenated() throws TtsException {
+        return format.concatenate(awaitAll());
+    }
+
+    /**
+     * Aguarda todos os trechos e devolve o áudio de cada um, na ordem de submissão.
+     */
+    public List<byte[]> awaitAll() throws TtsException {
+        List<CompletableFuture<byte[]>> pending;
+        synchronized (this) {
+            pending = List.copyOf(futures);
+        }
+        if (pending.isEmpty()) {
+            throw new TtsException("Nenhum trecho submetido para síntese");
+        }
+
+        try {
+            List<byte[]> parts = new ArrayList<>(pending.size());
+            for (CompletableFuture<byte[]> future : pending) {
+                parts.add(future.join());
+            }
+            return parts;
+        } catch (CompletionException e) {
+            cancel();
+            if (e.getCause() instanceof TtsException ttsException) {
+                throw ttsException;
+            }
+            throw new TtsException("Erro na síntese TTS em blocos", e.getCause());
+        }
+    }
+
+    public synchronized void cancel() {
+        futures.forEach(future -> future.cancel(true));
+    }
+}
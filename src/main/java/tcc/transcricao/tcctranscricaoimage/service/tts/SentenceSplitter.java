@@ -0,0 +1,72 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Divide um texto em blocos de frases completas para síntese em paralelo.
+ * Frases curtas são agrupadas até atingir o tamanho mínimo do bloco. Nenhum bloco passa do
+ * tamanho máximo: uma frase maior que o limite é cortada no último espaço dentro dele (ou no
+ * próprio limite, se não houver espaço), como no {@link StreamingSentenceBuffer}.
+ */
+public final class SentenceSplitter {
+
+    private static final Pattern SENTENCE_BOUNDARY = Pattern.compile("(?<=[.!?…])\\s+");
+
+    private SentenceSplitter() {} // Utility class
+
+    public static List<String> split(String text, int minChunkChars, int maxChunkChars) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String sentence : sentences(text, maxChunkChars)) {
+            if (!current.isEmpty() && current.length() + 1 + sentence.length() > maxChunkChars) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            if (!current.isEmpty()) {
+                current.append(' ');
+            }
+            current.append(sentence);
+
+            if (current.length() >= minChunkChars) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+        }
+
+        if (!current.isEmpty()) {
+            // Sobra curta é anexada ao bloco anterior para não gerar um áudio mínimo isolado
+            int last = chunks.size() - 1;
+            if (last >= 0 && chunks.get(last).length() + 1 + current.length() <= maxChunkChars) {
+                chunks.set(last, chunks.get(last) + " " + current);
+            } else {
+                chunks.add(current.toString());
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Frases do texto, com as maiores que {@code maxChunkChars} já cortadas em pedaços que cabem no limite.
+     */
+    private static List<String> sentences(String text, int maxChunkChars) {
+        List<String> sentences = new ArrayList<>();
+        for (String sentence : SENTENCE_BOUNDARY.split(text.strip())) {
+            String rest = sentence.strip();
+            while (rest.length() > maxChunkChars) {
+                int cut = rest.lastIndexOf(' ', maxChunkChars);
+                if (cut <= 0) {
+                    cut = maxChunkChars;
+                }
+                sentences.add(rest.substring(0, cut).strip());
+                rest = rest.substring(cut).strip();
+            }
+            if (!rest.isEmpty()) {
+                sentences.add(rest);
+            }
+        }
+        return sentences;
+    }
+}
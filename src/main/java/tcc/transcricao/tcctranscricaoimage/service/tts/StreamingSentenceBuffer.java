@@ -0,0 +1,96 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acumula o texto recebido em fragmentos (streaming) e libera blocos de frases completas
+ * assim que atingem o tamanho mínimo, para que a síntese comece antes do fim da geração.
+ * Nenhum bloco passa do tamanho máximo: sem fim de frase dentro do limite, o corte é
+ * forçado no último espaço (ou no próprio limite, se não houver espaço).
+ */
+public class StreamingSentenceBuffer {
+
+    private final int minChunkChars;
+    private final int maxChunkChars;
+    private final StringBuilder pending = new StringBuilder();
+
+    public StreamingSentenceBuffer(int minChunkChars, int maxChunkChars) {
+        this.minChunkChars = minChunkChars;
+        this.maxChunkChars = maxChunkChars;
+    }
+
+    /**
+     * Adiciona um fragmento e devolve os blocos prontos para síntese, em ordem.
+     */
+    public List<String> append(String fragment) {
+        pending.append(fragment);
+
+        List<String> chunks = new ArrayList<>();
+        cutOversized(chunks);
+
+        int boundary = lastSentenceBoundary(pending.length());
+        if (boundary >= minChunkChars) {
+            emit(boundary, chunks);
+        }
+        return chunks;
+    }
+
+    /**
+     * Libera o texto restante ao fim do stream.
+     */
+    public List<String> flush() {
+        List<String> chunks = new ArrayList<>();
+        cutOversized(chunks);
+        emit(pending.length(), chunks);
+        return chunks;
+    }
+
+    /**
+     * Enquanto o pendente exceder o máximo, corta no último fim de frase dentro do limite;
+     * sem fim de frase, no último espaço; sem espaço, no próprio limite.
+     */
+    private void cutOversized(List<String> chunks) {
+        while (pending.length() > maxChunkChars) {
+            int cut = lastSentenceBoundary(maxChunkChars);
+            if (cut <= 0) {
+                cut = lastWhitespace(maxChunkChars);
+            }
+            if (cut <= 0) {
+                cut = maxChunkChars;
+            }
+            emit(cut, chunks);
+        }
+    }
+
+    private void emit(int end, List<String> chunks) {
+        String chunk = pending.substring(0, end).strip();
+        pending.delete(0, end);
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+    }
+
+    /**
+     * Fim da última frase completa até {@code limit}: pontuação final seguida de espaço
+     * (evita cortar "3.5" ou "Sr.X").
+     */
+    private int lastSentenceBoundary(int limit) {
+        for (int i = Math.min(limit - 1, pending.length() - 2); i >= 0; i--) {
+            char c = pending.charAt(i);
+            if ((c == '.' || c == '!' || c == '?' || c == '…') && Character.isWhitespace(pending.charAt(i + 1))) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private int lastWhitespace(int limit) {
+        for (int i = Math.min(limit, pending.length() - 1); i > 0; i--) {
+            if (Character.isWhitespace(pending.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
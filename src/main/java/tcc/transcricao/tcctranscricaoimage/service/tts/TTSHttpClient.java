@@ -1,22 +1,31 @@
 package tcc.transcricao.tcctranscricaoimage.service.tts;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import tcc.transcricao.tcctranscricaoimage.constants.OpenAIConstants;
 import tcc.transcricao.tcctranscricaoimage.constants.TTSConstants;
+import tcc.transcricao.tcctranscricaoimage.exception.CircuitOpenException;
 import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
+import tcc.transcricao.tcctranscricaoimage.service.resilience.UpstreamResilienceRegistry;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class TTSHttpClient {
 
     @Value("${openai.api.key}")
     private String openAiApiKey;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${openai.api.base-url:" + OpenAIConstants.DEFAULT_OPENAI_BASE_URL + "}")
+    private String openAiBaseUrl;
+
+    private final RestTemplate restTemplate;
+    private final UpstreamResilienceRegistry resilienceRegistry;
 
     public ResponseEntity<byte[]> sendTTSRequest(String payload) throws TtsException {
         try {
@@ -25,12 +34,13 @@ public class TTSHttpClient {
             HttpHeaders headers = buildHeaders();
             HttpEntity<String> entity = new HttpEntity<>(payload, headers);
 
-            ResponseEntity<byte[]> response = restTemplate.exchange(
-                    TTSConstants.OPENAI_TTS_API_URL,
-                    HttpMethod.POST,
-                    entity,
-                    byte[].class
-            );
+            ResponseEntity<byte[]> response = resilienceRegistry.forEndpoint(UpstreamResilienceRegistry.ENDPOINT_TTS)
+                    .execute(() -> restTemplate.exchange(
+                            openAiBaseUrl + TTSConstants.SPEECH_PATH,
+                            HttpMethod.POST,
+                            entity,
+                            byte[].class
+                    ));
 
             validateResponse(response);
 
@@ -40,7 +50,7 @@ public class TTSHttpClient {
 
             return response;
 
-        } catch (RestClientException e) {
+        } catch (RestClientException | CircuitOpenException e) {
             log.error("Erro na comunicação com OpenAI TTS API", e);
             throw new TtsException(TTSConstants.TTS_API_ERROR_MESSAGE + ": " + e.getMessage(), e);
         }
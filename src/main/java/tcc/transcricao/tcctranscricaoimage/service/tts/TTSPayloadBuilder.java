@@ -9,19 +9,16 @@ import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
 @Slf4j
 public class TTSPayloadBuilder {
 
-    public String buildSpeechPayload(String text) throws TtsException {
-        return buildSpeechPayload(text, TTSConstants.DEFAULT_VOICE);
-    }
-
-    public String buildSpeechPayload(String text, String voice) throws TtsException {
-        return buildSpeechPayload(text, voice, TTSConstants.TTS_MODEL);
-    }
-
-    public String buildSpeechPayload(String text, String voice, String model) throws TtsException {
+    /**
+     * Monta o payload da API TTS. O formato é sempre o configurado em {@code tts.response-format},
+     * para que o áudio devolvido corresponda ao mimetype enviado ao WhatsApp.
+     */
+    public String buildSpeechPayload(String text, String voice, String model, AudioFormat responseFormat)
+            throws TtsException {
         validateInput(text, voice, model);
 
-        log.debug("Construindo payload TTS - Modelo: {}, Voz: {}, Texto: {} chars",
-                model, voice, text.length());
+        log.debug("Construindo payload TTS - Modelo: {}, Voz: {}, Formato: {}, Texto: {} chars",
+                model, voice, responseFormat.apiName(), text.length());
 
         String escapedText = escapeJsonString(text);
 
@@ -29,9 +26,10 @@ public class TTSPayloadBuilder {
                 "{" +
                         "\"model\": \"%s\"," +
                         "\"input\": \"%s\"," +
-                        "\"voice\": \"%s\"" +
+                        "\"voice\": \"%s\"," +
+                        "\"response_format\": \"%s\"" +
                         "}",
-                model, escapedText, voice
+                model, escapedText, voice, responseFormat.apiName()
         );
 
         log.debug("Payload TTS construído com sucesso - {} caracteres", payload.length());
@@ -7,17 +7,18 @@ import tcc.transcricao.tcctranscricaoimage.constants.TTSConstants;
 import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
 
 import java.util.Base64;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class TTSResponseProcessor {
 
-    public byte[] extractAudioBytes(ResponseEntity<byte[]> response) throws TtsException {
+    public byte[] extractAudioBytes(ResponseEntity<byte[]> response, AudioFormat expectedFormat) throws TtsException {
         try {
             log.debug("Processando resposta TTS");
 
             byte[] audioBytes = response.getBody();
-            validateAudioBytes(audioBytes);
+            validateAudioBytes(audioBytes, expectedFormat);
 
             log.info("Áudio TTS extraído com sucesso - {} bytes", audioBytes.length);
             return audioBytes;
@@ -30,7 +31,7 @@ public class TTSResponseProcessor {
 
     public String convertToBase64(byte[] audioBytes) throws TtsException {
         try {
-            validateAudioBytes(audioBytes);
+            validateAudioBytes(audioBytes, null);
 
             log.debug("Convertendo áudio para Base64");
             String base64Audio = Base64.getEncoder().encodeToString(audioBytes);
@@ -46,12 +47,13 @@ public class TTSResponseProcessor {
         }
     }
 
-    public String extractAudioAsBase64(ResponseEntity<byte[]> response) throws TtsException {
-        byte[] audioBytes = extractAudioBytes(response);
+    public String extractAudioAsBase64(ResponseEntity<byte[]> response, AudioFormat expectedFormat)
+            throws TtsException {
+        byte[] audioBytes = extractAudioBytes(response, expectedFormat);
         return convertToBase64(audioBytes);
     }
 
-    private void validateAudioBytes(byte[] audioBytes) throws TtsException {
+    private void validateAudioBytes(byte[] audioBytes, AudioFormat expectedFormat) throws TtsException {
         if (audioBytes == null) {
             throw new TtsException("Dados de áudio são null");
         }
@@ -61,24 +63,24 @@ public class TTSResponseProcessor {
         }
 
         // Validação básica do formato de áudio (verificação de header)
-        validateAudioFormat(audioBytes);
+        validateAudioFormat(audioBytes, expectedFormat);
 
         log.debug("Dados de áudio validados - {} bytes", audioBytes.length);
     }
 
-    private void validateAudioFormat(byte[] audioBytes) throws TtsException {
-        // Verificação básica de formato de áudio comum
-        // OpenAI TTS geralmente retorna MP3
+    private void validateAudioFormat(byte[] audioBytes, AudioFormat expectedFormat) throws TtsException {
         if (audioBytes.length < 4) {
             throw new TtsException("Arquivo de áudio muito pequeno para ter formato válido");
         }
 
-        // Verificação de header MP3 (ID3v2 ou frame sync)
-        boolean hasID3v2 = audioBytes[0] == 'I' && audioBytes[1] == 'D' && audioBytes[2] == '3';
-        boolean hasMPEGSync = (audioBytes[0] & 0xFF) == 0xFF && (audioBytes[1] & 0xE0) == 0xE0;
+        // Verificação de header: OGG (Opus), ID3/frame sync MPEG (MP3) ou ADTS (AAC)
+        Optional<AudioFormat> detected = AudioFormat.detect(audioBytes);
 
-        if (!hasID3v2 && !hasMPEGSync) {
-            log.warn("Formato de áudio pode não ser MP3 padrão. Headers: {} {} {} {}",
+        if (detected.isPresent() && expectedFormat != null && detected.get() != expectedFormat) {
+            log.warn("Formato de áudio recebido ({}) diferente do solicitado ({})",
+                    detected.get().apiName(), expectedFormat.apiName());
+        } else if (detected.isEmpty()) {
+            log.warn("Formato de áudio não reconhecido. Headers: {} {} {} {}",
                     String.format("%02X", audioBytes[0]),
                     String.format("%02X", audioBytes[1]),
                     String.format("%02X", audioBytes[2]),
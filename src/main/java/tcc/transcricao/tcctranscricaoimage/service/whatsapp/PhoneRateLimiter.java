@@ -0,0 +1,114 @@
+package tcc.transcricao.tcctranscricaoimage.service.whatsapp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.exception.RateLimitExceededException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite de imagens por telefone (token bucket na forma GCRA). Cada telefone guarda apenas o
+ * instante teórico da próxima chegada em um {@link AtomicLong}, atualizado por CAS: sem locks,
+ * sem banco e sem thread de reposição. O mapa é particionado internamente pelo
+ * {@link ConcurrentHashMap}, então telefones diferentes não disputam a mesma entrada.
+ * O estado é local: com várias instâncias (pipeline.mode=durable) o limite vale por instância,
+ * e um telefone distribuído pelo balanceador entre N instâncias pode enviar até N vezes a rajada.
+ */
+@Component
+@Slf4j
+public class PhoneRateLimiter {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final Counter allowedCounter;
+    private final Counter rejectedCounter;
+
+    /**
+     * Estado do telefone: instante teórico de chegada (TAT) e até quando o aviso já foi dado.
+     */
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrival;
+        private final AtomicLong noticeUntil;
+
+        private Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+            this.noticeUntil = new AtomicLong(now);
+        }
+    }
+
+    public PhoneRateLimiter(@Value("${webhook.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${webhook.rate-limit.capacity:5}") int capacity,
+                            @Value("${webhook.rate-limit.refill-interval:20s}") Duration refillInterval,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.capacity = Math.max(1, capacity);
+        this.emissionIntervalNanos = refillInterval.toNanos();
+        this.burstToleranceNanos = emissionIntervalNanos * (this.capacity - 1);
+
+        this.allowedCounter = Counter.builder("webhook.ratelimit.allowed").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("webhook.ratelimit.rejected")
+                .description("Imagens recusadas por limite do telefone")
+                .register(meterRegistry);
+        Gauge.builder("webhook.ratelimit.tracked", buckets, Map::size).register(meterRegistry);
+
+        log.info("Limite por telefone - Ativo: {}, Capacidade: {}, Reposição: 1 a cada {}",
+                enabled, this.capacity, refillInterval);
+    }
+
+    /**
+     * Consome uma ficha do telefone.
+     * @throws RateLimitExceededException se o telefone estiver sem fichas
+     */
+    public void acquire(String phone) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        Bucket bucket = buckets.computeIfAbsent(phone, key -> new Bucket(now));
+
+        while (true) {
+            long stored = bucket.theoreticalArrival.get();
+            long arrival = Math.max(stored, now);
+            long waitNanos = arrival - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                rejectedCounter.increment();
+                throw new RateLimitExceededException(phone, Duration.ofNanos(waitNanos),
+                        claimNotice(bucket, now, waitNanos));
+            }
+            if (bucket.theoreticalArrival.compareAndSet(stored, arrival + emissionIntervalNanos)) {
+                allowedCounter.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Apenas o primeiro bloqueio até a próxima ficha disponível gera aviso ao usuário.
+     */
+    private boolean claimNotice(Bucket bucket, long now, long waitNanos) {
+        long until = bucket.noticeUntil.get();
+        return until - now <= 0 && bucket.noticeUntil.compareAndSet(until, now + waitNanos);
+    }
+
+    /**
+     * Descarta telefones com o balde cheio novamente: o estado deles equivale a um balde novo.
+     */
+    @Scheduled(fixedDelayString = "${webhook.rate-limit.sweep-interval:5m}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.theoreticalArrival.get() - now <= 0
+                && bucket.noticeUntil.get() - now <= 0);
+    }
+}
@@ -0,0 +1,111 @@
+package tcc.transcricao.tcctranscricaoimage.service.whatsapp;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Corpo JSON do envio de voz ({"to": ..., "mimetype": ..., "audioBase64": ...}) produzido sob demanda:
+ * o áudio é codificado em Base64 em blocos enquanto o cliente HTTP lê o stream,
+ * sem montar a string Base64 nem o JSON completo em memória.
+ */
+public class VoicePayloadInputStream extends InputStream {
+
+    // Múltiplo de 3 para que cada bloco gere Base64 sem padding intermediário
+    private static final int SOURCE_CHUNK = 3 * 1024;
+
+    private final byte[] prefix;
+    private final byte[] audio;
+    private final byte[] suffix;
+    private final Base64.Encoder encoder = Base64.getEncoder();
+    private final byte[] sourceBuffer = new byte[SOURCE_CHUNK];
+    private final byte[] encodedBuffer = new byte[SOURCE_CHUNK / 3 * 4];
+
+    private byte[] current;
+    private int currentPos;
+    private int currentLimit;
+    private int audioPos;
+    private boolean suffixQueued;
+
+    public VoicePayloadInputStream(String to, byte[] audio, String mimetype) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        String quotedTo = new String(encoder.quoteAsString(to));
+        String quotedMimetype = new String(encoder.quoteAsString(mimetype));
+        this.prefix = ("{\"to\":\"" + quotedTo + "\",\"mimetype\":\"" + quotedMimetype + "\",\"audioBase64\":\"")
+                .getBytes(StandardCharsets.UTF_8);
+        this.audio = audio;
+        this.suffix = "\"}".getBytes(StandardCharsets.UTF_8);
+        setCurrent(prefix, prefix.length);
+    }
+
+    /**
+     * Tamanho total do corpo, conhecido antecipadamente.
+     */
+    public long contentLength() {
+        return prefix.length + 4L * ((audio.length + 2) / 3) + suffix.length;
+    }
+
+    @Override
+    public int read() {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current[currentPos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int count = Math.min(length, currentLimit - currentPos);
+        System.arraycopy(current, currentPos, buffer, offset, count);
+        currentPos += count;
+        return count;
+    }
+
+    private boolean ensureAvailable() {
+        while (currentPos >= currentLimit) {
+            if (!advance()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean advance() {
+        int remaining = audio.length - audioPos;
+        if (remaining >= SOURCE_CHUNK) {
+            System.arraycopy(audio, audioPos, sourceBuffer, 0, SOURCE_CHUNK);
+            audioPos += SOURCE_CHUNK;
+            setCurrent(encodedBuffer, encoder.encode(sourceBuffer, encodedBuffer));
+            return true;
+        }
+        if (remaining > 0) {
+            // Último bloco, com padding quando necessário
+            byte[] tail = new byte[remaining];
+            System.arraycopy(audio, audioPos, tail, 0, remaining);
+            audioPos = audio.length;
+            byte[] encodedTail = encoder.encode(tail);
+            setCurrent(encodedTail, encodedTail.length);
+            return true;
+        }
+        if (!suffixQueued) {
+            suffixQueued = true;
+            setCurrent(suffix, suffix.length);
+            return true;
+        }
+        return false;
+    }
+
+    private void setCurrent(byte[] data, int limit) {
+        current = data;
+        currentPos = 0;
+        currentLimit = limit;
+    }
+}
@@ -0,0 +1,79 @@
+package tcc.transcricao.tcctranscricaoimage.service.whatsapp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.exception.DuplicateWebhookException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicação das entregas do webhook pelo id da mensagem do WhatsApp: reenvios do bridge
+ * dentro da janela são descartados. Uma entrega que falha libera o id para nova tentativa.
+ */
+@Component
+@Slf4j
+public class WebhookDeduplicator {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final Map<String, Long> seenAtNanos = new ConcurrentHashMap<>();
+    private final Counter duplicateCounter;
+
+    public WebhookDeduplicator(@Value("${webhook.dedup.enabled:true}") boolean enabled,
+                               @Value("${webhook.dedup.window:10m}") Duration window,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.duplicateCounter = Counter.builder("webhook.dedup.duplicates")
+                .description("Entregas repetidas descartadas")
+                .register(meterRegistry);
+        Gauge.builder("webhook.dedup.tracked", seenAtNanos, Map::size).register(meterRegistry);
+
+        log.info("Deduplicação do webhook - Ativa: {}, Janela: {}", enabled, window);
+    }
+
+    /**
+     * Registra a entrega da mensagem.
+     * @throws DuplicateWebhookException se o id já foi recebido dentro da janela
+     */
+    public void register(String messageId) {
+        if (!enabled || messageId == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        boolean[] duplicate = new boolean[1];
+        seenAtNanos.compute(messageId, (id, seenAt) -> {
+            if (seenAt != null && now - seenAt < windowNanos) {
+                duplicate[0] = true;
+                return seenAt;
+            }
+            return now;
+        });
+        if (duplicate[0]) {
+            duplicateCounter.increment();
+            throw new DuplicateWebhookException(messageId);
+        }
+    }
+
+    /**
+     * Esquece a mensagem para que um reenvio seja processado (ex.: a primeira entrega falhou).
+     */
+    public void release(String messageId) {
+        if (messageId != null) {
+            seenAtNanos.remove(messageId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.dedup.sweep-interval:1m}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        seenAtNanos.values().removeIf(seenAt -> now - seenAt >= windowNanos);
+    }
+}
@@ -0,0 +1,349 @@
+package tcc.transcricao.tcctranscricaoimage.service.whatsapp;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.dto.BridgeBatchResult;
+import tcc.transcricao.tcctranscricaoimage.dto.BridgeMessage;
+import tcc.transcricao.tcctranscricaoimage.dto.TextMessage;
+import tcc.transcricao.tcctranscricaoimage.exception.WhatsAppSendException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Envio em lote ao bridge do WhatsApp. Cada chat tem sua própria fila; as mensagens que ficam
+ * prontas dentro da janela de coalescência seguem juntas em uma única chamada ao
+ * {@code /sendBatch}, pelo pool de conexões keep-alive. Um chat só tem um lote em andamento
+ * por vez, o que mantém a ordem das mensagens de cada conversa.
+ */
+@Component
+@Slf4j
+public class WhatsAppOutbox {
+
+    private final CloseableHttpClient httpClient;
+    private final ObjectWriter messageWriter;
+    private final ObjectReader resultReader;
+    private final String batchUrl;
+    private final boolean enabled;
+    private final Duration linger;
+    private final int maxMessages;
+    private final Duration sendTimeout;
+    private final Semaphore inFlightBatches;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition chatReady = lock.newCondition();
+    // Protegidos pelo lock
+    private final Map<String, ChatQueue> chats = new HashMap<>();
+    private final ArrayDeque<ChatQueue> readyChats = new ArrayDeque<>();
+
+    private final AtomicInteger pendingMessages = new AtomicInteger();
+    private final DistributionSummary batchSizeSummary;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+    private ExecutorService senderExecutor;
+
+    private record Pending(BridgeMessage message, CompletableFuture<BridgeBatchResult.Item> result) {}
+
+    private static final class ChatQueue {
+        private final String chatId;
+        private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean ready;
+
+        private ChatQueue(String chatId) {
+            this.chatId = chatId;
+        }
+    }
+
+    public WhatsAppOutbox(CloseableHttpClient bridgeHttpClient,
+                          ObjectWriter messageWriter,
+                          ObjectMapper objectMapper,
+                          @Value("${whatsapp.api.url}") String apiUrl,
+                          @Value("${whatsapp.batch.enabled:false}") boolean enabled,
+                          @Value("${whatsapp.batch.linger:10ms}") Duration linger,
+                          @Value("${whatsapp.batch.max-messages:50}") int maxMessages,
+                          @Value("${whatsapp.batch.max-in-flight:4}") int maxInFlight,
+                          @Value("${whatsapp.batch.send-timeout:90s}") Duration sendTimeout,
+                          MeterRegistry meterRegistry) {
+        this.httpClient = bridgeHttpClient;
+        this.messageWriter = messageWriter;
+        this.resultReader = objectMapper.readerFor(BridgeBatchResult.class);
+        this.batchUrl = apiUrl + WhatsAppConstants.WHATSAPP_SEND_BATCH_PATH;
+        this.enabled = enabled;
+        this.linger = linger;
+        this.maxMessages = Math.max(1, maxMessages);
+        this.sendTimeout = sendTimeout;
+        this.inFlightBatches = new Semaphore(Math.max(1, maxInFlight));
+
+        Gauge.builder("whatsapp.outbox.pending", pendingMessages, AtomicInteger::get)
+                .description("Mensagens aguardando envio ao bridge")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("whatsapp.outbox.batch.size")
+                .description("Mensagens por chamada ao bridge")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("whatsapp.outbox.failed").register(meterRegistry);
+
+        log.info("Envio em lote ao bridge - Ativo: {}, Janela: {}, Máximo por lote: {}, Lotes simultâneos: {}",
+                enabled, linger, maxMessages, maxInFlight);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        senderExecutor = Executors.newCachedThreadPool(Thread.ofPlatform().name("whatsapp-outbox-", 0).daemon(true).factory());
+        dispatcher = Thread.ofPlatform().name("whatsapp-outbox-dispatcher").daemon(true).start(this::dispatchLoop);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Endpoint de envio ao bridge: a fila de lotes quando ativa, senão a chamada direta.
+     */
+    public String endpoint(String directUrl) {
+        return enabled ? WhatsAppConstants.WHATSAPP_OUTBOX_ENDPOINT : directUrl;
+    }
+
+    /**
+     * Prepara o corpo do envio de texto: a mensagem para o lote ou o JSON da chamada direta.
+     */
+    public void setTextBody(Exchange exchange, TextMessage message) throws JsonProcessingException {
+        if (enabled) {
+            exchange.getIn().setBody(BridgeMessage.text(message));
+            return;
+        }
+        exchange.getIn().setHeader(WhatsAppConstants.CONTENT_TYPE_HEADER, WhatsAppConstants.APPLICATION_JSON);
+        exchange.getIn().setBody(messageWriter.writeValueAsBytes(message));
+    }
+
+    /**
+     * Enfileira a mensagem no chat de destino. O resultado é concluído quando o lote que a
+     * contém for respondido pelo bridge.
+     */
+    public CompletableFuture<BridgeBatchResult.Item> submit(BridgeMessage message) {
+        if (!running) {
+            throw new WhatsAppSendException("Envio em lote ao bridge não está ativo");
+        }
+        Pending pending = new Pending(message, new CompletableFuture<>());
+        lock.lock();
+        try {
+            ChatQueue chat = chats.computeIfAbsent(message.to(), ChatQueue::new);
+            chat.pending.add(pending);
+            markReady(chat);
+        } finally {
+            lock.unlock();
+        }
+        pendingMessages.incrementAndGet();
+        return pending.result();
+    }
+
+    /**
+     * Envia a {@link BridgeMessage} do corpo e aguarda o resultado do lote. Como na chamada
+     * direta, a recusa do bridge é apenas registrada; falhas de conexão interrompem a rota.
+     */
+    public Processor send() {
+        return exchange -> {
+            BridgeMessage message = exchange.getIn().getMandatoryBody(BridgeMessage.class);
+            BridgeBatchResult.Item result;
+            try {
+                result = submit(message).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            } catch (TimeoutException e) {
+                throw new WhatsAppSendException("Tempo esgotado aguardando o envio ao bridge para " + message.to(), e);
+            }
+            if (!result.ok()) {
+                failedCounter.increment();
+                log.warn("Bridge recusou mensagem de {} para {}: {}", message.type(), message.to(), result.error());
+            }
+            exchange.getIn().setBody(result.status());
+        };
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        senderExecutor.shutdown();
+
+        lock.lock();
+        try {
+            chats.values().forEach(chat -> chat.pending.forEach(pending ->
+                    pending.result().completeExceptionally(new WhatsAppSendException("Envio ao bridge encerrado"))));
+            chats.clear();
+            readyChats.clear();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Envio em lote ao bridge encerrado");
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                awaitReadyChat();
+                // Janela de coalescência: mensagens de outros chats prontas no mesmo instante entram no lote
+                if (linger.isPositive()) {
+                    Thread.sleep(linger);
+                }
+                inFlightBatches.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                return;
+            }
+
+            List<Pending> batch = new ArrayList<>();
+            List<ChatQueue> batchChats = new ArrayList<>();
+            drainReady(batch, batchChats);
+            if (batch.isEmpty()) {
+                inFlightBatches.release();
+                continue;
+            }
+            senderExecutor.execute(() -> {
+                try {
+                    sendBatch(batch);
+                } finally {
+                    inFlightBatches.release();
+                    release(batchChats);
+                }
+            });
+        }
+    }
+
+    private void awaitReadyChat() throws InterruptedException {
+        lock.lock();
+        try {
+            while (readyChats.isEmpty()) {
+                chatReady.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retira dos chats prontos as mensagens do próximo lote, na ordem de cada chat.
+     */
+    private void drainReady(List<Pending> batch, List<ChatQueue> batchChats) {
+        lock.lock();
+        try {
+            while (!readyChats.isEmpty() && batch.size() < maxMessages) {
+                ChatQueue chat = readyChats.poll();
+                chat.ready = false;
+                while (!chat.pending.isEmpty() && batch.size() < maxMessages) {
+                    batch.add(chat.pending.poll());
+                }
+                // Mensagens que não couberam seguem em um próximo lote, após a conclusão deste
+                chat.sending = true;
+                batchChats.add(chat);
+            }
+        } finally {
+            lock.unlock();
+        }
+        pendingMessages.addAndGet(-batch.size());
+    }
+
+    private void release(List<ChatQueue> batchChats) {
+        lock.lock();
+        try {
+            for (ChatQueue chat : batchChats) {
+                chat.sending = false;
+                if (chat.pending.isEmpty()) {
+                    chats.remove(chat.chatId, chat);
+                } else {
+                    markReady(chat);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markReady(ChatQueue chat) {
+        if (!chat.sending && !chat.ready) {
+            chat.ready = true;
+            readyChats.add(chat);
+            chatReady.signal();
+        }
+    }
+
+    private void sendBatch(List<Pending> batch) {
+        batchSizeSummary.record(batch.size());
+        try {
+            List<BridgeMessage> messages = batch.stream().map(Pending::message).toList();
+            HttpPost request = new HttpPost(batchUrl);
+            request.setEntity(new ByteArrayEntity(
+                    messageWriter.writeValueAsBytes(Map.of("messages", messages)), ContentType.APPLICATION_JSON));
+
+            BridgeBatchResult response = httpClient.execute(request, httpResponse -> {
+                if (httpResponse.getCode() >= 300) {
+                    throw new WhatsAppSendException("Bridge respondeu " + httpResponse.getCode() + " ao lote");
+                }
+                return resultReader.readValue(httpResponse.getEntity().getContent());
+            });
+
+            List<BridgeBatchResult.Item> results = response.results();
+            if (results == null || results.size() != batch.size()) {
+                throw new WhatsAppSendException("Resposta do bridge não corresponde ao lote de " + batch.size() + " mensagens");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+            log.debug("Lote de {} mensagens enviado ao bridge", batch.size());
+        } catch (Exception e) {
+            log.error("Erro ao enviar lote de {} mensagens ao bridge", batch.size(), e);
+            failedCounter.increment(batch.size());
+            WhatsAppSendException failure = e instanceof WhatsAppSendException sendException
+                    ? sendException
+                    : new WhatsAppSendException("Erro ao enviar lote ao bridge", e);
+            batch.forEach(pending -> pending.result().completeExceptionally(failure));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package tcc.transcricao.tcctranscricaoimage.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.config.JsonMessageConfig;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Formato exato das mensagens trocadas com o bridge: o mesmo que o org.json gerava antes dos
+ * records, com os campos nulos omitidos.
+ */
+class MessageJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonMessageConfig config = new JsonMessageConfig();
+    private final ObjectWriter messageWriter = config.messageWriter(objectMapper);
+    private final ObjectReader surveyAnswerReader = config.surveyAnswerReader(objectMapper);
+
+    @Test
+    void textMessageOmitsImageIdOutsideSurvey() throws Exception {
+        assertThat(json(TextMessage.of("5511999990000", "Imagem recebida")))
+                .isEqualTo("{\"to\":\"5511999990000\",\"message\":\"Imagem recebida\"}");
+    }
+
+    @Test
+    void surveyQuestionCarriesImageId() throws Exception {
+        assertThat(json(new TextMessage("5511999990000", "Pergunta 1/5", "img-1")))
+                .isEqualTo("{\"to\":\"5511999990000\",\"message\":\"Pergunta 1/5\",\"imageId\":\"img-1\"}");
+    }
+
+    @Test
+    void surveyReplyWritesOnlyFieldsOfEachOutcome() throws Exception {
+        assertThat(json(SurveyReply.next("Pergunta 2/5", 2)))
+                .isEqualTo("{\"message\":\"Pergunta 2/5\",\"finished\":false,\"nextQuestion\":2}");
+        assertThat(json(SurveyReply.finished("Obrigado")))
+                .isEqualTo("{\"message\":\"Obrigado\",\"finished\":true}");
+        assertThat(json(SurveyReply.error("Valor inválido")))
+                .isEqualTo("{\"message\":\"Valor inválido\",\"error\":true}");
+    }
+
+    @Test
+    void surveyStartKeepsPhoneAndImageId() throws Exception {
+        assertThat(json(new SurveyStart("5511999990000", "img-1")))
+                .isEqualTo("{\"phone\":\"5511999990000\",\"imageId\":\"img-1\"}");
+    }
+
+    @Test
+    void textWrapperInBatchKeepsSameFields() throws Exception {
+        assertThat(json(BridgeMessage.text(new TextMessage("5511999990000", "Pergunta 1/5", "img-1"))))
+                .isEqualTo("{\"type\":\"text\",\"to\":\"5511999990000\",\"message\":\"Pergunta 1/5\",\"imageId\":\"img-1\"}");
+    }
+
+    @Test
+    void surveyAnswerReaderIgnoresUnknownFields() throws Exception {
+        SurveyAnswer answer = surveyAnswerReader.readValue(
+                "{\"from\":\"5511999990000\",\"imageId\":\"img-1\",\"score\":4,\"questionNumber\":9,\"extra\":{}}");
+
+        assertThat(answer).isEqualTo(new SurveyAnswer("5511999990000", "img-1", 4));
+    }
+
+    private String json(Object message) throws Exception {
+        return new String(messageWriter.writeValueAsBytes(message), StandardCharsets.UTF_8);
+    }
+}
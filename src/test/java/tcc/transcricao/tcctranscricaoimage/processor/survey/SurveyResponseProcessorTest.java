@@ -0,0 +1,85 @@
+package tcc.transcricao.tcctranscricaoimage.processor.survey;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.config.JsonMessageConfig;
+import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
+import tcc.transcricao.tcctranscricaoimage.service.SurveyMessageBuilder;
+import tcc.transcricao.tcctranscricaoimage.service.survey.SurveyProgress;
+import tcc.transcricao.tcctranscricaoimage.service.survey.SurveySessionStore;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SurveyResponseProcessorTest {
+
+    private static final String ANSWER = "{\"from\":\"5511999990000\",\"imageId\":\"img-1\",\"score\":%d}";
+
+    private final SurveySessionStore sessionStore = mock(SurveySessionStore.class);
+    private final SurveyMessageBuilder messageBuilder = mock(SurveyMessageBuilder.class);
+    private final SurveyResponseProcessor processor;
+
+    SurveyResponseProcessorTest() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonMessageConfig config = new JsonMessageConfig();
+        processor = new SurveyResponseProcessor(sessionStore, messageBuilder,
+                config.surveyAnswerReader(objectMapper), config.messageWriter(objectMapper));
+        when(messageBuilder.buildQuestionMessage(3)).thenReturn("Pergunta 3/5");
+        when(messageBuilder.buildCompletionMessage()).thenReturn("Obrigado");
+        when(messageBuilder.buildInvalidScoreMessage()).thenReturn("Valor inválido");
+    }
+
+    @Test
+    void repliesWithNextQuestion() throws Exception {
+        when(sessionStore.answer("5511999990000", "img-1", 4)).thenReturn(Optional.of(new SurveyProgress(2, false)));
+
+        Exchange exchange = process(4);
+
+        assertThat(reply(exchange)).isEqualTo("{\"message\":\"Pergunta 3/5\",\"finished\":false,\"nextQuestion\":3}");
+        assertThat(exchange.getIn().getHeader(SurveyConstants.CONTENT_TYPE_HEADER))
+                .isEqualTo(SurveyConstants.APPLICATION_JSON);
+    }
+
+    @Test
+    void repliesFinishedOnLastAnswer() throws Exception {
+        when(sessionStore.answer("5511999990000", "img-1", 5)).thenReturn(Optional.of(new SurveyProgress(5, true)));
+
+        assertThat(reply(process(5))).isEqualTo("{\"message\":\"Obrigado\",\"finished\":true}");
+    }
+
+    @Test
+    void repliesExpiredWhenSessionIsMissing() throws Exception {
+        when(sessionStore.answer(anyString(), anyString(), anyInt())).thenReturn(Optional.empty());
+
+        assertThat(reply(process(3)))
+                .isEqualTo("{\"message\":\"" + SurveyConstants.SURVEY_EXPIRED_MESSAGE + "\",\"finished\":true}");
+    }
+
+    @Test
+    void repliesErrorForScoreOutOfRange() throws Exception {
+        assertThat(reply(process(9))).isEqualTo("{\"message\":\"Valor inválido\",\"error\":true}");
+        verify(sessionStore, never()).answer(anyString(), anyString(), anyInt());
+    }
+
+    private Exchange process(int score) throws Exception {
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setBody(ANSWER.formatted(score).getBytes(StandardCharsets.UTF_8));
+        processor.process(exchange);
+        return exchange;
+    }
+
+    private static String reply(Exchange exchange) {
+        return new String(exchange.getIn().getBody(byte[].class), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+package tcc.transcricao.tcctranscricaoimage.processor.whatsapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.service.TtsService;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
+import tcc.transcricao.tcctranscricaoimage.service.tts.AudioFormat;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.VoicePayloadInputStream;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WhatsAppOutbox;
+
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VoiceMessageProcessorTest {
+
+    private static final String PHONE = "5511999990000";
+
+    private final TtsService ttsService = mock(TtsService.class);
+    private final VoiceMessageProcessor processor = new VoiceMessageProcessor(
+            new PipelineMetrics(new SimpleMeterRegistry()), new ObjectMapper().writer(),
+            mock(WhatsAppOutbox.class), ttsService);
+
+    VoiceMessageProcessorTest() {
+        when(ttsService.audioFormat()).thenReturn(AudioFormat.OPUS);
+    }
+
+    @Test
+    void streamingBodyMatchesBase64BodyAndAdvertisesItsLength() throws Exception {
+        byte[] audio = new byte[10_001];
+        new Random(42).nextBytes(audio);
+
+        Exchange base64 = exchange();
+        base64.setProperty(WhatsAppConstants.AUDIO_BASE64_PROPERTY, Base64.getEncoder().encodeToString(audio));
+        processor.process(base64);
+
+        Exchange streaming = exchange();
+        streaming.setProperty(WhatsAppConstants.AUDIO_BYTES_PROPERTY, audio);
+        processor.process(streaming);
+
+        assertThat(streaming.getIn().getBody()).isInstanceOf(VoicePayloadInputStream.class);
+        byte[] streamed = streaming.getIn().getBody(InputStream.class).readAllBytes();
+        assertThat(streamed).isEqualTo(base64.getIn().getBody(byte[].class));
+        assertThat(streaming.getIn().getHeader(Exchange.CONTENT_LENGTH, Long.class)).isEqualTo(streamed.length);
+        assertThat(streaming.getIn().getHeader(WhatsAppConstants.CONTENT_TYPE_HEADER))
+                .isEqualTo(WhatsAppConstants.APPLICATION_JSON);
+    }
+
+    private static Exchange exchange() {
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.setProperty(WhatsAppConstants.PHONE_PROPERTY, PHONE);
+        return exchange;
+    }
+}
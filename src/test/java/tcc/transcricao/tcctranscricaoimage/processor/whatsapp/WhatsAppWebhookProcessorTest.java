@@ -0,0 +1,134 @@
+package tcc.transcricao.tcctranscricaoimage.processor.whatsapp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.exception.DuplicateWebhookException;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.PhoneRateLimiter;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WebhookDeduplicator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WhatsAppWebhookProcessorTest {
+
+    private static final String PHONE = "5511999990000";
+    private static final byte[] IMAGE_1 = {1, 2, 3, 4};
+    private static final byte[] IMAGE_2 = {5, 6, 7};
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebhookDeduplicator deduplicator = new WebhookDeduplicator(true, Duration.ofMinutes(10), meterRegistry);
+    // Uma única ficha: um segundo acquire do mesmo telefone falharia
+    private final PhoneRateLimiter rateLimiter = new PhoneRateLimiter(true, 1, Duration.ofHours(1), meterRegistry);
+    private final WhatsAppWebhookProcessor processor =
+            new WhatsAppWebhookProcessor(new PipelineMetrics(meterRegistry), rateLimiter, deduplicator);
+
+    WhatsAppWebhookProcessorTest() {
+        ReflectionTestUtils.setField(processor, "maxImageBytes", 4);
+        ReflectionTestUtils.setField(processor, "maxAlbumImages", 2);
+    }
+
+    @Test
+    void readsMediaObject() throws Exception {
+        Exchange exchange = process("""
+                {"id":"m1","from":"%s","media":{"mimetype":"image/jpeg","data":"%s"}}"""
+                .formatted(PHONE, base64(IMAGE_1)));
+
+        assertThat(exchange.getProperty(WhatsAppConstants.PHONE_PROPERTY)).isEqualTo(PHONE);
+        assertThat(exchange.getProperty(WhatsAppConstants.MESSAGE_ID_PROPERTY)).isEqualTo("m1");
+        assertThat(exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, byte[].class)).isEqualTo(IMAGE_1);
+        assertThat(exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_LIST_PROPERTY)).isNull();
+        assertThat(exchange.getIn().getBody()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void readsMediaArrayAsAlbumUpToLimit() throws Exception {
+        Exchange exchange = process("""
+                {"from":"%s","media":[{"data":"%s"},{"data":"%s"},{"data":"%s"}]}"""
+                .formatted(PHONE, base64(IMAGE_1), base64(IMAGE_2), base64(IMAGE_1)));
+
+        List<byte[]> album = exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_LIST_PROPERTY, List.class);
+        assertThat(album).containsExactly(IMAGE_1, IMAGE_2);
+        assertThat(exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, byte[].class)).isEqualTo(IMAGE_1);
+    }
+
+    @Test
+    void skipsUnknownFieldsAtAnyDepth() throws Exception {
+        Exchange exchange = process("""
+                {"type":"image","meta":{"data":"AAAA","from":"x","list":[1,{"media":{}}]},
+                 "from":"%s","media":{"caption":{"data":"AAAA"},"thumb":[{"data":"AAAA"}],"data":"%s"},"ack":3}"""
+                .formatted(PHONE, base64(IMAGE_2)));
+
+        assertThat(exchange.getProperty(WhatsAppConstants.PHONE_PROPERTY)).isEqualTo(PHONE);
+        assertThat(exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, byte[].class)).isEqualTo(IMAGE_2);
+    }
+
+    @Test
+    void duplicateFieldsKeepFirstValue() throws Exception {
+        Exchange exchange = process("""
+                {"id":"m1","id":"m2","from":"%s","from":"5511888880000",
+                 "media":{"data":"%s","data":"%s"},"media":{"data":"%s"}}"""
+                .formatted(PHONE, base64(IMAGE_1), base64(IMAGE_2), base64(IMAGE_2)));
+
+        assertThat(exchange.getProperty(WhatsAppConstants.MESSAGE_ID_PROPERTY)).isEqualTo("m1");
+        assertThat(exchange.getProperty(WhatsAppConstants.PHONE_PROPERTY)).isEqualTo(PHONE);
+        assertThat(exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, byte[].class)).isEqualTo(IMAGE_1);
+        assertThat(exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_LIST_PROPERTY)).isNull();
+        // O segundo 'media' não consumiu outra ficha do telefone
+        assertThat(meterRegistry.counter("webhook.ratelimit.allowed").count()).isEqualTo(1.0);
+        assertThatCode(() -> deduplicator.register("m2")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> deduplicator.register("m1")).isInstanceOf(DuplicateWebhookException.class);
+    }
+
+    @Test
+    void acceptsImageAtMaxImageBytes() throws Exception {
+        Exchange exchange = process("""
+                {"from":"%s","media":{"data":"%s"}}""".formatted(PHONE, base64(IMAGE_1)));
+
+        assertThat(exchange.getProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, byte[].class)).hasSize(4);
+    }
+
+    @Test
+    void rejectsImageAboveMaxImageBytesAndReleasesMessageId() {
+        String body = """
+                {"id":"m1","from":"%s","media":{"data":"%s"}}""".formatted(PHONE, base64(new byte[5]));
+
+        assertThatThrownBy(() -> process(body))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("4 bytes");
+        // O id volta a ser aceito para que um reenvio válido seja processado
+        assertThatCode(() -> deduplicator.register("m1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checksLimitWhenPhoneComesAfterMedia() throws Exception {
+        process("""
+                {"media":{"data":"%s"},"from":"%s"}""".formatted(base64(IMAGE_1), PHONE));
+
+        assertThat(meterRegistry.counter("webhook.ratelimit.allowed").count()).isEqualTo(1.0);
+    }
+
+    private Exchange process(String body) throws Exception {
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setBody(body.getBytes(StandardCharsets.UTF_8));
+        processor.process(exchange);
+        return exchange;
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
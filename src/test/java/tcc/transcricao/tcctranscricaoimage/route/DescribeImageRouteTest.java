@@ -0,0 +1,207 @@
+package tcc.transcricao.tcctranscricaoimage.route;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.AdviceWith;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.component.seda.SedaEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.processor.chain.ProcessorRegistry;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
+import tcc.transcricao.tcctranscricaoimage.service.queue.ImageJobWorker;
+import tcc.transcricao.tcctranscricaoimage.service.whatsapp.WhatsAppOutbox;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DescribeImageRouteTest {
+
+    private static final String WEBHOOK = "direct:webhook";
+
+    private final ProcessorRegistry processorRegistry = mock(ProcessorRegistry.class, RETURNS_DEEP_STUBS);
+    private final ImageJobWorker jobWorker = mock(ImageJobWorker.class);
+    private final CountDownLatch releasePipeline = new CountDownLatch(1);
+    private CamelContext context;
+
+    @AfterEach
+    void tearDown() {
+        releasePipeline.countDown();
+        if (context != null) {
+            context.stop();
+        }
+    }
+
+    @Test
+    void syncModeRunsPipelineOnWebhookThread() throws Exception {
+        start(WhatsAppConstants.PIPELINE_MODE_SYNC);
+        releasePipeline.countDown();
+        MockEndpoint survey = context.getEndpoint("mock:survey", MockEndpoint.class);
+        survey.expectedMessageCount(1);
+
+        Exchange reply = send();
+
+        assertThat(reply.getMessage().getBody(String.class)).isEqualTo("OK");
+        survey.assertIsSatisfied(0);
+    }
+
+    @Test
+    void asyncModeAnswersAcceptedBeforePipelineRuns() throws Exception {
+        start(WhatsAppConstants.PIPELINE_MODE_ASYNC);
+        MockEndpoint survey = context.getEndpoint("mock:survey", MockEndpoint.class);
+        survey.expectedMessageCount(1);
+
+        Exchange reply = send();
+
+        assertThat(reply.getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE)).isEqualTo(202);
+        assertThat(reply.getMessage().getBody(String.class)).isEqualTo(WhatsAppConstants.ACCEPTED_RESPONSE);
+        assertThat(survey.getReceivedCounter()).isZero();
+
+        releasePipeline.countDown();
+        survey.assertIsSatisfied(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Test
+    void asyncModeRejectsWithServiceUnavailableWhenQueueIsFull() throws Exception {
+        start(WhatsAppConstants.PIPELINE_MODE_ASYNC);
+
+        // Um job em execução no único consumidor e outro ocupando a única vaga da fila
+        assertThat(send().getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE)).isEqualTo(202);
+        waitUntilQueueIsDrained();
+        assertThat(send().getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE)).isEqualTo(202);
+
+        Exchange rejected = send();
+
+        assertThat(rejected.getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE)).isEqualTo(503);
+        assertThat(rejected.getMessage().getBody(String.class)).isEqualTo(WhatsAppConstants.QUEUE_FULL_RESPONSE);
+        // Só as duas imagens aceitas recebem confirmação
+        MockEndpoint bridge = context.getEndpoint("mock:bridge", MockEndpoint.class);
+        bridge.expectedMessageCount(2);
+        bridge.assertIsSatisfied(TimeUnit.SECONDS.toMillis(5));
+        Thread.sleep(100);
+        assertThat(bridge.getReceivedCounter()).isEqualTo(2);
+    }
+
+    @Test
+    void durableModeConfirmsOnlyAfterJobIsPersisted() throws Exception {
+        when(jobWorker.enqueue()).thenReturn(exchange -> {
+            if (exchange.getIn().getBody(String.class).endsWith("0")) {
+                throw new IllegalStateException("banco indisponível");
+            }
+        });
+        start(WhatsAppConstants.PIPELINE_MODE_DURABLE);
+        MockEndpoint bridge = context.getEndpoint("mock:bridge", MockEndpoint.class);
+
+        send("5511000000000");
+        assertThat(send("5511000000001").getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE)).isEqualTo(202);
+
+        bridge.expectedMessageCount(1);
+        bridge.assertIsSatisfied(TimeUnit.SECONDS.toMillis(5));
+        Thread.sleep(100);
+        assertThat(bridge.getReceivedCounter()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncAlbumWindowKeepsConsumerLimit() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(processorRegistry.getSystemChain().getImageAudioProcessor()).thenReturn(exchange -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+        });
+        start(WhatsAppConstants.PIPELINE_MODE_ASYNC, Duration.ofMillis(20));
+        MockEndpoint survey = context.getEndpoint("mock:survey", MockEndpoint.class);
+        survey.expectedMessageCount(3);
+
+        // Telefones diferentes: três álbuns completados quase juntos pelo timeout da janela
+        for (String phone : List.of("5511000000001", "5511000000002", "5511000000003")) {
+            assertThat(send(phone).getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE)).isEqualTo(202);
+            waitUntilQueueIsDrained();
+        }
+
+        survey.assertIsSatisfied(TimeUnit.SECONDS.toMillis(5));
+        assertThat(maxRunning).hasValue(1);
+    }
+
+    private void start(String pipelineMode) throws Exception {
+        when(processorRegistry.getSystemChain().getImageAudioProcessor())
+                .thenReturn(exchange -> releasePipeline.await(5, TimeUnit.SECONDS));
+        start(pipelineMode, Duration.ZERO);
+    }
+
+    private void start(String pipelineMode, Duration albumWindow) throws Exception {
+        when(processorRegistry.getWhatsAppChain().getWebhookProcessor()).thenReturn(exchange -> {
+            exchange.setProperty(WhatsAppConstants.PHONE_PROPERTY, exchange.getIn().getBody(String.class));
+            exchange.setProperty(WhatsAppConstants.IMAGE_BYTES_PROPERTY, new byte[] {1});
+        });
+
+        WhatsAppOutbox outbox = mock(WhatsAppOutbox.class);
+        when(outbox.endpoint(anyString())).thenReturn("mock:bridge");
+
+        when(jobWorker.delivered()).thenReturn(exchange -> { });
+        when(jobWorker.claim()).thenReturn(exchange -> exchange.getIn().setBody(List.of()));
+        when(jobWorker.start()).thenReturn(exchange -> { });
+        when(jobWorker.getConsumers()).thenReturn(1);
+        if (jobWorker.enqueue() == null) {
+            when(jobWorker.enqueue()).thenReturn(exchange -> { });
+        }
+
+        DescribeImageRoute route = new DescribeImageRoute(processorRegistry, outbox,
+                new PipelineMetrics(new SimpleMeterRegistry()), jobWorker);
+        ReflectionTestUtils.setField(route, "pipelineMode", pipelineMode);
+        ReflectionTestUtils.setField(route, "albumWindow", albumWindow);
+        ReflectionTestUtils.setField(route, "albumMaxImages", 10);
+        ReflectionTestUtils.setField(route, "jobPollInterval", Duration.ofMillis(500));
+
+        Properties properties = new Properties();
+        properties.setProperty("pipeline.async.queue-size", "1");
+        properties.setProperty("pipeline.async.consumers", "1");
+
+        context = new DefaultCamelContext();
+        context.getPropertiesComponent().setInitialProperties(properties);
+        context.addRoutes(route);
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from(SurveyConstants.START_SURVEY_ENDPOINT).to("mock:survey");
+            }
+        });
+        AdviceWith.adviceWith(context, "whatsapp-webhook-route", advice -> advice.replaceFromWith(WEBHOOK));
+        context.start();
+    }
+
+    private Exchange send() {
+        return send("5511999990000");
+    }
+
+    private Exchange send(String phone) {
+        ProducerTemplate producer = context.createProducerTemplate();
+        return producer.request(WEBHOOK, exchange -> exchange.getIn().setBody(phone));
+    }
+
+    private void waitUntilQueueIsDrained() throws InterruptedException {
+        SedaEndpoint queue = context.getEndpoint(WhatsAppConstants.IMAGE_PIPELINE_QUEUE_ENDPOINT, SedaEndpoint.class);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queue.getCurrentQueueSize() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package tcc.transcricao.tcctranscricaoimage.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.service.cache.ImageDescriptionCache;
+import tcc.transcricao.tcctranscricaoimage.service.cache.SingleFlight;
+import tcc.transcricao.tcctranscricaoimage.service.image.ImagePreprocessor;
+import tcc.transcricao.tcctranscricaoimage.service.metrics.PipelineMetrics;
+import tcc.transcricao.tcctranscricaoimage.service.openai.OpenAIHttpClient;
+import tcc.transcricao.tcctranscricaoimage.service.openai.OpenAIPayloadBuilder;
+import tcc.transcricao.tcctranscricaoimage.service.openai.OpenAIResponseProcessor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageDescriptionServiceTest {
+
+    private static final byte[] ORIGINAL = {1, 2, 3};
+    private static final byte[] PREPARED = {9};
+    private static final byte[] OTHER_ORIGINAL = {4, 5, 6};
+
+    private final OpenAIPayloadBuilder payloadBuilder = mock(OpenAIPayloadBuilder.class);
+    private final OpenAIHttpClient httpClient = mock(OpenAIHttpClient.class);
+    private final OpenAIResponseProcessor responseProcessor = mock(OpenAIResponseProcessor.class);
+    private final ImagePreprocessor imagePreprocessor = mock(ImagePreprocessor.class);
+    private final ImageDescriptionCache descriptionCache;
+    private final ImageDescriptionService service;
+
+    ImageDescriptionServiceTest() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        descriptionCache = new ImageDescriptionCache(true, 100, 1_000_000, "low", meterRegistry);
+        service = new ImageDescriptionService(payloadBuilder, httpClient, responseProcessor, descriptionCache,
+                imagePreprocessor, new PipelineMetrics(meterRegistry),
+                new SingleFlight<>("vision", true, meterRegistry), new SingleFlight<>("album", true, meterRegistry));
+        when(imagePreprocessor.prepare(any())).thenReturn(PREPARED);
+    }
+
+    @Test
+    void preprocessesOnlyOnCacheMiss() {
+        when(payloadBuilder.buildImageDescriptionPayload(PREPARED)).thenReturn("{}");
+        when(httpClient.sendRequest(anyString(), any())).thenReturn("Um gato no sofá.");
+
+        assertThat(service.getDescription(ORIGINAL)).isEqualTo("Um gato no sofá.");
+        assertThat(service.getDescription(ORIGINAL.clone())).isEqualTo("Um gato no sofá.");
+
+        verify(imagePreprocessor, times(1)).prepare(ORIGINAL);
+        verify(httpClient, times(1)).sendRequest(anyString(), any());
+    }
+
+    @Test
+    void cacheIsKeyedByOriginalBytes() {
+        descriptionCache.put(descriptionCache.keyFor(ORIGINAL), "Descrição em cache.");
+
+        assertThat(service.findCachedDescription(ORIGINAL)).contains("Descrição em cache.");
+        assertThat(service.getDescription(ORIGINAL)).isEqualTo("Descrição em cache.");
+        verify(imagePreprocessor, never()).prepare(any());
+    }
+
+    @Test
+    void albumPreprocessesOnlyImagesMissingFromCache() {
+        descriptionCache.put(descriptionCache.keyFor(ORIGINAL), "Primeira.");
+        when(payloadBuilder.buildImageDescriptionPayload(PREPARED)).thenReturn("{}");
+        when(httpClient.sendRequest(anyString(), any())).thenReturn("Segunda.");
+
+        assertThat(service.getDescriptions(List.of(ORIGINAL, OTHER_ORIGINAL)))
+                .containsExactly("Primeira.", "Segunda.");
+
+        verify(imagePreprocessor, never()).prepare(ORIGINAL);
+        verify(imagePreprocessor).prepare(OTHER_ORIGINAL);
+        verify(payloadBuilder, never()).buildAlbumDescriptionPayload(anyList());
+    }
+}
@@ -0,0 +1,84 @@
+package tcc.transcricao.tcctranscricaoimage.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedLruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedWhenEntryLimitIsReached() {
+        BoundedLruCache<String, String> cache = new BoundedLruCache<>(2, 1_000, String::length);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.get("a"); // "b" passa a ser a menos usada
+        cache.put("c", "3");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("3");
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsUntilWeightFitsByteLimit() {
+        BoundedLruCache<String, String> cache = new BoundedLruCache<>(10, 10, String::length);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+
+        cache.put("c", "cccccc");
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo("bbbb");
+        assertThat(cache.weightedSize()).isEqualTo(10);
+    }
+
+    @Test
+    void ignoresValuesLargerThanTheWholeCache() {
+        BoundedLruCache<String, String> cache = new BoundedLruCache<>(10, 5, String::length);
+        cache.put("a", "aa");
+
+        cache.put("big", "123456");
+
+        assertThat(cache.get("big")).isNull();
+        assertThat(cache.get("a")).isEqualTo("aa");
+    }
+
+    @Test
+    void replacingAKeyAdjustsWeight() {
+        BoundedLruCache<String, String> cache = new BoundedLruCache<>(10, 100, String::length);
+        cache.put("a", "aaaa");
+        cache.put("a", "aa");
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weightedSize()).isEqualTo(2);
+
+        cache.remove("a");
+        assertThat(cache.weightedSize()).isZero();
+    }
+
+    @Test
+    void tracksHitRatio() {
+        BoundedLruCache<String, String> cache = new BoundedLruCache<>(10, 100, String::length);
+        cache.put("a", "1");
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("a");
+        cache.get("missing");
+
+        assertThat(cache.hitCount()).isEqualTo(3);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitRatio()).isEqualTo(0.75);
+    }
+
+    @Test
+    void rejectsNonPositiveLimits() {
+        assertThatThrownBy(() -> new BoundedLruCache<String, String>(0, 10, String::length))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BoundedLruCache<String, String>(10, 0, String::length))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
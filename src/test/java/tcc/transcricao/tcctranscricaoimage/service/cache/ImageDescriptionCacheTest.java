@@ -0,0 +1,42 @@
+package tcc.transcricao.tcctranscricaoimage.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageDescriptionCacheTest {
+
+    private static final byte[] IMAGE = "imagem-a".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OTHER_IMAGE = "imagem-b".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void identicalBytesShareTheDescription() {
+        ImageDescriptionCache cache = cache(true, "low");
+
+        cache.put(cache.keyFor(IMAGE), "Um gato no sofá.");
+
+        assertThat(cache.get(cache.keyFor(IMAGE.clone()))).isEqualTo("Um gato no sofá.");
+        assertThat(cache.get(cache.keyFor(OTHER_IMAGE))).isNull();
+    }
+
+    @Test
+    void keyChangesWithPromptConfiguration() {
+        assertThat(cache(true, "low").keyFor(IMAGE)).isNotEqualTo(cache(true, "high").keyFor(IMAGE));
+    }
+
+    @Test
+    void disabledCacheHasNoKey() {
+        ImageDescriptionCache cache = cache(false, "low");
+
+        assertThat(cache.keyFor(IMAGE)).isNull();
+        assertThat(cache.get(null)).isNull();
+        assertThat(cache(true, "low").keyFor(new byte[0])).isNull();
+    }
+
+    private static ImageDescriptionCache cache(boolean enabled, String visionDetail) {
+        return new ImageDescriptionCache(enabled, 100, 1_000_000, visionDetail, new SimpleMeterRegistry());
+    }
+}
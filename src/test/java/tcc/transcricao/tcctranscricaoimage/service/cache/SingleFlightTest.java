@@ -0,0 +1,118 @@
+package tcc.transcricao.tcctranscricaoimage.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", true, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> flight.execute("k", () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "descrição";
+        }));
+        awaitInFlight();
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> flight.execute("k", () -> {
+            calls.incrementAndGet();
+            return "outra";
+        }));
+        awaitCoalesced();
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("descrição");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("descrição");
+        assertThat(calls).hasValue(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void followersReceiveTheSameException() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", true, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("API indisponível");
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> flight.execute("k", () -> {
+            await(release);
+            throw failure;
+        }));
+        awaitInFlight();
+        CompletableFuture<Throwable> follower = CompletableFuture.supplyAsync(() -> {
+            try {
+                flight.execute("k", () -> "não executa");
+                return null;
+            } catch (RuntimeException e) {
+                return e;
+            }
+        });
+        awaitCoalesced();
+        release.countDown();
+
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(failure);
+        assertThatThrownBy(leader::join).hasCause(failure);
+    }
+
+    @Test
+    void completedKeyIsExecutedAgain() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", true, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        flight.execute("k", calls::incrementAndGet);
+
+        assertThat(flight.execute("k", calls::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void disabledOrNullKeyRunsLoaderDirectly() {
+        SingleFlight<String, String> disabled = new SingleFlight<>("test", false, meterRegistry);
+        SingleFlight<String, String> enabled = new SingleFlight<>("other", true, meterRegistry);
+
+        assertThat(disabled.execute("k", () -> "a")).isEqualTo("a");
+        assertThat(enabled.execute(null, () -> "b")).isEqualTo("b");
+        assertThat(inFlight()).isZero();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("singleflight.inflight").tag("name", "test").gauge().value();
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        waitUntil(() -> inFlight() == 1);
+    }
+
+    private void awaitCoalesced() throws InterruptedException {
+        waitUntil(() -> meterRegistry.counter("singleflight.coalesced", "name", "test").count() == 1);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tempo esgotado").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
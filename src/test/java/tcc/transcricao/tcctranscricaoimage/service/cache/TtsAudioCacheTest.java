@@ -0,0 +1,79 @@
+package tcc.transcricao.tcctranscricaoimage.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TtsAudioCacheTest {
+
+    @TempDir
+    Path diskDir;
+
+    @Test
+    void keyIgnoresWhitespaceDifferences() {
+        TtsAudioCache cache = cache(false, 1_000, new SimpleMeterRegistry());
+
+        assertThat(cache.keyFor("  Um   gato\nno sofá. ", "alloy", "tts-1", "mp3"))
+                .isEqualTo(cache.keyFor("Um gato no sofá.", "alloy", "tts-1", "mp3"))
+                .isNotEqualTo(cache.keyFor("Um gato no sofá.", "alloy", "tts-1", "opus"));
+    }
+
+    @Test
+    void diskTierServesAudioAfterRestart() {
+        TtsAudioCache first = cache(true, 1_000, new SimpleMeterRegistry());
+        String key = first.keyFor("Olá", "alloy", "tts-1", "mp3");
+        first.put(key, new byte[]{1, 2, 3});
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TtsAudioCache restarted = cache(true, 1_000, registry);
+
+        assertThat(restarted.get(key).bytes()).containsExactly(1, 2, 3);
+        assertThat(registry.counter("cache.disk.hits", "cache", "tts-audio").count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.disk.bytes").gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    void diskTierIsPrunedBackToItsLimit() throws IOException {
+        TtsAudioCache cache = cache(true, 10, new SimpleMeterRegistry());
+
+        cache.put("a", new byte[6]);
+        cache.put("b", new byte[6]);
+
+        try (Stream<Path> files = Files.list(diskDir)) {
+            assertThat(files.mapToLong(TtsAudioCacheTest::sizeOf).sum()).isLessThanOrEqualTo(10);
+        }
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        TtsAudioCache cache = new TtsAudioCache(false, 10, 1_000, true, diskDir.toString(), 1_000,
+                new SimpleMeterRegistry());
+
+        String key = cache.keyFor("Olá", "alloy", "tts-1", "mp3");
+        cache.put(key, new byte[]{1});
+
+        assertThat(key).isNull();
+        assertThat(cache.get(key)).isNull();
+        assertThat(diskDir).isEmptyDirectory();
+    }
+
+    private TtsAudioCache cache(boolean diskEnabled, long diskMaxBytes, MeterRegistry registry) {
+        return new TtsAudioCache(true, 10, 1_000, diskEnabled, diskDir.toString(), diskMaxBytes, registry);
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void representativeValueStaysWithinRelativeError() {
+        for (long millis = 1; millis <= 600_000; millis = millis * 3 / 2 + 1) {
+            long estimate = LatencyHistogram.value(LatencyHistogram.bin(millis));
+            assertThat((double) estimate).isCloseTo(millis, within(millis * 0.025 + 0.5));
+        }
+    }
+
+    @Test
+    void binsGrowWithLatency() {
+        assertThat(LatencyHistogram.bin(0)).isZero();
+        assertThat(LatencyHistogram.bin(1)).isZero();
+        assertThat(LatencyHistogram.bin(100)).isLessThan(LatencyHistogram.bin(200));
+        assertThat(LatencyHistogram.value(0)).isEqualTo(1);
+    }
+
+    @Test
+    void granularityTruncatesToItsUnit() {
+        LocalDateTime dateTime = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_000_000);
+
+        assertThat(RollupGranularity.MINUTE.truncate(dateTime)).isEqualTo(LocalDateTime.of(2025, 3, 14, 15, 9));
+        assertThat(RollupGranularity.HOUR.truncate(dateTime)).isEqualTo(LocalDateTime.of(2025, 3, 14, 15, 0));
+        assertThat(RollupGranularity.DAY.truncate(dateTime)).isEqualTo(LocalDateTime.of(2025, 3, 14, 0, 0));
+    }
+
+    @Test
+    void granularityIsParsedFromCode() {
+        assertThat(RollupGranularity.fromCode("HOUR")).isEqualTo(RollupGranularity.HOUR);
+        assertThat(RollupGranularity.DAY.code()).isEqualTo("day");
+        assertThatThrownBy(() -> RollupGranularity.fromCode("week"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
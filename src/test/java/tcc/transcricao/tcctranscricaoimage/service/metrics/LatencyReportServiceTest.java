@@ -0,0 +1,55 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LatencyReportServiceTest {
+
+    private static final LocalDateTime BUCKET = LocalDateTime.of(2025, 3, 14, 15, 0);
+
+    @Test
+    void computesPercentilesFromHistogram() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        // 100 medições: 50 de 100 ms, 40 de 1 s e 10 de 5 s
+        List<Object[]> rows = List.of(
+                new Object[]{"tempoTotal", LatencyHistogram.bin(100), 50L},
+                new Object[]{"tempoTotal", LatencyHistogram.bin(1_000), 40L},
+                new Object[]{"tempoTotal", LatencyHistogram.bin(5_000), 10L});
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getTimestamp("bucket_start")).thenReturn(Timestamp.valueOf(BUCKET));
+                when(rs.getString("metric")).thenReturn((String) row[0]);
+                when(rs.getInt("bin")).thenReturn((Integer) row[1]);
+                when(rs.getLong("count")).thenReturn((Long) row[2]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        List<LatencyReportService.Bucket> buckets = new LatencyReportService(jdbcTemplate)
+                .percentiles(RollupGranularity.HOUR, BUCKET.plusMinutes(30), BUCKET.plusHours(1));
+
+        assertThat(buckets).hasSize(1);
+        assertThat(buckets.get(0).start()).isEqualTo(BUCKET);
+        LatencyReportService.Percentiles total = buckets.get(0).metrics().get("tempoTotal");
+        assertThat(total.count()).isEqualTo(100);
+        assertThat(total.p50()).isEqualTo(LatencyHistogram.value(LatencyHistogram.bin(100)));
+        assertThat(total.p90()).isEqualTo(LatencyHistogram.value(LatencyHistogram.bin(1_000)));
+        assertThat(total.p99()).isEqualTo(LatencyHistogram.value(LatencyHistogram.bin(5_000)));
+    }
+}
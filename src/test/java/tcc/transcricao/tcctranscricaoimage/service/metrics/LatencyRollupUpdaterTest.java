@@ -0,0 +1,70 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import tcc.transcricao.tcctranscricaoimage.model.PerformanceMetric;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LatencyRollupUpdaterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final LatencyRollupUpdater updater = new LatencyRollupUpdater(jdbcTemplate);
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void aggregatesBatchBeforeUpserting() throws SQLException {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 14, 15, 9, 26);
+        updater.apply(List.of(metric(now, 800), metric(now.plusSeconds(10), 800)));
+
+        ArgumentCaptor<Collection> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), anyInt(), setter.capture());
+
+        // 3 granularidades x 4 métricas, cada linha com as duas medições somadas
+        assertThat(rows.getValue()).hasSize(3 * LatencyRollupUpdater.METRICS.size());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        for (Object row : rows.getValue()) {
+            setter.getValue().setValues(ps, row);
+        }
+        verify(ps, times(12)).setLong(5, 2L);
+        verify(ps, times(4)).setString(1, "minute");
+        verify(ps, times(4)).setTimestamp(eq(2), eq(Timestamp.valueOf(LocalDateTime.of(2025, 3, 14, 0, 0))));
+        verify(ps, times(3)).setInt(4, LatencyHistogram.bin(800));
+    }
+
+    @Test
+    void skipsMetricsWithoutTimestamp() {
+        updater.apply(List.of(metric(null, 100)));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(), any());
+    }
+
+    private static PerformanceMetric metric(LocalDateTime data, long tempoTotal) {
+        PerformanceMetric metric = new PerformanceMetric();
+        metric.setData(data);
+        metric.setTempoDescricao(300);
+        metric.setTempoTts(200);
+        metric.setTempoEnvio(100);
+        metric.setTempoTotal(tempoTotal);
+        return metric;
+    }
+}
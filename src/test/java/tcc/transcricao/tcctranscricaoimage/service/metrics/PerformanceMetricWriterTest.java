@@ -0,0 +1,158 @@
+package tcc.transcricao.tcctranscricaoimage.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import tcc.transcricao.tcctranscricaoimage.model.PerformanceMetric;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class PerformanceMetricWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final LatencyRollupUpdater rollupUpdater = mock(LatencyRollupUpdater.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Cada lote gravado, na ordem; o rollup recebe as métricas do lote na mesma transação do INSERT
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> writerThreads = Collections.synchronizedList(new ArrayList<>());
+    private PerformanceMetricWriter writer;
+
+    PerformanceMetricWriterTest() {
+        doAnswer(invocation -> {
+            List<PerformanceMetric> metrics = invocation.getArgument(0);
+            batches.add(metrics.stream().map(PerformanceMetric::getPhone).toList());
+            writerThreads.add(Thread.currentThread().getName());
+            return null;
+        }).when(rollupUpdater).apply(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void flushesAsSoonAsBatchIsFull() throws InterruptedException {
+        writer = writer(true, 100, 3, Duration.ofHours(1), PerformanceMetricWriter.OVERFLOW_DROP_NEWEST);
+        writer.start();
+
+        for (String phone : List.of("1", "2", "3")) {
+            writer.submit(metric(phone));
+        }
+
+        awaitBatches(1);
+        assertThat(batches).containsExactly(List.of("1", "2", "3"));
+        assertThat(meterRegistry.counter("metrics.writer.written").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void flushesPartialBatchWhenIntervalExpires() throws InterruptedException {
+        writer = writer(true, 100, 100, Duration.ofMillis(50), PerformanceMetricWriter.OVERFLOW_DROP_NEWEST);
+        writer.start();
+
+        writer.submit(metric("1"));
+        writer.submit(metric("2"));
+
+        awaitBatches(1);
+        assertThat(batches).containsExactly(List.of("1", "2"));
+    }
+
+    @Test
+    void dropNewestKeepsQueuedMetrics() {
+        // Sem iniciar a thread de fundo a fila não é consumida até o stop()
+        writer = writer(true, 2, 100, Duration.ofHours(1), PerformanceMetricWriter.OVERFLOW_DROP_NEWEST);
+
+        for (String phone : List.of("1", "2", "3")) {
+            writer.submit(metric(phone));
+        }
+        writer.start();
+        writer.stop();
+
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly("1", "2");
+        assertThat(meterRegistry.counter("metrics.writer.dropped").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("metrics.writer.enqueued").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void dropOldestMakesRoomForNewMetric() {
+        writer = writer(true, 2, 100, Duration.ofHours(1), PerformanceMetricWriter.OVERFLOW_DROP_OLDEST);
+
+        for (String phone : List.of("1", "2", "3")) {
+            writer.submit(metric(phone));
+        }
+        writer.start();
+        writer.stop();
+
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly("2", "3");
+        assertThat(meterRegistry.counter("metrics.writer.dropped").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void stopFlushesEverythingStillQueued() {
+        writer = writer(true, 100, 2, Duration.ofHours(1), PerformanceMetricWriter.OVERFLOW_DROP_NEWEST);
+
+        for (String phone : List.of("1", "2", "3", "4", "5")) {
+            writer.submit(metric(phone));
+        }
+        writer.start();
+        writer.stop();
+
+        // Lotes limitados ao tamanho configurado, sem perder nem reordenar métricas
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly("1", "2", "3", "4", "5");
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        assertThat(meterRegistry.get("metrics.writer.queue.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void disabledWriterWritesSynchronouslyOnCallerThread() {
+        writer = writer(false, 100, 100, Duration.ofHours(1), PerformanceMetricWriter.OVERFLOW_DROP_NEWEST);
+        writer.start();
+
+        writer.submit(metric("1"));
+
+        assertThat(batches).containsExactly(List.of("1"));
+        assertThat(writerThreads).containsExactly(Thread.currentThread().getName());
+        assertThat(meterRegistry.counter("metrics.writer.enqueued").count()).isZero();
+    }
+
+    private PerformanceMetricWriter writer(boolean enabled, int capacity, int batchSize, Duration flushInterval,
+                                           String overflowPolicy) {
+        return new PerformanceMetricWriter(jdbcTemplate, rollupUpdater, mock(PlatformTransactionManager.class),
+                enabled, capacity, batchSize, flushInterval, overflowPolicy, meterRegistry,
+                new PipelineMetrics(meterRegistry));
+    }
+
+    private void awaitBatches(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static PerformanceMetric metric(String phone) {
+        PerformanceMetric metric = new PerformanceMetric();
+        metric.setPhone(phone);
+        metric.setData(LocalDateTime.of(2025, 3, 14, 15, 9, 26));
+        metric.setTempoDescricao(300);
+        metric.setTempoTts(200);
+        metric.setTempoEnvio(100);
+        metric.setTempoTotal(600);
+        return metric;
+    }
+}
@@ -0,0 +1,89 @@
+package tcc.transcricao.tcctranscricaoimage.service.openai;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentDecoderTest {
+
+    private static final byte[] BODY = "{\"choices\":[{\"message\":{\"content\":\"Um gato no sofá.\"}}]}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void returnsBodyUntouchedWithoutEncoding() throws IOException {
+        InputStream body = new ByteArrayInputStream(BODY);
+
+        assertThat(ContentDecoder.decode(body, null)).isSameAs(body);
+        assertThat(ContentDecoder.decode(body, " ")).isSameAs(body);
+        assertThat(ContentDecoder.decode(body, "identity")).isSameAs(body);
+    }
+
+    @Test
+    void decodesGzip() throws IOException {
+        assertThat(decode(gzip(BODY), "gzip")).isEqualTo(BODY);
+        assertThat(decode(gzip(BODY), "X-GZIP")).isEqualTo(BODY);
+    }
+
+    @Test
+    void decodesBrotli() throws IOException {
+        Brotli4jLoader.ensureAvailability();
+
+        assertThat(decode(Encoder.compress(BODY), "br")).isEqualTo(BODY);
+    }
+
+    @Test
+    void decodesZlibWrappedAndRawDeflate() throws IOException {
+        assertThat(decode(deflate(BODY, false), "deflate")).isEqualTo(BODY);
+        assertThat(decode(deflate(BODY, true), "deflate")).isEqualTo(BODY);
+    }
+
+    @Test
+    void undoesStackedEncodingsInReverseOrder() throws IOException {
+        // "deflate, gzip": deflate aplicado primeiro, gzip por último
+        assertThat(decode(gzip(deflate(BODY, false)), "deflate, gzip")).isEqualTo(BODY);
+    }
+
+    @Test
+    void rejectsUnsupportedEncoding() {
+        assertThatThrownBy(() -> ContentDecoder.decode(new ByteArrayInputStream(BODY), "zstd"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("zstd");
+    }
+
+    private static byte[] decode(byte[] encoded, String contentEncoding) throws IOException {
+        try (InputStream decoded = ContentDecoder.decode(new ByteArrayInputStream(encoded), contentEncoding)) {
+            return decoded.readAllBytes();
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data, boolean raw) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(output, deflater)) {
+            deflate.write(data);
+        } finally {
+            deflater.end();
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,96 @@
+package tcc.transcricao.tcctranscricaoimage.service.openai;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpResponse;
+import tcc.transcricao.tcctranscricaoimage.exception.DescricaoImagemException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OpenAIResponseProcessorTest {
+
+    private final OpenAIResponseProcessor processor = new OpenAIResponseProcessor();
+
+    @Test
+    void extractsFirstChoiceContentSkippingOtherFields() {
+        String json = """
+                {"id":"chatcmpl-1","object":"chat.completion",
+                 "choices":[
+                   {"index":0,"logprobs":null,"message":{"role":"assistant","refusal":null,
+                     "content":"  Um gato no sofá.  ","annotations":[]},"finish_reason":"stop"},
+                   {"index":1,"message":{"content":"Outra escolha"}}],
+                 "usage":{"prompt_tokens":10,"completion_tokens":5}}""";
+
+        assertThat(processor.extractDescription(body(json), null)).isEqualTo("Um gato no sofá.");
+    }
+
+    @Test
+    void rejectsResponseWithoutChoices() {
+        assertThatThrownBy(() -> processor.extractDescription(body("{\"error\":{\"message\":\"x\"}}"), null))
+                .isInstanceOf(DescricaoImagemException.class)
+                .hasMessageContaining("choices");
+    }
+
+    @Test
+    void rejectsEmptyDescription() {
+        assertThatThrownBy(() -> processor.extractDescription(
+                body("{\"choices\":[{\"message\":{\"content\":\"   \"}}]}"), null))
+                .isInstanceOf(DescricaoImagemException.class);
+    }
+
+    @Test
+    void splitsAlbumDescriptions() {
+        List<String> descriptions = processor.parseAlbumDescriptions(
+                "{\"descricoes\":[\" Primeira imagem. \",\"\",42,\"Segunda imagem.\"]}");
+
+        assertThat(descriptions).containsExactly("Primeira imagem.", "Segunda imagem.");
+    }
+
+    @Test
+    void albumContentOutsideExpectedFormatIsEmpty() {
+        assertThat(processor.parseAlbumDescriptions("Primeira imagem. Segunda imagem.")).isEmpty();
+        assertThat(processor.parseAlbumDescriptions("{\"outro\":[\"a\"]}")).isEmpty();
+    }
+
+    @Test
+    void readsStreamedDeltasUntilDone() throws IOException {
+        String sse = """
+                : keep-alive
+
+                data: {"choices":[{"delta":{"role":"assistant"}}]}
+
+                data: {"choices":[{"delta":{"content":"Um gato"}}]}
+
+                data: {"choices":[{"delta":{"content":" no sofá."}}]}
+
+                data: {"choices":[]}
+
+                data: [DONE]
+
+                data: {"choices":[{"delta":{"content":" ignorado"}}]}
+                """;
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getHeaders()).thenReturn(new HttpHeaders());
+        when(response.getBody()).thenReturn(body(sse));
+        List<String> deltas = new ArrayList<>();
+
+        String description = processor.readDescriptionStream(response, deltas::add);
+
+        assertThat(deltas).containsExactly("Um gato", " no sofá.");
+        assertThat(description).isEqualTo("Um gato no sofá.");
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,83 @@
+package tcc.transcricao.tcctranscricaoimage.service.queue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.exception.DuplicateWebhookException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageJobQueueTest {
+
+    private static final String WORKER = "worker-1";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ImageJobQueue queue = new ImageJobQueue(jdbcTemplate, Duration.ofMinutes(5), 3,
+            Duration.ofSeconds(30), Duration.ofDays(7), WhatsAppConstants.PIPELINE_MODE_DURABLE, meterRegistry);
+
+    @Test
+    void imagesSurviveEncodingRoundTrip() {
+        List<byte[]> images = List.of(new byte[]{1, 2, 3}, new byte[0], new byte[]{(byte) 0xFF});
+
+        List<byte[]> decoded = ImageJobQueue.decodeImages(ImageJobQueue.encodeImages(images));
+
+        assertThat(decoded).hasSize(3);
+        assertThat(decoded.get(0)).containsExactly(1, 2, 3);
+        assertThat(decoded.get(1)).isEmpty();
+        assertThat(decoded.get(2)).containsExactly(0xFF);
+    }
+
+    @Test
+    void encodingIsCountThenLengthPrefixedImages() {
+        assertThat(ImageJobQueue.encodeImages(List.of(new byte[]{7})))
+                .containsExactly(0, 0, 0, 1, 0, 0, 0, 1, 7);
+        assertThat(ImageJobQueue.decodeImages(ImageJobQueue.encodeImages(List.of()))).isEmpty();
+    }
+
+    @Test
+    void duplicateMessageIsRejected() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        assertThatThrownBy(() -> queue.enqueue("img-1", "wamid.1", "5511999990000", List.of(new byte[]{1}), 0L))
+                .isInstanceOf(DuplicateWebhookException.class);
+    }
+
+    @Test
+    void extendVisibilityReportsLostJobs() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0, 1});
+
+        assertThat(queue.extendVisibility(List.of(10L, 11L, 12L), WORKER)).containsExactly(11L);
+    }
+
+    @Test
+    void retriesUntilLastAttemptThenFails() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        queue.retryOrFail(job(1), WORKER, "timeout");
+        queue.retryOrFail(job(3), WORKER, "timeout");
+
+        // Retry: (erro, backoff em segundos, id, worker); falha: (erro, id, worker)
+        verify(jdbcTemplate).update(anyString(), eq("timeout"), eq(30.0), eq(42L), eq(WORKER));
+        verify(jdbcTemplate).update(anyString(), eq("timeout"), eq(42L), eq(WORKER));
+        assertThat(meterRegistry.counter("image.jobs.retried").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("image.jobs.failed").count()).isEqualTo(1.0);
+    }
+
+    private static QueuedImageJob job(int attempts) {
+        return new QueuedImageJob(42L, "img-1", "wamid.1", "5511999990000", List.of(new byte[]{1}), attempts, 0L);
+    }
+}
@@ -0,0 +1,157 @@
+package tcc.transcricao.tcctranscricaoimage.service.queue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageJobWorkerTest {
+
+    private static final String WORKER = "worker-1";
+
+    private final ImageJobQueue jobQueue = mock(ImageJobQueue.class);
+    private final CamelContext context = new DefaultCamelContext();
+
+    @Test
+    void rejectsHeartbeatSlowerThanHalfTheVisibilityTimeout() {
+        when(jobQueue.isDurableMode()).thenReturn(true);
+        when(jobQueue.getVisibilityTimeout()).thenReturn(Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> worker(Duration.ofSeconds(31)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("heartbeat-interval");
+    }
+
+    @Test
+    void claimsOnlyUpToFreeConsumers() throws Exception {
+        ImageJobWorker worker = durableWorker();
+        when(jobQueue.claim(WORKER, 2)).thenReturn(List.of(job(1L)));
+        when(jobQueue.claim(WORKER, 1)).thenReturn(List.of());
+
+        worker.claim().process(exchange());
+        worker.claim().process(exchange());
+
+        verify(jobQueue).claim(WORKER, 2);
+        verify(jobQueue).claim(WORKER, 1);
+    }
+
+    @Test
+    void heartbeatRenewsOnlyRunningJobs() throws Exception {
+        ImageJobWorker worker = durableWorker();
+        worker.heartbeat();
+        verify(jobQueue, never()).extendVisibility(anyList(), anyString());
+
+        when(jobQueue.claim(WORKER, 2)).thenReturn(List.of(job(1L), job(2L)));
+        worker.claim().process(exchange());
+        worker.heartbeat();
+        verify(jobQueue).extendVisibility(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))), eq(WORKER));
+    }
+
+    @Test
+    void finishedJobIsCompletedAndNoLongerRenewed() throws Exception {
+        ImageJobWorker worker = durableWorker();
+        QueuedImageJob job = job(1L);
+        when(jobQueue.claim(WORKER, 2)).thenReturn(List.of(job));
+        worker.claim().process(exchange());
+
+        Exchange exchange = exchange();
+        exchange.getIn().setBody(job);
+        worker.start().process(exchange);
+        exchange.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onComplete(exchange));
+        worker.heartbeat();
+
+        verify(jobQueue).complete(job, WORKER);
+        verify(jobQueue, never()).extendVisibility(anyList(), anyString());
+    }
+
+    @Test
+    void failedJobIsReturnedToQueue() throws Exception {
+        ImageJobWorker worker = durableWorker();
+        QueuedImageJob job = job(1L);
+
+        Exchange exchange = exchange();
+        exchange.getIn().setBody(job);
+        worker.start().process(exchange);
+        exchange.setException(new IllegalStateException("bridge indisponível"));
+        exchange.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onFailure(exchange));
+
+        verify(jobQueue).retryOrFail(job, WORKER, "IllegalStateException: bridge indisponível");
+        assertThat(exchange.getProperty(WhatsAppConstants.IMAGE_ID_PROPERTY, String.class)).isEqualTo("img-1");
+    }
+
+    @Test
+    void failureAfterVoiceDeliveryDoesNotRetryJob() throws Exception {
+        ImageJobWorker worker = durableWorker();
+        QueuedImageJob job = job(1L);
+        when(jobQueue.claim(WORKER, 2)).thenReturn(List.of(job));
+        worker.claim().process(exchange());
+
+        Exchange exchange = exchange();
+        exchange.getIn().setBody(job);
+        worker.start().process(exchange);
+        worker.delivered().process(exchange);
+        verify(jobQueue).complete(job, WORKER);
+
+        // save-metrics falha depois do envio: o erro é tratado pela rota e fica em EXCEPTION_CAUGHT
+        exchange.setProperty(Exchange.EXCEPTION_CAUGHT, new IllegalStateException("banco indisponível"));
+        exchange.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onComplete(exchange));
+        worker.heartbeat();
+
+        verify(jobQueue).complete(job, WORKER);
+        verify(jobQueue, never()).retryOrFail(any(), anyString(), anyString());
+        verify(jobQueue, never()).extendVisibility(anyList(), anyString());
+    }
+
+    @Test
+    void failureBeforeDeliveryStillRetries() throws Exception {
+        ImageJobWorker worker = durableWorker();
+        QueuedImageJob job = job(1L);
+
+        Exchange exchange = exchange();
+        exchange.getIn().setBody(job);
+        worker.start().process(exchange);
+        // Envio ao bridge falhou e foi tratado: o pipeline não marca a entrega
+        exchange.setProperty(Exchange.EXCEPTION_CAUGHT, new IllegalStateException("bridge indisponível"));
+        worker.delivered().process(exchange);
+        exchange.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onComplete(exchange));
+
+        verify(jobQueue, never()).complete(any(), anyString());
+        verify(jobQueue).retryOrFail(job, WORKER, "IllegalStateException: bridge indisponível");
+    }
+
+    private ImageJobWorker durableWorker() {
+        when(jobQueue.isDurableMode()).thenReturn(true);
+        when(jobQueue.getVisibilityTimeout()).thenReturn(Duration.ofMinutes(5));
+        return worker(Duration.ofSeconds(60));
+    }
+
+    private ImageJobWorker worker(Duration heartbeatInterval) {
+        return new ImageJobWorker(jobQueue, 2, WORKER, heartbeatInterval, new SimpleMeterRegistry());
+    }
+
+    private Exchange exchange() {
+        return new DefaultExchange(context);
+    }
+
+    private static QueuedImageJob job(long id) {
+        return new QueuedImageJob(id, "img-1", null, "5511999990000", List.of(new byte[]{1}), 1, 0L);
+    }
+}
@@ -0,0 +1,114 @@
+package tcc.transcricao.tcctranscricaoimage.service.resilience;
+
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.exception.CircuitOpenException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    @Test
+    void staysClosedUntilMinimumCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofHours(1));
+
+        failures(breaker, 3);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        CircuitBreaker breaker = breaker(Duration.ofHours(1));
+
+        successes(breaker, 2);
+        failures(breaker, 2);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitOpenException.class);
+    }
+
+    @Test
+    void onlyRecentCallsCount() {
+        CircuitBreaker breaker = breaker(Duration.ofHours(1));
+
+        successes(breaker, 6);
+        failures(breaker, 1);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // 2 falhas em 8 chamadas, mas metade das últimas 4
+        failures(breaker, 1);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void closesAfterSuccessfulTrialCalls() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(30);
+
+        breaker.acquirePermission();
+        breaker.acquirePermission();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(CircuitOpenException.class);
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        failures(breaker, 3);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void reopensOnTrialFailure() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(30);
+
+        breaker.acquirePermission();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void ignoredCallReturnsTrialSlot() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(30);
+
+        breaker.acquirePermission();
+        breaker.acquirePermission();
+        breaker.onIgnored();
+
+        assertThatCode(breaker::acquirePermission).doesNotThrowAnyException();
+    }
+
+    /** Janela de 4 chamadas, mínimo de 4, abre com 50% de falhas e testa com 2 chamadas. */
+    private static CircuitBreaker breaker(Duration openDuration) {
+        return new CircuitBreaker("/v1/test", 4, 4, 0.5, openDuration, 2);
+    }
+
+    private static CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = breaker(Duration.ofMillis(10));
+        failures(breaker, 4);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private static void successes(CircuitBreaker breaker, int count) {
+        for (int i = 0; i < count; i++) {
+            breaker.acquirePermission();
+            breaker.onSuccess();
+        }
+    }
+
+    private static void failures(CircuitBreaker breaker, int count) {
+        for (int i = 0; i < count; i++) {
+            breaker.acquirePermission();
+            breaker.onFailure();
+        }
+    }
+}
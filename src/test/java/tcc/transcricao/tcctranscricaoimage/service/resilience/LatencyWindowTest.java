@@ -0,0 +1,52 @@
+package tcc.transcricao.tcctranscricaoimage.service.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyWindowTest {
+
+    @Test
+    void emptyWindowHasNoPercentile() {
+        assertThat(new LatencyWindow(10, 0.95).percentileNanos()).isEqualTo(-1);
+    }
+
+    @Test
+    void computesPercentileOfRecordedSamples() {
+        LatencyWindow window = new LatencyWindow(100, 0.9);
+        for (long i = 100; i >= 1; i--) {
+            window.record(i);
+        }
+
+        assertThat(window.size()).isEqualTo(100);
+        assertThat(window.percentileNanos()).isEqualTo(90);
+    }
+
+    @Test
+    void keepsOnlyMostRecentSamples() {
+        LatencyWindow window = new LatencyWindow(16, 0.5);
+        for (int i = 0; i < 16; i++) {
+            window.record(1_000);
+        }
+        assertThat(window.percentileNanos()).isEqualTo(1_000);
+
+        for (int i = 0; i < 16; i++) {
+            window.record(10);
+        }
+
+        assertThat(window.size()).isEqualTo(16);
+        assertThat(window.percentileNanos()).isEqualTo(10);
+    }
+
+    @Test
+    void reusesPercentileUntilEnoughNewSamples() {
+        LatencyWindow window = new LatencyWindow(100, 0.5);
+        window.record(10);
+        assertThat(window.percentileNanos()).isEqualTo(10);
+
+        window.record(1_000);
+        window.record(1_000);
+
+        assertThat(window.percentileNanos()).isEqualTo(10);
+    }
+}
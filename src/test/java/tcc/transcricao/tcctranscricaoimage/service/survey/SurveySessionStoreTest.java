@@ -0,0 +1,150 @@
+package tcc.transcricao.tcctranscricaoimage.service.survey;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import tcc.transcricao.tcctranscricaoimage.constants.SurveyConstants;
+import tcc.transcricao.tcctranscricaoimage.service.SatisfactionSurveyService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SurveySessionStoreTest {
+
+    private static final String PHONE = "5511999990000";
+    private static final String IMAGE_ID = "img-1";
+
+    private final SatisfactionSurveyService surveyService = mock(SatisfactionSurveyService.class);
+    private final SharedSurveySessions sharedSessions = mock(SharedSurveySessions.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void serverControlsQuestionOrder() {
+        SurveySessionStore store = memoryStore(Duration.ofMinutes(30), false);
+        store.start(PHONE, IMAGE_ID);
+
+        for (int question = 1; question <= SurveyConstants.TOTAL_QUESTIONS; question++) {
+            Optional<SurveyProgress> progress = store.answer(PHONE, IMAGE_ID, 3);
+            assertThat(progress).contains(new SurveyProgress(question, question == SurveyConstants.TOTAL_QUESTIONS));
+        }
+        // Concluído e gravado: nova resposta não encontra sessão
+        assertThat(store.answer(PHONE, IMAGE_ID, 3)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void savesCompletedSurveyOnceInSingleBatch() {
+        SurveySessionStore store = memoryStore(Duration.ofMinutes(30), false);
+        store.start(PHONE, IMAGE_ID);
+
+        for (int score = 1; score < SurveyConstants.TOTAL_QUESTIONS; score++) {
+            store.answer(PHONE, IMAGE_ID, score);
+        }
+        verifyNoInteractions(surveyService);
+        store.answer(PHONE, IMAGE_ID, SurveyConstants.TOTAL_QUESTIONS);
+
+        ArgumentCaptor<List<SurveySession.Answer>> answers = ArgumentCaptor.forClass(List.class);
+        verify(surveyService).saveSurvey(eq(PHONE), eq(IMAGE_ID), answers.capture());
+        assertThat(answers.getValue()).extracting(SurveySession.Answer::questionNumber)
+                .containsExactly(1, 2, 3, 4, 5);
+        assertThat(answers.getValue()).extracting(SurveySession.Answer::score)
+                .containsExactly(1, 2, 3, 4, 5);
+        assertThat(meterRegistry.counter("survey.sessions.completed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void evictsSessionsIdleLongerThanTtl() throws InterruptedException {
+        SurveySessionStore store = memoryStore(Duration.ofMillis(1), false);
+        store.start(PHONE, IMAGE_ID);
+        store.answer(PHONE, IMAGE_ID, 4);
+
+        Thread.sleep(20);
+        store.evictExpired();
+
+        assertThat(store.answer(PHONE, IMAGE_ID, 4)).isEmpty();
+        assertThat(meterRegistry.counter("survey.sessions.expired").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("survey.sessions.active").gauge().value()).isZero();
+        // Sem flush-partial as respostas parciais são descartadas
+        verifyNoInteractions(surveyService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushesPartialAnswersOnExpiryWhenConfigured() throws InterruptedException {
+        SurveySessionStore store = memoryStore(Duration.ofMillis(1), true);
+        store.start(PHONE, IMAGE_ID);
+        store.answer(PHONE, IMAGE_ID, 4);
+        store.answer(PHONE, IMAGE_ID, 5);
+        store.start("5511888880000", "img-2"); // sem respostas: nada a gravar
+
+        Thread.sleep(20);
+        store.evictExpired();
+
+        ArgumentCaptor<List<SurveySession.Answer>> answers = ArgumentCaptor.forClass(List.class);
+        verify(surveyService).saveSurvey(eq(PHONE), eq(IMAGE_ID), answers.capture());
+        assertThat(answers.getValue()).extracting(SurveySession.Answer::score).containsExactly(4, 5);
+        assertThat(meterRegistry.counter("survey.sessions.expired").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retriesCompletedSessionWhoseSaveFailed() {
+        SurveySessionStore store = memoryStore(Duration.ofMinutes(30), false);
+        doThrow(new DataAccessResourceFailureException("sem conexão"))
+                .doNothing()
+                .when(surveyService).saveSurvey(anyString(), anyString(), anyList());
+        store.start(PHONE, IMAGE_ID);
+        for (int i = 1; i < SurveyConstants.TOTAL_QUESTIONS; i++) {
+            store.answer(PHONE, IMAGE_ID, 2);
+        }
+
+        assertThatThrownBy(() -> store.answer(PHONE, IMAGE_ID, 2))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        // O reenvio grava as mesmas respostas, sem registrar uma sexta
+        assertThat(store.answer(PHONE, IMAGE_ID, 1))
+                .contains(new SurveyProgress(SurveyConstants.TOTAL_QUESTIONS, true));
+        ArgumentCaptor<List<SurveySession.Answer>> answers = ArgumentCaptor.forClass(List.class);
+        verify(surveyService, times(2)).saveSurvey(eq(PHONE), eq(IMAGE_ID), answers.capture());
+        assertThat(answers.getAllValues()).allSatisfy(saved -> assertThat(saved)
+                .extracting(SurveySession.Answer::score).containsExactly(2, 2, 2, 2, 2));
+        assertThat(store.answer(PHONE, IMAGE_ID, 1)).isEmpty();
+    }
+
+    @Test
+    void postgresStoreDelegatesToSharedSessions() {
+        SurveySessionStore store = new SurveySessionStore(surveyService, sharedSessions, Duration.ofMinutes(30),
+                false, SurveyConstants.SESSION_STORE_POSTGRES, meterRegistry);
+        when(sharedSessions.answer(PHONE, IMAGE_ID, 5)).thenReturn(Optional.of(new SurveyProgress(5, true)));
+
+        store.start(PHONE, IMAGE_ID);
+        Optional<SurveyProgress> progress = store.answer(PHONE, IMAGE_ID, 5);
+
+        verify(sharedSessions).start(PHONE, IMAGE_ID);
+        assertThat(progress).contains(new SurveyProgress(5, true));
+        assertThat(meterRegistry.counter("survey.sessions.completed").count()).isEqualTo(1.0);
+        verify(surveyService, never()).saveSurvey(anyString(), anyString(), any());
+    }
+
+    private SurveySessionStore memoryStore(Duration ttl, boolean flushPartial) {
+        return new SurveySessionStore(surveyService, sharedSessions, ttl, flushPartial,
+                SurveyConstants.SESSION_STORE_MEMORY, meterRegistry);
+    }
+}
@@ -0,0 +1,63 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AudioFormatTest {
+
+    @Test
+    void parsesApiNameIgnoringCase() {
+        assertThat(AudioFormat.fromName("OPUS")).isEqualTo(AudioFormat.OPUS);
+        assertThat(AudioFormat.fromName("aac").mimeType()).isEqualTo("audio/aac");
+        assertThatThrownBy(() -> AudioFormat.fromName("wav"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("mp3, aac, opus");
+    }
+
+    @Test
+    void detectsFormatFromHeader() {
+        assertThat(AudioFormat.detect(bytes('O', 'g', 'g', 'S'))).contains(AudioFormat.OPUS);
+        assertThat(AudioFormat.detect(bytes('I', 'D', '3', 4))).contains(AudioFormat.MP3);
+        assertThat(AudioFormat.detect(bytes(0xFF, 0xFB, 0x90, 0x00))).contains(AudioFormat.MP3);
+        assertThat(AudioFormat.detect(bytes(0xFF, 0xF1, 0x50, 0x80))).contains(AudioFormat.AAC);
+    }
+
+    @Test
+    void unknownOrShortAudioIsNotDetected() {
+        assertThat(AudioFormat.detect(null)).isEmpty();
+        assertThat(AudioFormat.detect(bytes(0xFF, 0xFB))).isEmpty();
+        assertThat(AudioFormat.detect(bytes('R', 'I', 'F', 'F'))).isEmpty();
+    }
+
+    @Test
+    void aacPartsAreJoinedByteForByte() {
+        byte[] first = bytes(0xFF, 0xF1, 1);
+        byte[] second = bytes(0xFF, 0xF1, 2);
+
+        assertThat(AudioFormat.AAC.concatenate(List.of(first, second)))
+                .containsExactly(0xFF, 0xF1, 1, 0xFF, 0xF1, 2);
+    }
+
+    @Test
+    void opusCannotBeJoinedButSinglePartPassesThrough() {
+        byte[] part = bytes('O', 'g', 'g', 'S');
+
+        assertThat(AudioFormat.OPUS.isConcatenable()).isFalse();
+        assertThat(AudioFormat.OPUS.concatenate(List.of(part))).isSameAs(part);
+        assertThatThrownBy(() -> AudioFormat.OPUS.concatenate(List.of(part, part)))
+                .isInstanceOf(TtsException.class);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,84 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Mp3ConcatenatorTest {
+
+    /** MPEG1 Layer III, 128 kbps, 44,1 kHz, sem padding: 144 * 128000 / 44100 = 417 bytes. */
+    private static final int FRAME_LENGTH = 417;
+
+    @Test
+    void singlePartIsReturnedAsIs() {
+        byte[] part = frame((byte) 1);
+
+        assertThat(Mp3Concatenator.concatenate(List.of(part))).isSameAs(part);
+    }
+
+    @Test
+    void joinsFramesInOrder() {
+        byte[] first = frame((byte) 1);
+        byte[] second = frame((byte) 2);
+
+        assertThat(Mp3Concatenator.concatenate(List.of(first, second)))
+                .isEqualTo(join(first, second));
+    }
+
+    @Test
+    void stripsId3TagsAndInfoFrameOfEachPart() {
+        byte[] audio = frame((byte) 1);
+        byte[] tagged = join(id3v2(20), infoFrame(), audio, id3v1());
+        byte[] other = frame((byte) 2);
+
+        assertThat(Mp3Concatenator.concatenate(List.of(tagged, other)))
+                .isEqualTo(join(audio, other));
+    }
+
+    private static byte[] frame(byte fill) {
+        byte[] frame = new byte[FRAME_LENGTH];
+        Arrays.fill(frame, fill);
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xFB;
+        frame[2] = (byte) 0x90;
+        frame[3] = 0x00;
+        return frame;
+    }
+
+    private static byte[] infoFrame() {
+        byte[] frame = frame((byte) 0);
+        System.arraycopy("Info".getBytes(StandardCharsets.US_ASCII), 0, frame, 36, 4);
+        return frame;
+    }
+
+    private static byte[] id3v2(int bodySize) {
+        byte[] tag = new byte[10 + bodySize];
+        tag[0] = 'I';
+        tag[1] = 'D';
+        tag[2] = '3';
+        tag[3] = 4;
+        tag[9] = (byte) bodySize;
+        return tag;
+    }
+
+    private static byte[] id3v1() {
+        byte[] tag = new byte[128];
+        tag[0] = 'T';
+        tag[1] = 'A';
+        tag[2] = 'G';
+        return tag;
+    }
+
+    private static byte[] join(byte[]... parts) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            output.writeBytes(part);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.exception.TtsException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentSynthesisTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void keepsSubmissionOrderRegardlessOfCompletionOrder() {
+        // Trechos submetidos primeiro demoram mais para terminar
+        SegmentSynthesis synthesis = new SegmentSynthesis(
+                segment -> {
+                    sleep(50L * (4 - Integer.parseInt(segment)));
+                    return segment.getBytes(StandardCharsets.UTF_8);
+                },
+                executor, 4, AudioFormat.MP3);
+
+        List.of("1", "2", "3", "4").forEach(synthesis::submit);
+
+        assertThat(synthesis.size()).isEqualTo(4);
+        assertThat(synthesis.awaitAll())
+                .extracting(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .containsExactly("1", "2", "3", "4");
+        assertThat(synthesis.awaitConcatenated()).asString(StandardCharsets.UTF_8).isEqualTo("1234");
+    }
+
+    @Test
+    void limitsSegmentsInFlight() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Function<String, byte[]> synthesizer = segment -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            sleep(20);
+            active.decrementAndGet();
+            return new byte[]{1};
+        };
+        SegmentSynthesis synthesis = new SegmentSynthesis(synthesizer, executor, 2, AudioFormat.MP3);
+
+        for (int i = 0; i < 8; i++) {
+            synthesis.submit("trecho " + i);
+        }
+
+        assertThat(synthesis.awaitAll()).hasSize(8);
+        assertThat(maxActive.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void propagatesTtsExceptionFromAnySegment() {
+        SegmentSynthesis synthesis = new SegmentSynthesis(
+                segment -> {
+                    if (segment.equals("falha")) {
+                        throw new TtsException("API indisponível");
+                    }
+                    return new byte[]{1};
+                },
+                executor, 2, AudioFormat.MP3);
+
+        synthesis.submit("ok");
+        synthesis.submit("falha");
+
+        assertThatThrownBy(synthesis::awaitAll)
+                .isInstanceOf(TtsException.class)
+                .hasMessage("API indisponível");
+    }
+
+    @Test
+    void wrapsUnexpectedFailures() {
+        SegmentSynthesis synthesis = new SegmentSynthesis(
+                segment -> {
+                    throw new IllegalStateException("inesperado");
+                },
+                executor, 2, AudioFormat.MP3);
+
+        synthesis.submit("trecho");
+
+        assertThatThrownBy(synthesis::awaitAll)
+                .isInstanceOf(TtsException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void failsWhenNothingWasSubmitted() {
+        SegmentSynthesis synthesis = new SegmentSynthesis(segment -> new byte[0], executor, 2, AudioFormat.MP3);
+
+        assertThatThrownBy(synthesis::awaitConcatenated).isInstanceOf(TtsException.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
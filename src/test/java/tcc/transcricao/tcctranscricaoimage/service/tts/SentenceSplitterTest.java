@@ -0,0 +1,61 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SentenceSplitterTest {
+
+    @Test
+    void groupsShortSentencesUntilMinimumSize() {
+        List<String> chunks = SentenceSplitter.split(
+                "Primeira frase. Segunda frase. Terceira frase.", 20, 35);
+
+        assertThat(chunks).containsExactly("Primeira frase. Segunda frase.", "Terceira frase.");
+    }
+
+    @Test
+    void neverGroupsPastMaximumSize() {
+        List<String> chunks = SentenceSplitter.split(
+                "Uma frase curta! Outra frase curta? Mais uma frase curta…", 1_000, 40);
+
+        assertThat(chunks).containsExactly(
+                "Uma frase curta! Outra frase curta?",
+                "Mais uma frase curta…");
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk).hasSizeLessThanOrEqualTo(40));
+    }
+
+    @Test
+    void mergesShortLeftoverIntoPreviousChunk() {
+        List<String> chunks = SentenceSplitter.split(
+                "Uma frase com tamanho suficiente. Fim.", 20, 100);
+
+        assertThat(chunks).containsExactly("Uma frase com tamanho suficiente. Fim.");
+    }
+
+    @Test
+    void keepsTextWithoutBoundaryAsSingleChunk() {
+        assertThat(SentenceSplitter.split("  sem pontuação final  ", 5, 100))
+                .containsExactly("sem pontuação final");
+        assertThat(SentenceSplitter.split("   ", 5, 100)).isEmpty();
+    }
+
+    @Test
+    void hardSplitsSentenceLongerThanMaximumSize() {
+        List<String> chunks = SentenceSplitter.split(
+                "Uma frase muito longa sem pontuação no meio que passa do limite. Curta.", 1, 20);
+
+        assertThat(chunks).containsExactly(
+                "Uma frase muito", "longa sem pontuação", "no meio que passa do", "limite.", "Curta.");
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk).hasSizeLessThanOrEqualTo(20));
+    }
+
+    @Test
+    void hardSplitsWordLongerThanMaximumSizeAtCharacters() {
+        List<String> chunks = SentenceSplitter.split("abcdefghijklmnopqrstuvwxyz", 1, 10);
+
+        assertThat(chunks).containsExactly("abcdefghij", "klmnopqrst", "uvwxyz");
+    }
+}
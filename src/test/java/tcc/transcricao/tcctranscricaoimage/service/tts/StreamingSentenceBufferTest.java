@@ -0,0 +1,70 @@
+package tcc.transcricao.tcctranscricaoimage.service.tts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingSentenceBufferTest {
+
+    @Test
+    void holdsTextUntilSentenceReachesMinimum() {
+        StreamingSentenceBuffer buffer = new StreamingSentenceBuffer(20, 100);
+
+        assertThat(buffer.append("Um gato. ")).isEmpty();
+        assertThat(buffer.append("Ele dorme no sofá da sala. E")).containsExactly("Um gato. Ele dorme no sofá da sala.");
+        assertThat(buffer.flush()).containsExactly("E");
+    }
+
+    @Test
+    void doesNotCutDecimalNumbersOrAbbreviations() {
+        StreamingSentenceBuffer buffer = new StreamingSentenceBuffer(1, 100);
+
+        assertThat(buffer.append("Mede 3.5 metros")).isEmpty();
+        assertThat(buffer.append(" e o Sr.X sorri")).isEmpty();
+        assertThat(buffer.flush()).containsExactly("Mede 3.5 metros e o Sr.X sorri");
+    }
+
+    @Test
+    void forcesCutAtLastWhitespaceWhenNoSentenceBoundary() {
+        StreamingSentenceBuffer buffer = new StreamingSentenceBuffer(5, 20);
+
+        List<String> chunks = new ArrayList<>();
+        for (String word : "uma frase longa sem pontuação nenhuma que continua".split("(?<= )")) {
+            chunks.addAll(buffer.append(word));
+        }
+        chunks.addAll(buffer.flush());
+
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.length()).isLessThanOrEqualTo(20));
+        assertThat(String.join(" ", chunks)).isEqualTo("uma frase longa sem pontuação nenhuma que continua");
+    }
+
+    @Test
+    void cutsOversizedTextBeforeBoundaryIntoBoundedChunks() {
+        StreamingSentenceBuffer buffer = new StreamingSentenceBuffer(5, 20);
+
+        List<String> chunks = new ArrayList<>(buffer.append("palavras demais antes do ponto final. Fim"));
+        chunks.addAll(buffer.flush());
+
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.length()).isLessThanOrEqualTo(20));
+        assertThat(String.join(" ", chunks)).isEqualTo("palavras demais antes do ponto final. Fim");
+    }
+
+    @Test
+    void cutsAtLimitWhenTextHasNoWhitespace() {
+        StreamingSentenceBuffer buffer = new StreamingSentenceBuffer(5, 10);
+
+        assertThat(buffer.append("a".repeat(25))).containsExactly("a".repeat(10), "a".repeat(10));
+        assertThat(buffer.flush()).containsExactly("a".repeat(5));
+    }
+
+    @Test
+    void flushOfEmptyBufferReturnsNothing() {
+        StreamingSentenceBuffer buffer = new StreamingSentenceBuffer(5, 10);
+
+        assertThat(buffer.append("   ")).isEmpty();
+        assertThat(buffer.flush()).isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package tcc.transcricao.tcctranscricaoimage.service.whatsapp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.exception.RateLimitExceededException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class PhoneRateLimiterTest {
+
+    private static final String PHONE = "5511999990000";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        PhoneRateLimiter limiter = inMemory(true, 3, Duration.ofHours(1));
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(PHONE);
+        }
+        RateLimitExceededException rejection = catchThrowableOfType(RateLimitExceededException.class,
+                () -> limiter.acquire(PHONE));
+
+        assertThat(rejection.getPhone()).isEqualTo(PHONE);
+        assertThat(rejection.getRetryAfter())
+                .isGreaterThan(Duration.ofMinutes(59))
+                .isLessThanOrEqualTo(Duration.ofHours(1));
+        assertThat(meterRegistry.counter("webhook.ratelimit.allowed").count()).isEqualTo(3.0);
+        assertThat(meterRegistry.counter("webhook.ratelimit.rejected").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void notifiesOnlyOnFirstRejection() {
+        PhoneRateLimiter limiter = inMemory(true, 1, Duration.ofHours(1));
+        limiter.acquire(PHONE);
+
+        RateLimitExceededException first = catchThrowableOfType(RateLimitExceededException.class,
+                () -> limiter.acquire(PHONE));
+        RateLimitExceededException second = catchThrowableOfType(RateLimitExceededException.class,
+                () -> limiter.acquire(PHONE));
+
+        assertThat(first.isNotifyUser()).isTrue();
+        assertThat(second.isNotifyUser()).isFalse();
+    }
+
+    @Test
+    void phonesHaveIndependentBuckets() {
+        PhoneRateLimiter limiter = inMemory(true, 1, Duration.ofHours(1));
+        limiter.acquire(PHONE);
+
+        assertThatCode(() -> limiter.acquire("5511888880000")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void refillsAfterEmissionInterval() throws InterruptedException {
+        PhoneRateLimiter limiter = inMemory(true, 1, Duration.ofMillis(20));
+        limiter.acquire(PHONE);
+        assertThatThrownBy(() -> limiter.acquire(PHONE)).isInstanceOf(RateLimitExceededException.class);
+
+        Thread.sleep(40);
+        limiter.acquire(PHONE);
+        Thread.sleep(40);
+        limiter.evictIdle();
+
+        assertThat(meterRegistry.get("webhook.ratelimit.tracked").gauge().value()).isZero();
+    }
+
+    @Test
+    void disabledLimiterAlwaysAllows() {
+        PhoneRateLimiter limiter = inMemory(false, 1, Duration.ofHours(1));
+
+        assertThatCode(() -> {
+            for (int i = 0; i < 10; i++) {
+                limiter.acquire(PHONE);
+            }
+        }).doesNotThrowAnyException();
+    }
+
+    private PhoneRateLimiter inMemory(boolean enabled, int capacity, Duration refillInterval) {
+        return new PhoneRateLimiter(enabled, capacity, refillInterval, meterRegistry);
+    }
+}
@@ -0,0 +1,85 @@
+package tcc.transcricao.tcctranscricaoimage.service.whatsapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.dto.VoiceMessage;
+import tcc.transcricao.tcctranscricaoimage.service.tts.AudioFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoicePayloadInputStreamTest {
+
+    private static final String PHONE = "5511999990000@c.us";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void streamedBodyIsByteIdenticalToBase64Json() throws IOException {
+        // Tamanhos em torno do bloco de 3 KiB e dos três restos possíveis do Base64
+        for (int size : new int[] {1, 2, 3, 4, 3 * 1024 - 1, 3 * 1024, 3 * 1024 + 1, 3 * 1024 + 2, 100_000}) {
+            byte[] audio = audio(size);
+            VoicePayloadInputStream payload = new VoicePayloadInputStream(PHONE, audio, AudioFormat.MP3.mimeType());
+
+            byte[] streamed = payload.readAllBytes();
+
+            assertThat(streamed).as("%d bytes de áudio", size).isEqualTo(legacyJson(PHONE, audio, AudioFormat.MP3));
+            assertThat(payload.contentLength()).as("%d bytes de áudio", size).isEqualTo(streamed.length);
+        }
+    }
+
+    @Test
+    void escapesFieldsLikeJackson() throws IOException {
+        String to = "55\"11\\99\n";
+        byte[] audio = audio(10);
+
+        byte[] streamed = new VoicePayloadInputStream(to, audio, AudioFormat.OPUS.mimeType()).readAllBytes();
+
+        assertThat(streamed).isEqualTo(legacyJson(to, audio, AudioFormat.OPUS));
+    }
+
+    @Test
+    void singleByteAndBufferedReadsProduceSameBody() throws IOException {
+        byte[] audio = audio(7_000);
+        byte[] expected = legacyJson(PHONE, audio, AudioFormat.AAC);
+
+        ByteArrayOutputStream singleBytes = new ByteArrayOutputStream();
+        try (InputStream payload = new VoicePayloadInputStream(PHONE, audio, AudioFormat.AAC.mimeType())) {
+            int b;
+            while ((b = payload.read()) != -1) {
+                singleBytes.write(b);
+            }
+        }
+
+        ByteArrayOutputStream oddChunks = new ByteArrayOutputStream();
+        try (InputStream payload = new VoicePayloadInputStream(PHONE, audio, AudioFormat.AAC.mimeType())) {
+            byte[] buffer = new byte[7];
+            int read;
+            while ((read = payload.read(buffer, 0, buffer.length)) != -1) {
+                oddChunks.write(buffer, 0, read);
+            }
+        }
+
+        assertThat(singleBytes.toByteArray()).isEqualTo(expected);
+        assertThat(oddChunks.toByteArray()).isEqualTo(expected);
+    }
+
+    /**
+     * Corpo do envio sem streaming: o VoiceMessage com o Base64 serializado pelo Jackson.
+     */
+    private byte[] legacyJson(String to, byte[] audio, AudioFormat format) throws IOException {
+        return objectMapper.writeValueAsBytes(
+                new VoiceMessage(to, format.mimeType(), Base64.getEncoder().encodeToString(audio)));
+    }
+
+    private static byte[] audio(int size) {
+        byte[] audio = new byte[size];
+        new Random(size).nextBytes(audio);
+        return audio;
+    }
+}
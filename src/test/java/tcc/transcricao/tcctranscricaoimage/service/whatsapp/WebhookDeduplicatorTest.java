@@ -0,0 +1,63 @@
+package tcc.transcricao.tcctranscricaoimage.service.whatsapp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.exception.DuplicateWebhookException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookDeduplicatorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsRedeliveryWithinWindow() {
+        WebhookDeduplicator deduplicator = new WebhookDeduplicator(true, Duration.ofMinutes(10), meterRegistry);
+        deduplicator.register("wamid.1");
+
+        assertThatThrownBy(() -> deduplicator.register("wamid.1"))
+                .isInstanceOf(DuplicateWebhookException.class);
+        assertThatCode(() -> deduplicator.register("wamid.2")).doesNotThrowAnyException();
+        assertThat(meterRegistry.counter("webhook.dedup.duplicates").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void releasedMessageCanBeRetried() {
+        WebhookDeduplicator deduplicator = new WebhookDeduplicator(true, Duration.ofMinutes(10), meterRegistry);
+        deduplicator.register("wamid.1");
+
+        deduplicator.release("wamid.1");
+
+        assertThatCode(() -> deduplicator.register("wamid.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void acceptsRedeliveryAfterWindowAndEvictsExpiredIds() throws InterruptedException {
+        WebhookDeduplicator deduplicator = new WebhookDeduplicator(true, Duration.ofMillis(20), meterRegistry);
+        deduplicator.register("wamid.1");
+        deduplicator.register("wamid.2");
+
+        Thread.sleep(40);
+
+        assertThatCode(() -> deduplicator.register("wamid.1")).doesNotThrowAnyException();
+        deduplicator.evictExpired();
+        assertThat(meterRegistry.get("webhook.dedup.tracked").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void disabledOrMissingIdIsNeverDuplicate() {
+        WebhookDeduplicator disabled = new WebhookDeduplicator(false, Duration.ofMinutes(10), meterRegistry);
+        disabled.register("wamid.1");
+
+        assertThatCode(() -> disabled.register("wamid.1")).doesNotThrowAnyException();
+        assertThatCode(() -> {
+            disabled.register(null);
+            disabled.register(null);
+        }).doesNotThrowAnyException();
+    }
+}
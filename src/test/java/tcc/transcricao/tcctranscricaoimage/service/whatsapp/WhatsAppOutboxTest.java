@@ -0,0 +1,206 @@
+package tcc.transcricao.tcctranscricaoimage.service.whatsapp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tcc.transcricao.tcctranscricaoimage.constants.WhatsAppConstants;
+import tcc.transcricao.tcctranscricaoimage.dto.BridgeBatchResult;
+import tcc.transcricao.tcctranscricaoimage.dto.BridgeMessage;
+import tcc.transcricao.tcctranscricaoimage.dto.TextMessage;
+import tcc.transcricao.tcctranscricaoimage.exception.WhatsAppSendException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WhatsAppOutboxTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CloseableHttpClient httpClient = HttpClients.createDefault();
+    // Mensagens ("to:message") de cada lote recebido pelo bridge, na ordem de chegada
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final AtomicInteger statusCode = new AtomicInteger(200);
+    private volatile CountDownLatch firstBatchGate = new CountDownLatch(0);
+
+    private HttpServer bridge;
+    private WhatsAppOutbox outbox;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (outbox != null) {
+            outbox.stop();
+        }
+        if (bridge != null) {
+            bridge.stop(0);
+        }
+        httpClient.close();
+    }
+
+    @Test
+    void messagesReadyWithinLingerShareOneBatch() throws Exception {
+        startOutbox(Duration.ofMillis(100), 50);
+
+        List<CompletableFuture<BridgeBatchResult.Item>> results = List.of(
+                outbox.submit(text("5511000000001", "a")),
+                outbox.submit(text("5511000000002", "b")),
+                outbox.submit(text("5511000000003", "c")));
+
+        for (CompletableFuture<BridgeBatchResult.Item> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).ok()).isTrue();
+        }
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder(
+                "5511000000001:a", "5511000000002:b", "5511000000003:c");
+    }
+
+    @Test
+    void chatWaitsForItsBatchInFlightToKeepOrder() throws Exception {
+        firstBatchGate = new CountDownLatch(1);
+        startOutbox(Duration.ZERO, 50);
+
+        CompletableFuture<BridgeBatchResult.Item> first = outbox.submit(text("5511000000001", "1"));
+        waitUntil(() -> !batches.isEmpty());
+        CompletableFuture<BridgeBatchResult.Item> second = outbox.submit(text("5511000000001", "2"));
+        CompletableFuture<BridgeBatchResult.Item> third = outbox.submit(text("5511000000001", "3"));
+        CompletableFuture<BridgeBatchResult.Item> otherChat = outbox.submit(text("5511000000002", "x"));
+
+        // Outro chat não espera o lote em andamento
+        otherChat.get(5, TimeUnit.SECONDS);
+        assertThat(second).isNotDone();
+
+        firstBatchGate.countDown();
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+        List<String> chatOrder = new ArrayList<>();
+        batches.forEach(batch -> batch.stream().filter(m -> m.startsWith("5511000000001:")).forEach(chatOrder::add));
+        assertThat(chatOrder).containsExactly("5511000000001:1", "5511000000001:2", "5511000000001:3");
+        assertThat(batches.get(batches.size() - 1)).containsExactly("5511000000001:2", "5511000000001:3");
+    }
+
+    @Test
+    void splitsBatchesAtMaxMessages() throws Exception {
+        startOutbox(Duration.ofMillis(100), 2);
+
+        List<CompletableFuture<BridgeBatchResult.Item>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(outbox.submit(text("551100000000" + i, String.valueOf(i))));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(5);
+    }
+
+    @Test
+    void bridgeErrorFailsEveryMessageOfTheBatch() throws Exception {
+        statusCode.set(500);
+        startOutbox(Duration.ofMillis(50), 50);
+
+        CompletableFuture<BridgeBatchResult.Item> first = outbox.submit(text("5511000000001", "a"));
+        CompletableFuture<BridgeBatchResult.Item> second = outbox.submit(text("5511000000002", "b"));
+
+        for (CompletableFuture<BridgeBatchResult.Item> result : List.of(first, second)) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(WhatsAppSendException.class);
+        }
+    }
+
+    @Test
+    void sendProcessorReplacesBodyWithStatus() throws Exception {
+        startOutbox(Duration.ZERO, 50);
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        outbox.setTextBody(exchange, TextMessage.of("5511000000001", "Olá"));
+
+        outbox.send().process(exchange);
+
+        assertThat(exchange.getIn().getBody()).isEqualTo(BridgeBatchResult.STATUS_OK);
+        assertThat(outbox.endpoint("http://bridge/sendText")).isEqualTo(WhatsAppConstants.WHATSAPP_OUTBOX_ENDPOINT);
+    }
+
+    @Test
+    void disabledOutboxKeepsDirectCalls() {
+        outbox = newOutbox("http://localhost:1", false, Duration.ZERO, 50);
+        outbox.start();
+
+        assertThat(outbox.endpoint("http://bridge/sendText")).isEqualTo("http://bridge/sendText");
+        assertThatThrownBy(() -> outbox.submit(text("5511000000001", "a")))
+                .isInstanceOf(WhatsAppSendException.class);
+    }
+
+    private void startOutbox(Duration linger, int maxMessages) throws IOException {
+        bridge = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        bridge.createContext(WhatsAppConstants.WHATSAPP_SEND_BATCH_PATH, this::handleBatch);
+        bridge.setExecutor(Executors.newCachedThreadPool());
+        bridge.start();
+
+        outbox = newOutbox("http://localhost:" + bridge.getAddress().getPort(), true, linger, maxMessages);
+        outbox.start();
+    }
+
+    private WhatsAppOutbox newOutbox(String apiUrl, boolean enabled, Duration linger, int maxMessages) {
+        return new WhatsAppOutbox(httpClient, objectMapper.writer(), objectMapper, apiUrl, enabled, linger,
+                maxMessages, 4, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        JsonNode messages = objectMapper.readTree(exchange.getRequestBody()).path("messages");
+        List<String> batch = new ArrayList<>();
+        List<BridgeBatchResult.Item> results = new ArrayList<>();
+        messages.forEach(message -> {
+            batch.add(message.path("to").asText() + ":" + message.path("message").asText());
+            results.add(new BridgeBatchResult.Item(BridgeBatchResult.STATUS_OK, null));
+        });
+        boolean first = batches.isEmpty();
+        batches.add(batch);
+        if (first) {
+            try {
+                firstBatchGate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        byte[] response = objectMapper.writeValueAsBytes(new BridgeBatchResult(results));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode.get(), response.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response);
+        }
+    }
+
+    private static BridgeMessage text(String to, String message) {
+        return BridgeMessage.text(TextMessage.of(to, message));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tempo esgotado").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -117,8 +117,10 @@ client.on('message', async (message) => {
             // Envia para o backend
             const response = await axios.post(URL_JAVA_APP + '/whatsapp-survey', payload);
 
-            // Incrementa o número da pergunta para o próximo envio
-            userState[userId].questionNumber++;
+            // A pergunta atual é controlada pelo backend
+            if (response.data.nextQuestion) {
+                userState[userId].questionNumber = response.data.nextQuestion;
+            }
 
             // Envia próxima pergunta ou mensagem final
             const nextMessage = response.data.message || '✅ Obrigado!';
@@ -162,12 +164,52 @@ client.on('message', async (message) => {
                 filename: media.filename || null
             }
         };
-        await axios.post(URL_JAVA_APP + '/whatsapp-webhook', payload);
+        try {
+            await axios.post(URL_JAVA_APP + '/whatsapp-webhook', payload);
+        } catch (err) {
+            // 429: telefone acima do limite de imagens; o aviso ao usuário é enviado pela aplicação
+            if (err.response && err.response.status === 429) {
+                console.warn(`Imagem de ${message.from} recusada por limite (Retry-After: ${err.response.headers['retry-after']}s)`);
+            } else {
+                console.error('Erro ao enviar imagem para a aplicação:', err.message);
+            }
+        }
     }
 });
 
 // --------- ENDPOINTS HTTP ---------
 
+// Envio de texto: salva o imageId (quando houver) para uso nas respostas do questionário
+async function deliverText(to, message, imageId) {
+    await client.sendMessage(to, message);
+    if (imageId) {
+        userState[to] = userState[to] || {};
+        userState[to].imageId = imageId;
+        userState[to].questionNumber = 1;
+    }
+}
+
+// Nome do arquivo de áudio conforme o formato sintetizado pela aplicação (opus, aac ou mp3)
+const VOICE_MIMETYPE_DEFAULT = 'audio/ogg; codecs=opus';
+const VOICE_FILENAMES = {
+    'audio/ogg': 'audio.ogg',
+    'audio/aac': 'audio.aac',
+    'audio/mpeg': 'audio.mp3'
+};
+
+// Envio de voz (áudio base64): marca que o áudio foi enviado e libera o questionário
+async function deliverVoice(to, audioBase64, imageId, mimetype) {
+    const type = mimetype || VOICE_MIMETYPE_DEFAULT;
+    const filename = VOICE_FILENAMES[type.split(';')[0].trim()] || 'audio.ogg';
+    const media = new MessageMedia(type, audioBase64, filename);
+    await client.sendMessage(to, media, { sendAudioAsVoice: true });
+    userState[to] = userState[to] || {};
+    userState[to].audioSent = true;
+    if (imageId) {
+        userState[to].imageId = imageId;
+    }
+}
+
 // Enviar mensagem de texto
 app.post('/sendText', async (req, res) => {
     const { to, message, imageId } = req.body;
@@ -175,45 +217,81 @@ app.post('/sendText', async (req, res) => {
         return res.status(400).json({ error: 'Parâmetros "to" e "message" são obrigatórios.' });
     }
     try {
-        await client.sendMessage(to, message);
-        // Se receber imageId, salva para uso nas respostas e inicia questionário
-        if (imageId) {
-            userState[to] = userState[to] || {};
-            userState[to].imageId = imageId;
-            userState[to].questionNumber = 1;
-        }
+        await deliverText(to, message, imageId);
         res.status(200).json({ status: 'OK', to, message });
     } catch (err) {
         res.status(500).json({ error: err.message });
     }
 });
 
-// Enviar mensagem de voz (áudio .ogg base64)
+// Enviar mensagem de voz (áudio base64, no formato indicado em "mimetype")
 app.post('/sendVoice', async (req, res) => {
     if (!whatsappReady) {
         return res.status(503).json({ error: 'WhatsApp não está pronto. Aguarde.' });
     }
 
-    const { to, audioBase64, imageId } = req.body;
+    const { to, audioBase64, imageId, mimetype } = req.body;
     if (!to || !audioBase64) {
         return res.status(400).json({ error: 'Parâmetros "to" e "audioBase64" são obrigatórios.' });
     }
     try {
-        const media = new MessageMedia('audio/ogg; codecs=opus', audioBase64, 'audio.ogg');
-        await client.sendMessage(to, media, { sendAudioAsVoice: true });
-        // Marca que o áudio foi enviado, libera questionário
-        userState[to] = userState[to] || {};
-        userState[to].audioSent = true;
-        // Se receber imageId, salva para uso nas respostas
-        if (imageId) {
-            userState[to].imageId = imageId;
-        }
+        await deliverVoice(to, audioBase64, imageId, mimetype);
         res.status(200).json({ status: 'OK', to });
     } catch (err) {
         res.status(500).json({ error: err.message });
     }
 });
 
+// Enviar lote de mensagens: { messages: [{ type: 'text' | 'voice', to, message, mimetype, audioBase64, imageId }] }
+// Mensagens do mesmo chat são enviadas em sequência, na ordem do lote; chats diferentes em paralelo.
+// A resposta traz um resultado por mensagem, na mesma ordem.
+app.post('/sendBatch', async (req, res) => {
+    const messages = req.body.messages;
+    if (!Array.isArray(messages)) {
+        return res.status(400).json({ error: 'Parâmetro "messages" deve ser uma lista.' });
+    }
+
+    const results = new Array(messages.length);
+    const chats = new Map();
+    messages.forEach((item, index) => {
+        if (!item || !item.to) {
+            results[index] = { status: 'ERROR', error: 'Parâmetro "to" é obrigatório.' };
+            return;
+        }
+        if (!chats.has(item.to)) {
+            chats.set(item.to, []);
+        }
+        chats.get(item.to).push(index);
+    });
+
+    await Promise.all([...chats.values()].map(async (indexes) => {
+        for (const index of indexes) {
+            const { type, to, message, mimetype, audioBase64, imageId } = messages[index];
+            try {
+                if (type === 'voice') {
+                    if (!whatsappReady) {
+                        throw new Error('WhatsApp não está pronto. Aguarde.');
+                    }
+                    if (!audioBase64) {
+                        throw new Error('Parâmetro "audioBase64" é obrigatório.');
+                    }
+                    await deliverVoice(to, audioBase64, imageId, mimetype);
+                } else {
+                    if (!message) {
+                        throw new Error('Parâmetro "message" é obrigatório.');
+                    }
+                    await deliverText(to, message, imageId);
+                }
+                results[index] = { status: 'OK' };
+            } catch (err) {
+                results[index] = { status: 'ERROR', error: err.message };
+            }
+        }
+    }));
+
+    res.status(200).json({ results });
+});
+
 app.get('/health', (req, res) => {
     res.status(200).json({
         status: 'healthy',